@@ -173,6 +173,26 @@ public interface Parser<S extends SourceFile> {
         default void onParseFailed(Path sourcePath) {
         }
 
+        /**
+         * Called when a source file could not be parsed, or was deliberately skipped.
+         *
+         * @param sourcePath The path of the source file.
+         * @param reason     Why the source file has no AST, e.g. that it is larger than the parser is willing to parse.
+         */
+        default void onParseFailed(Path sourcePath, String reason) {
+            onParseFailed(sourcePath);
+        }
+
+        /**
+         * Called with each source file as soon as it is ready, before the parser has necessarily finished the
+         * rest of the batch it belongs to. Useful for streaming source files elsewhere (e.g. to disk) as they
+         * are produced.
+         *
+         * @param sourceFile The parsed source file.
+         */
+        default void onSourceFileParsed(SourceFile sourceFile) {
+        }
+
         default void onError(String message) {}
 
         default void onError(String message, Throwable t) {}
@@ -32,6 +32,7 @@ import java.util.function.Function;
 
 import static java.util.Collections.emptyList;
 import static java.util.Collections.singleton;
+import static java.util.Collections.singletonList;
 import static java.util.stream.Collectors.*;
 
 /**
@@ -109,63 +110,186 @@ public class Recipe {
         return NOOP;
     }
 
+    /**
+     * A fusable recipe shares a single traversal of each source file with the fusable recipes that directly follow
+     * it in the doNext chain, instead of each of them visiting every source file in turn. Each tree is then visited
+     * by all of their visitors, in chain order, once its children have been visited by all of them.
+     * <p>
+     * Override this to return true only for recipes whose visitors rewrite each tree based on the tree itself,
+     * its ancestors and the visitor's own state, since a fused visitor sees trees whose children have already been
+     * changed by the recipes that follow it, and the fusable recipe shouldn't generate or delete source files.
+     *
+     * @return Whether this recipe's visitor can be fused with the visitors of the recipes next to it.
+     */
+    @Incubating(since = "7.0.0")
+    protected boolean isFusable() {
+        return false;
+    }
+
+    /**
+     * A recipe causes another cycle when a later cycle can make changes that the first one didn't, e.g. because it
+     * shares what it has found through the {@link ExecutionContext}, or because its visitor only makes part of a
+     * change in each pass over a source file. When no recipe in the doNext chain causes another cycle, the recipe
+     * is run once, whatever the maximum number of cycles.
+     * <p>
+     * Override this to return false for recipes that make all of their changes in a single pass.
+     *
+     * @return Whether running this recipe again may make more changes.
+     */
+    @Incubating(since = "7.0.0")
+    protected boolean causesAnotherCycle() {
+        return true;
+    }
+
     @SuppressWarnings("SuspiciousMethodCalls")
     private <S extends SourceFile> List<SourceFile> visitInternal(List<S> before,
                                                                   ExecutionContext ctx,
                                                                   ForkJoinPool forkJoinPool,
                                                                   Map<UUID, Recipe> recipeThatDeletedSourceFile) {
         List<S> after = before;
+        List<Recipe> fused = singletonList(this);
         // if this recipe isn't valid we just skip it and proceed to next
         if (validate(ctx).isValid()) {
-            after = ListUtils.map(after, forkJoinPool, s -> {
-                try {
-                    @SuppressWarnings("unchecked") S afterFile = (S) getVisitor().visit(s, ctx);
-                    if (afterFile != null && afterFile != s) {
-                        afterFile = afterFile.withMarkers(afterFile.getMarkers().compute(
-                                new RecipeThatMadeChanges(this),
-                                (r1, r2) -> {
-                                    r1.recipes.addAll(r2.recipes);
-                                    return r1;
-                                }));
-                    }
-                    if (afterFile == null) {
-                        recipeThatDeletedSourceFile.put(s.getId(), this);
+            fused = fusedWithNext(ctx);
+            if (fused.size() > 1) {
+                after = visitFused(fused, after, ctx, forkJoinPool, recipeThatDeletedSourceFile);
+            } else {
+                after = ListUtils.map(after, forkJoinPool, s -> {
+                    try {
+                        @SuppressWarnings("unchecked") S afterFile = (S) getVisitor().visit(s, ctx);
+                        if (afterFile != null && afterFile != s) {
+                            afterFile = madeChanges(afterFile, this);
+                        }
+                        if (afterFile == null) {
+                            recipeThatDeletedSourceFile.put(s.getId(), this);
+                        }
+                        return afterFile;
+                    } catch (Throwable t) {
+                        ctx.getOnError().accept(t);
+                        return s;
                     }
-                    return afterFile;
-                } catch (Throwable t) {
-                    ctx.getOnError().accept(t);
-                    return s;
-                }
-            });
+                });
+            }
         }
 
         // The type of the list is widened at this point, since a source file type may be generated that isn't
         // of a type that is in the original set of source files (e.g. only XML files are given, and the
         // recipe generates Java code).
 
-        //noinspection unchecked
-        List<SourceFile> afterWidened = visit((List<SourceFile>) after, ctx);
+        @SuppressWarnings("unchecked") List<SourceFile> afterWidened = (List<SourceFile>) after;
+        for (Recipe recipe : fused) {
+            List<SourceFile> beforeVisit = afterWidened;
+            afterWidened = recipe.visit(beforeVisit, ctx);
 
-        for (SourceFile maybeGenerated : afterWidened) {
-            if (!after.contains(maybeGenerated)) {
-                // a new source file generated
-                recipeThatDeletedSourceFile.put(maybeGenerated.getId(), this);
+            for (SourceFile maybeGenerated : afterWidened) {
+                if (!beforeVisit.contains(maybeGenerated)) {
+                    // a new source file generated
+                    recipeThatDeletedSourceFile.put(maybeGenerated.getId(), recipe);
+                }
             }
-        }
 
-        for (SourceFile maybeDeleted : after) {
-            if (!afterWidened.contains(maybeDeleted)) {
-                // a source file deleted
-                recipeThatDeletedSourceFile.put(maybeDeleted.getId(), this);
+            for (SourceFile maybeDeleted : beforeVisit) {
+                if (!afterWidened.contains(maybeDeleted)) {
+                    // a source file deleted
+                    recipeThatDeletedSourceFile.put(maybeDeleted.getId(), recipe);
+                }
             }
         }
 
-        if (next != null) {
-            afterWidened = next.visitInternal(afterWidened, ctx, forkJoinPool, recipeThatDeletedSourceFile);
+        Recipe last = fused.get(fused.size() - 1);
+        if (last.next != null) {
+            afterWidened = last.next.visitInternal(afterWidened, ctx, forkJoinPool, recipeThatDeletedSourceFile);
         }
         return afterWidened;
     }
 
+    /**
+     * @return This recipe followed by the valid, fusable recipes that directly follow it, if it is fusable itself.
+     */
+    private List<Recipe> fusedWithNext(ExecutionContext ctx) {
+        if (!isFusable() || next == null || !next.isFusable()) {
+            return singletonList(this);
+        }
+        List<Recipe> fused = new ArrayList<>();
+        fused.add(this);
+        for (Recipe r = next; r != null && r.isFusable() && r.validate(ctx).isValid(); r = r.next) {
+            fused.add(r);
+        }
+        return fused;
+    }
+
+    private static <S extends SourceFile> List<S> visitFused(List<Recipe> fused,
+                                                             List<S> before,
+                                                             ExecutionContext ctx,
+                                                             ForkJoinPool forkJoinPool,
+                                                             Map<UUID, Recipe> recipeThatDeletedSourceFile) {
+        return ListUtils.map(before, forkJoinPool, s -> {
+            try {
+                List<TreeVisitor<Tree, ExecutionContext>> visitors = new ArrayList<>(fused.size());
+                for (Recipe recipe : fused) {
+                    @SuppressWarnings("unchecked") TreeVisitor<Tree, ExecutionContext> visitor =
+                            (TreeVisitor<Tree, ExecutionContext>) recipe.getVisitor();
+                    visitors.add(visitor);
+                }
+
+                // which of the visitors changed the source file, tracked per source file rather than by the
+                // visitors themselves, since a recipe may return the same visitor every time
+                BitSet changed = new BitSet(visitors.size());
+                Tree t = s;
+                TreeVisitor<Tree, ExecutionContext> fusedVisitor = visitors.get(0).fuse(visitors.subList(1, visitors.size()), changed);
+                if (fusedVisitor == null) {
+                    // the visitors of these recipes can't be fused after all, so they visit the source file in turn
+                    for (int i = 0; i < visitors.size() && t != null; i++) {
+                        Tree visited = visitors.get(i).visit(t, ctx);
+                        if (visited != t) {
+                            changed.set(i);
+                        }
+                        t = visited;
+                    }
+                } else {
+                    t = fusedVisitor.visit(s, ctx);
+                    for (int i = 0; i < visitors.size() && t != null; i++) {
+                        Tree visited = visitors.get(i).afterFusedVisit(t, ctx);
+                        if (visited != t) {
+                            changed.set(i);
+                        }
+                        t = visited;
+                    }
+                }
+
+                @SuppressWarnings("unchecked") S afterFile = (S) t;
+                if (afterFile == null) {
+                    // the last visitor to change the source file is the one that deleted it
+                    for (int i = fused.size() - 1; i >= 0; i--) {
+                        if (changed.get(i)) {
+                            recipeThatDeletedSourceFile.put(s.getId(), fused.get(i));
+                            break;
+                        }
+                    }
+                } else if (afterFile != s) {
+                    for (int i = 0; i < fused.size(); i++) {
+                        if (changed.get(i)) {
+                            afterFile = madeChanges(afterFile, fused.get(i));
+                        }
+                    }
+                }
+                return afterFile;
+            } catch (Throwable t) {
+                ctx.getOnError().accept(t);
+                return s;
+            }
+        });
+    }
+
+    private static <S extends SourceFile> S madeChanges(S sourceFile, Recipe recipe) {
+        return sourceFile.withMarkers(sourceFile.getMarkers().compute(
+                new RecipeThatMadeChanges(recipe),
+                (r1, r2) -> {
+                    r1.recipes.addAll(r2.recipes);
+                    return r1;
+                }));
+    }
+
     /**
      * Override this to generate new source files or delete source files.
      *
@@ -198,10 +322,15 @@ public class Recipe {
         List<? extends SourceFile> acc = before;
         List<? extends SourceFile> after = acc;
 
+        boolean causesAnotherCycle = false;
+        for (Recipe recipe = this; recipe != null; recipe = recipe.next) {
+            causesAnotherCycle |= recipe.causesAnotherCycle();
+        }
+
         WatchForNewMessageExecutionContext ctxWithWatch = new WatchForNewMessageExecutionContext(ctx);
         for (int i = 0; i < maxCycles; i++) {
             after = visitInternal(before, ctxWithWatch, forkJoinPool, recipeThatDeletedSourceFile);
-            if (after == acc && !ctxWithWatch.needAnotherCycle) {
+            if (!causesAnotherCycle || (after == acc && !ctxWithWatch.needAnotherCycle)) {
                 break;
             }
             acc = after;
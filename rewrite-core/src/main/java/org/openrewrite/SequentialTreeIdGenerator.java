@@ -0,0 +1,53 @@
+/*
+ * Copyright 2020 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite;
+
+import java.security.SecureRandom;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @see TreeIdGenerator#sequential()
+ */
+final class SequentialTreeIdGenerator implements TreeIdGenerator {
+    static volatile TreeIdGenerator defaultGenerator = new SequentialTreeIdGenerator();
+
+    private static final int RANGE_SIZE = 4096;
+
+    private final long mostSigBits;
+    private final AtomicLong nextRange = new AtomicLong();
+
+    /**
+     * The next id of the range of the counter a thread has taken, and the end of the range.
+     */
+    private final ThreadLocal<long[]> range = ThreadLocal.withInitial(() -> new long[2]);
+
+    SequentialTreeIdGenerator() {
+        // keep the version bits of a random UUID, so these ids are never mistaken for ids of any other version
+        this.mostSigBits = (new SecureRandom().nextLong() & ~0xF000L) | 0x4000L;
+    }
+
+    @Override
+    public UUID next() {
+        long[] r = range.get();
+        if (r[0] == r[1]) {
+            r[0] = nextRange.getAndAdd(RANGE_SIZE);
+            r[1] = r[0] + RANGE_SIZE;
+        }
+        // the IETF variant bits, as in a random UUID
+        return new UUID(mostSigBits, (r[0]++ & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L);
+    }
+}
@@ -22,12 +22,17 @@ import org.openrewrite.marker.Markable;
 import org.openrewrite.style.NamedStyles;
 import org.openrewrite.style.Style;
 
+import java.io.*;
+import java.nio.charset.Charset;
 import java.util.UUID;
 
 @JsonTypeInfo(use = JsonTypeInfo.Id.CLASS, property = "@c")
 public interface Tree extends Markable {
+    /**
+     * @return A new id, from the {@link TreeIdGenerator#getDefault() default tree id generator}.
+     */
     static UUID randomId() {
-        return UUID.randomUUID();
+        return TreeIdGenerator.getDefault().next();
     }
 
     @Nullable
@@ -60,6 +65,41 @@ public interface Tree extends Markable {
 
     <P> String print(TreePrinter<P> printer, P p);
 
+    /**
+     * Print this tree directly to a sink, without first building the whole output as one string.
+     *
+     * @param printer tree printer
+     * @param p       visit context
+     * @param out     the sink to print to. It is neither flushed nor closed.
+     * @param <P>     visit context type
+     */
+    default <P> void print(TreePrinter<P> printer, P p, Appendable out) {
+        try {
+            out.append(print(printer, p));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Print this tree directly to an output stream, encoding it with the given charset.
+     *
+     * @param printer tree printer
+     * @param p       visit context
+     * @param out     the stream to print to. It is flushed but not closed.
+     * @param charset the charset to encode the printed output with
+     * @param <P>     visit context type
+     */
+    default <P> void print(TreePrinter<P> printer, P p, OutputStream out, Charset charset) {
+        Writer writer = new OutputStreamWriter(out, charset);
+        print(printer, p, writer);
+        try {
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
     default <P> String print(P p) {
         return print(TreePrinter.identity(), p);
     }
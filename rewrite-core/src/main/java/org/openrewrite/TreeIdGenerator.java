@@ -0,0 +1,58 @@
+/*
+ * Copyright 2020 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite;
+
+import java.util.UUID;
+
+/**
+ * Generates the ids of new trees, which {@link Tree#randomId()} delegates to.
+ * <p>
+ * Parsers and templates ask for an id for every tree they create. {@link UUID#randomUUID()} draws each id from a
+ * shared {@link java.security.SecureRandom}, which is slow and contended when many threads parse at once, so the
+ * default is a {@link #sequential()} generator instead.
+ */
+@Incubating(since = "7.0.0")
+@FunctionalInterface
+public interface TreeIdGenerator {
+    UUID next();
+
+    /**
+     * @return A generator of random UUIDs, the ids trees were given before generators were pluggable.
+     */
+    static TreeIdGenerator random() {
+        return UUID::randomUUID;
+    }
+
+    /**
+     * @return A generator of ids that share a random prefix chosen when the generator is created and differ by a
+     * counter. Each thread takes ranges of the counter for itself, so generating an id is only an increment.
+     * The ids are unique within a run and, by virtue of the random prefix, across runs.
+     */
+    static TreeIdGenerator sequential() {
+        return new SequentialTreeIdGenerator();
+    }
+
+    static TreeIdGenerator getDefault() {
+        return SequentialTreeIdGenerator.defaultGenerator;
+    }
+
+    /**
+     * @param generator The generator {@link Tree#randomId()} delegates to from now on.
+     */
+    static void setDefault(TreeIdGenerator generator) {
+        SequentialTreeIdGenerator.defaultGenerator = generator;
+    }
+}
@@ -17,9 +17,13 @@ package org.openrewrite;
 
 public interface TreePrinter<P> {
 
+    @SuppressWarnings("rawtypes")
+    TreePrinter IDENTITY = new TreePrinter() {
+    };
+
+    @SuppressWarnings("unchecked")
     static <P> TreePrinter<P> identity() {
-        return new TreePrinter<P>() {
-        };
+        return (TreePrinter<P>) IDENTITY;
     }
 
     /**
@@ -44,10 +44,20 @@ public class TreeSerializer<S extends SourceFile> {
     private final ObjectMapper mapper;
 
     public TreeSerializer() {
+        this(false);
+    }
+
+    /**
+     * @param compactIds Whether to write tree ids as 16 raw bytes rather than the 19 bytes it takes to encode them
+     *                   in 7-bit safe form. Either form is read back by any serializer.
+     */
+    @Incubating(since = "7.0.0")
+    public TreeSerializer(boolean compactIds) {
         SimpleModule markerModule = new SimpleModule();
 
         SmileFactory f = new SmileFactory();
         f.configure(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES, true);
+        f.configure(SmileGenerator.Feature.ENCODE_BINARY_AS_7BIT, !compactIds);
 
         ObjectMapper m = JsonMapper.builder(f)
                 // to be able to construct classes that have @Data and a single field
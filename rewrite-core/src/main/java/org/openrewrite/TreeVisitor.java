@@ -19,6 +19,7 @@ import org.openrewrite.internal.lang.Nullable;
 
 import java.lang.management.ManagementFactory;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
 import java.util.function.BiFunction;
 
@@ -43,6 +44,13 @@ public abstract class TreeVisitor<T extends Tree, P> {
     private Cursor cursor;
     private List<TreeVisitor<T, P>> afterVisit;
 
+    /**
+     * While a fused visitor has this visitor visit a tree, the children of that tree this visitor has already
+     * visited, which are returned unchanged when they are visited again.
+     */
+    @Nullable
+    private List<? extends Tree> fusedChildren;
+
     protected final void setCursoringOn() {
         this.cursored = true;
         setCursor(new Cursor(null, "root"));
@@ -78,8 +86,8 @@ public abstract class TreeVisitor<T extends Tree, P> {
      */
     @Incubating(since = "7.0.0")
     protected void doAfterVisit(Recipe recipe) {
-        //noinspection unchecked
-        afterVisit.add((TreeVisitor<T, P>) recipe.getVisitor());
+        @SuppressWarnings("unchecked") TreeVisitor<T, P> visitor = (TreeVisitor<T, P>) recipe.getVisitor();
+        afterVisit.add(visitor);
     }
 
     protected List<TreeVisitor<T, P>> getAfterVisit() {
@@ -106,12 +114,22 @@ public abstract class TreeVisitor<T extends Tree, P> {
 
     @Nullable
     public T visit(@Nullable Tree tree, P p, Cursor parent) {
+        if (isFusedChild(tree)) {
+            @SuppressWarnings("unchecked") T t = (T) tree;
+            return t;
+        }
         this.cursor = parent;
         return visit(tree, p);
     }
 
     @Nullable
     public T visit(@Nullable Tree tree, P p) {
+        if (isFusedChild(tree)) {
+            // the fused visitor has already had this visitor visit the child
+            @SuppressWarnings("unchecked") T t = (T) tree;
+            return t;
+        }
+
         if (tree == null) {
             return defaultValue(null, p);
         }
@@ -150,6 +168,101 @@ public abstract class TreeVisitor<T extends Tree, P> {
         return t;
     }
 
+    private boolean isFusedChild(@Nullable Tree tree) {
+        if (fusedChildren != null) {
+            for (Tree child : fusedChildren) {
+                if (child == tree) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns a visitor that applies this visitor and then each of the others to every tree in a single traversal,
+     * for the {@link Recipe recipes} in a doNext chain that are {@link Recipe#isFusable() fusable}. Fused visitors
+     * visit each tree with {@link #preVisitNode} on the way down and with {@link #visitNode} on the way up, once its
+     * children have been visited by all of them.
+     *
+     * @param others  The visitors to apply after this one, in order.
+     * @param changed Set by the fused visitor at the index of each visitor that changes a tree, this one being at 0
+     *                and the others following it.
+     * @return A fused visitor, or null if these visitors can't be fused.
+     */
+    @Incubating(since = "7.0.0")
+    @Nullable
+    public TreeVisitor<T, P> fuse(List<TreeVisitor<T, P>> others, BitSet changed) {
+        return null;
+    }
+
+    /**
+     * Pre-visit a tree as part of a fused visitor, before its children are visited.
+     *
+     * @param tree   The tree to pre-visit.
+     * @param p      The visitor parameter.
+     * @param cursor The fused visitor's cursor, pointing at the tree.
+     * @return The result of {@link #preVisit}.
+     */
+    @Incubating(since = "7.0.0")
+    @Nullable
+    public T preVisitNode(T tree, P p, Cursor cursor) {
+        if (afterVisit == null) {
+            afterVisit = new ArrayList<>();
+        }
+        setCursor(cursor);
+        return preVisit(tree, p);
+    }
+
+    /**
+     * Visit a tree as part of a fused visitor, once its children have been visited. The tree is visited as by
+     * {@link #visit(Tree, Object)}, except that visiting any of the children the fused visitor has already had this
+     * visitor visit returns them unchanged. New subtrees, like those the visitor creates, are visited in full. Visitors
+     * scheduled with {@link #doAfterVisit} are kept until the {@link Recipe} runs them after the whole source file
+     * has been visited.
+     *
+     * @param tree   The tree to visit.
+     * @param p      The visitor parameter.
+     * @param cursor   The fused visitor's cursor, pointing at the tree.
+     * @param children The children of the tree as they were returned from visiting them.
+     * @return The visited tree.
+     */
+    @Incubating(since = "7.0.0")
+    @Nullable
+    public T visitNode(T tree, P p, Cursor cursor, List<? extends Tree> children) {
+        if (afterVisit == null) {
+            afterVisit = new ArrayList<>();
+        }
+        setCursor(cursor);
+        fusedChildren = children;
+        try {
+            T t = tree.accept(this, p);
+            if (t != null) {
+                t = postVisit(t, p);
+            }
+            return t;
+        } finally {
+            fusedChildren = null;
+        }
+    }
+
+    /**
+     * Runs the visitors scheduled with {@link #doAfterVisit} while this visitor was part of a fused visitor.
+     */
+    @Nullable
+    T afterFusedVisit(T tree, P p) {
+        T t = tree;
+        if (afterVisit != null) {
+            for (TreeVisitor<T, P> v : afterVisit) {
+                if (t != null) {
+                    t = v.visit(t, p);
+                }
+            }
+            afterVisit = null;
+        }
+        return t;
+    }
+
     @Nullable
     public T defaultValue(@Nullable Tree tree, P p) {
         //noinspection unchecked
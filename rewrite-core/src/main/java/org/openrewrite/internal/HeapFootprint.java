@@ -0,0 +1,378 @@
+/*
+ * Copyright 2020 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.internal;
+
+import org.openrewrite.SourceFile;
+import org.openrewrite.Tree;
+import org.openrewrite.internal.lang.Nullable;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.file.Path;
+import java.util.*;
+
+import static java.util.Collections.unmodifiableMap;
+
+/**
+ * An estimate of the heap retained by the ASTs of source files, for sizing the memory needed to hold them and
+ * for comparing the footprint of ASTs produced in different ways, e.g. with and without interning their strings.
+ * <p>
+ * Each object is counted once, against the first source file it is reachable from, so objects that source files
+ * share, like types and interned strings, count towards the total only once. Likewise, every object that is not
+ * a tree is retained by the first tree it is reachable from, so the bytes retained by a tree class include the
+ * whitespace, markers and types that its trees were first to refer to.
+ * <p>
+ * Sizes are those of a 64-bit JVM with compressed references. JDK classes are not inspected reflectively.
+ * Strings, arrays, collections and maps are sized from their contents, and other JDK objects are assumed to be small.
+ */
+public final class HeapFootprint {
+    private static final int HEADER = 12;
+    private static final int ARRAY_HEADER = 16;
+    private static final int REFERENCE = 4;
+
+    /**
+     * {@link Boolean#TRUE} for objects referred to once so far, {@link Boolean#FALSE} for objects that are shared.
+     * Held weakly when source files are measured one at a time, so that measuring doesn't retain them.
+     */
+    @Nullable
+    private final Map<Object, Boolean> measured;
+
+    @Nullable
+    private final WeakIdentityMap<Object, Boolean> weaklyMeasured;
+
+    private final Map<Path, Long> retainedBytes = new LinkedHashMap<>();
+    private final Map<Class<?>, ClassFootprint> classFootprints = new HashMap<>();
+    private final Map<Class<?>, ClassLayout> layouts = new HashMap<>();
+    private volatile long totalBytes;
+
+    /**
+     * Create a footprint to {@link #add(SourceFile)} source files to one at a time, e.g. as they are parsed.
+     * The objects already measured are held weakly, so a source file that is no longer reachable doesn't
+     * stay in memory on account of having been measured.
+     */
+    public HeapFootprint() {
+        this.measured = null;
+        this.weaklyMeasured = new WeakIdentityMap<>();
+    }
+
+    private HeapFootprint(Map<Object, Boolean> measured) {
+        this.measured = measured;
+        this.weaklyMeasured = null;
+    }
+
+    public static HeapFootprint of(Iterable<? extends SourceFile> sourceFiles) {
+        HeapFootprint footprint = new HeapFootprint(new IdentityHashMap<>());
+        for (SourceFile sourceFile : sourceFiles) {
+            footprint.add(sourceFile);
+        }
+        footprint.measured.clear();
+        return footprint;
+    }
+
+    /**
+     * @param sourceFile A source file to measure.
+     * @return The estimated bytes retained by the source file, not counting those already retained by
+     * source files added before it.
+     */
+    public synchronized long add(SourceFile sourceFile) {
+        long bytes = measure(sourceFile);
+        retainedBytes.merge(sourceFile.getSourcePath(), bytes, Long::sum);
+        totalBytes += bytes;
+        return bytes;
+    }
+
+    /**
+     * @return The estimated bytes retained by each source file, by source path, in the order they were measured.
+     */
+    public synchronized Map<Path, Long> getRetainedBytes() {
+        return unmodifiableMap(new LinkedHashMap<>(retainedBytes));
+    }
+
+    public long getTotalBytes() {
+        return totalBytes;
+    }
+
+    /**
+     * @return The instances of each class reachable from the source files measured so far.
+     */
+    public synchronized Map<Class<?>, ClassFootprint> getClassFootprints() {
+        return unmodifiableMap(new HashMap<>(classFootprints));
+    }
+
+    /**
+     * @param before The footprint of a batch of source files.
+     * @param after  The footprint of the same source files, produced in some other way.
+     * @return A table of the bytes retained by each source file before and after, and the change between them.
+     */
+    public static String report(HeapFootprint before, HeapFootprint after) {
+        StringBuilder report = new StringBuilder(String.format("%-60s %14s %14s %8s%n",
+                "Source path", "Before", "After", "Change"));
+        Map<Path, Long> afterBytes = after.getRetainedBytes();
+        for (Map.Entry<Path, Long> retained : before.getRetainedBytes().entrySet()) {
+            Long bytes = afterBytes.get(retained.getKey());
+            report.append(row(retained.getKey().toString(), retained.getValue(), bytes == null ? 0 : bytes));
+        }
+        report.append(row("Total", before.getTotalBytes(), after.getTotalBytes()));
+        return report.toString();
+    }
+
+    private static String row(String name, long before, long after) {
+        return String.format("%-60s %,14d %,14d %7.1f%%%n", name, before, after,
+                before == 0 ? 0.0 : 100.0 * (after - before) / before);
+    }
+
+    /**
+     * @param limit The number of classes to include.
+     * @return A table of the classes retaining the most bytes, with their instance and reference counts.
+     */
+    public String classReport(int limit) {
+        List<ClassFootprint> footprints = new ArrayList<>(getClassFootprints().values());
+        footprints.sort(Comparator.comparingLong(ClassFootprint::getRetainedBytes)
+                .thenComparingLong(ClassFootprint::getShallowBytes)
+                .reversed());
+
+        StringBuilder report = new StringBuilder(String.format("%-60s %12s %12s %12s %14s %14s%n",
+                "Class", "Instances", "Shared", "References", "Shallow", "Retained"));
+        for (ClassFootprint footprint : footprints.subList(0, Math.min(limit, footprints.size()))) {
+            report.append(String.format("%-60s %,12d %,12d %,12d %,14d %,14d%n",
+                    footprint.getType().getName(), footprint.getInstances(), footprint.getSharedInstances(),
+                    footprint.getReferences(), footprint.getShallowBytes(), footprint.getRetainedBytes()));
+        }
+        report.append(String.format("%-60s %68s%n", "Total", String.format("%,d", totalBytes)));
+        return report.toString();
+    }
+
+    private long measure(SourceFile sourceFile) {
+        long bytes = 0;
+        Deque<Reference> stack = new ArrayDeque<>();
+        stack.push(new Reference(sourceFile, sourceFile.getClass()));
+        while (!stack.isEmpty()) {
+            Reference reference = stack.pop();
+            Object o = reference.referent;
+            ClassFootprint footprint = classFootprints.computeIfAbsent(o.getClass(), ClassFootprint::new);
+            footprint.references++;
+
+            Boolean referredToOnce = get(o);
+            if (referredToOnce == null) {
+                put(o, Boolean.TRUE);
+                Class<?> owner = o instanceof Tree ? o.getClass() : reference.owner;
+                long size = shallowSize(o, owner, stack);
+                footprint.instances++;
+                footprint.shallowBytes += size;
+                classFootprints.computeIfAbsent(owner, ClassFootprint::new).retainedBytes += size;
+                bytes += size;
+            } else if (referredToOnce) {
+                put(o, Boolean.FALSE);
+                footprint.sharedInstances++;
+            }
+        }
+        return bytes;
+    }
+
+    @Nullable
+    private Boolean get(Object o) {
+        //noinspection ConstantConditions
+        return measured == null ? weaklyMeasured.get(o) : measured.get(o);
+    }
+
+    private void put(Object o, Boolean referredToOnce) {
+        if (measured == null) {
+            //noinspection ConstantConditions
+            weaklyMeasured.put(o, referredToOnce);
+        } else {
+            measured.put(o, referredToOnce);
+        }
+    }
+
+    /**
+     * @return The size of the object itself, having pushed the objects it refers to onto the stack.
+     */
+    private long shallowSize(Object o, Class<?> owner, Deque<Reference> stack) {
+        Class<?> clazz = o.getClass();
+        if (o instanceof String) {
+            // compact strings hold one byte per character of source code, which is nearly always Latin-1
+            return align(HEADER + REFERENCE + 8) + align(ARRAY_HEADER + ((String) o).length());
+        } else if (clazz.isArray()) {
+            int length = Array.getLength(o);
+            Class<?> component = clazz.getComponentType();
+            if (component.isPrimitive()) {
+                return align(ARRAY_HEADER + (long) length * primitiveSize(component));
+            }
+            for (int i = 0; i < length; i++) {
+                push(Array.get(o, i), owner, stack);
+            }
+            return align(ARRAY_HEADER + (long) length * REFERENCE);
+        } else if (o instanceof Enum || o instanceof Class) {
+            return 0; // shared by the whole JVM
+        } else if (isJdkClass(clazz)) {
+            if (o instanceof Collection) {
+                Collection<?> collection = (Collection<?>) o;
+                for (Object element : collection) {
+                    push(element, owner, stack);
+                }
+                return align(HEADER + 8) + align(ARRAY_HEADER + (long) collection.size() * REFERENCE);
+            } else if (o instanceof Map) {
+                Map<?, ?> map = (Map<?, ?>) o;
+                for (Map.Entry<?, ?> entry : map.entrySet()) {
+                    push(entry.getKey(), owner, stack);
+                    push(entry.getValue(), owner, stack);
+                }
+                return align(HEADER + 24) + align(ARRAY_HEADER + (long) map.size() * 2 * REFERENCE) +
+                        map.size() * align(HEADER + 4 + 3 * REFERENCE);
+            } else if (o instanceof UUID) {
+                return align(HEADER + 16);
+            }
+            return align(HEADER + 8);
+        }
+
+        ClassLayout layout = layouts.computeIfAbsent(clazz, ClassLayout::new);
+        for (Field field : layout.references) {
+            try {
+                push(field.get(o), owner, stack);
+            } catch (IllegalAccessException ignored) {
+                // counted without its referents
+            }
+        }
+        return layout.size;
+    }
+
+    private static void push(@Nullable Object o, Class<?> owner, Deque<Reference> stack) {
+        if (o != null) {
+            stack.push(new Reference(o, owner));
+        }
+    }
+
+    private static boolean isJdkClass(Class<?> clazz) {
+        String name = clazz.getName();
+        return name.startsWith("java.") || name.startsWith("javax.") || name.startsWith("jdk.") ||
+                name.startsWith("sun.") || name.startsWith("com.sun.");
+    }
+
+    private static int primitiveSize(Class<?> type) {
+        if (type == long.class || type == double.class) {
+            return 8;
+        } else if (type == int.class || type == float.class) {
+            return 4;
+        } else if (type == short.class || type == char.class) {
+            return 2;
+        }
+        return 1;
+    }
+
+    private static long align(long size) {
+        return (size + 7) & ~7;
+    }
+
+    /**
+     * The instances of one class reachable from the measured source files. Updated as more source files are
+     * measured, and safe to read while they are.
+     */
+    public static final class ClassFootprint {
+        private final Class<?> type;
+        private volatile long instances;
+        private volatile long sharedInstances;
+        private volatile long references;
+        private volatile long shallowBytes;
+        private volatile long retainedBytes;
+
+        private ClassFootprint(Class<?> type) {
+            this.type = type;
+        }
+
+        public Class<?> getType() {
+            return type;
+        }
+
+        public long getInstances() {
+            return instances;
+        }
+
+        /**
+         * @return The number of instances referred to more than once, e.g. types shared by many trees.
+         */
+        public long getSharedInstances() {
+            return sharedInstances;
+        }
+
+        public long getReferences() {
+            return references;
+        }
+
+        /**
+         * @return The fraction of references to this class that are to an instance that is also referred to
+         * elsewhere, e.g. the hit ratio of a flyweight cache of its instances.
+         */
+        public double getReuseRatio() {
+            long references = this.references;
+            return references == 0 ? 0.0 : (double) (references - instances) / references;
+        }
+
+        public long getShallowBytes() {
+            return shallowBytes;
+        }
+
+        /**
+         * @return For trees, the bytes of these trees and of the objects they were first to refer to that are not
+         * themselves trees. Otherwise, zero.
+         */
+        public long getRetainedBytes() {
+            return retainedBytes;
+        }
+    }
+
+    private static class Reference {
+        private final Object referent;
+
+        /**
+         * The class of the tree the referent is first reachable from.
+         */
+        private final Class<?> owner;
+
+        private Reference(Object referent, Class<?> owner) {
+            this.referent = referent;
+            this.owner = owner;
+        }
+    }
+
+    private static class ClassLayout {
+        private final List<Field> references = new ArrayList<>();
+        private final long size;
+
+        private ClassLayout(Class<?> clazz) {
+            long size = HEADER;
+            for (Class<?> c = clazz; c != null && c != Object.class; c = c.getSuperclass()) {
+                for (Field field : c.getDeclaredFields()) {
+                    if (Modifier.isStatic(field.getModifiers())) {
+                        continue;
+                    }
+                    if (field.getType().isPrimitive()) {
+                        size += primitiveSize(field.getType());
+                        continue;
+                    }
+                    size += REFERENCE;
+                    try {
+                        field.setAccessible(true);
+                        references.add(field);
+                    } catch (RuntimeException ignored) {
+                        // inaccessible fields are counted without their referents
+                    }
+                }
+            }
+            this.size = align(size);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2020 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.internal;
+
+import org.openrewrite.TreePrinter;
+import org.openrewrite.internal.lang.Nullable;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * The output of a single print operation of a tree printer.
+ * <p>
+ * Printers append to {@link #getBuffer()}. When the accumulator is created with a sink, the buffer is periodically
+ * drained into it, so that printing a large source file never materializes the whole file as one string. Since
+ * {@link TreePrinter#doBefore} and {@link TreePrinter#doAfter} are promised everything written so far, the buffer
+ * is only drained early when the tree printer is the {@link TreePrinter#identity()}. Otherwise the whole output is
+ * written to the sink at the end.
+ */
+public class PrinterAccumulator {
+    private static final int FLUSH_THRESHOLD = 8192;
+
+    private final StringBuilder buffer = new StringBuilder();
+
+    @Nullable
+    private final Appendable sink;
+
+    private final boolean flushEarly;
+
+    /**
+     * The number of characters already drained into the sink.
+     */
+    private long flushed;
+
+    public PrinterAccumulator() {
+        this(null, null);
+    }
+
+    public PrinterAccumulator(@Nullable Appendable sink, @Nullable TreePrinter<?> treePrinter) {
+        this.sink = sink;
+        this.flushEarly = sink != null && treePrinter == TreePrinter.identity();
+    }
+
+    public StringBuilder getBuffer() {
+        return buffer;
+    }
+
+    /**
+     * @return The number of characters printed so far, including those already drained into the sink.
+     */
+    public long getPosition() {
+        return flushed + buffer.length();
+    }
+
+    /**
+     * @param position A position previously returned by {@link #getPosition()}.
+     * @return Everything printed since that position, or null if some of it has already been drained into the sink.
+     */
+    @Nullable
+    public String printedSince(long position) {
+        return position < flushed ? null : buffer.substring((int) (position - flushed));
+    }
+
+    /**
+     * Called by printers between trees. Drains the buffer into the sink when it has grown large enough
+     * and it is safe to do so.
+     */
+    public void flushIfFull() {
+        if (flushEarly && buffer.length() >= FLUSH_THRESHOLD) {
+            flush();
+        }
+    }
+
+    /**
+     * Drains whatever is left in the buffer into the sink, if there is one.
+     */
+    public void flush() {
+        if (sink != null) {
+            try {
+                sink.append(buffer);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            flushed += buffer.length();
+            buffer.setLength(0);
+        }
+    }
+}
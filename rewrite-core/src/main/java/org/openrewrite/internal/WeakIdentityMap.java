@@ -0,0 +1,95 @@
+/*
+ * Copyright 2020 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.internal;
+
+import org.openrewrite.internal.lang.Nullable;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A thread-safe map that compares keys by identity and holds them weakly, so an entry disappears once
+ * its key is no longer reachable.
+ * <p>
+ * Trees define equality by their id, and an edited copy of a tree keeps the id of the original. A
+ * {@link java.util.WeakHashMap} would therefore confuse a tree with its edited copies.
+ * <p>
+ * Values must not strongly reference their keys, or the entry will never be removed.
+ *
+ * @param <K> key type
+ * @param <V> value type
+ */
+public class WeakIdentityMap<K, V> {
+    private final Map<IdentityWeakReference<K>, V> map = new ConcurrentHashMap<>();
+    private final ReferenceQueue<K> queue = new ReferenceQueue<>();
+
+    @Nullable
+    public V get(K key) {
+        return map.get(new IdentityWeakReference<>(key, null));
+    }
+
+    public void put(K key, V value) {
+        expungeStaleEntries();
+        map.put(new IdentityWeakReference<>(key, queue), value);
+    }
+
+    public int size() {
+        expungeStaleEntries();
+        return map.size();
+    }
+
+    public void clear() {
+        map.clear();
+        expungeStaleEntries();
+    }
+
+    private void expungeStaleEntries() {
+        Reference<? extends K> stale;
+        while ((stale = queue.poll()) != null) {
+            //noinspection SuspiciousMethodCalls
+            map.remove(stale);
+        }
+    }
+
+    private static class IdentityWeakReference<K> extends WeakReference<K> {
+        private final int hash;
+
+        private IdentityWeakReference(K referent, @Nullable ReferenceQueue<K> queue) {
+            super(referent, queue);
+            this.hash = System.identityHashCode(referent);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof IdentityWeakReference)) {
+                return false;
+            }
+            Object referent = get();
+            return referent != null && referent == ((IdentityWeakReference<?>) o).get();
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -62,4 +62,50 @@ class RecipeLifecycleTest {
 
         assertThat(results.map { it.recipesThatMadeChanges.map { r -> r.name }.first() }).containsExactly("test.DeletingRecipe")
     }
+
+    @Test
+    fun fusableRecipesWithVisitorsThatCantBeFusedVisitInTurn() {
+        class Append(val suffix: String) : Recipe() {
+            override fun getName() = "test.Append$suffix"
+
+            override fun isFusable() = true
+
+            override fun getVisitor(): TreeVisitor<*, ExecutionContext> {
+                return object : TreeVisitor<PlainText, ExecutionContext>() {
+                    override fun visit(tree: Tree?, p: ExecutionContext): PlainText? =
+                        (tree as PlainText).withText(tree.print(p) + suffix)
+                }
+            }
+        }
+
+        val results = Append("1").doNext(Append("2"))
+            .run(listOf(PlainText(randomId(), Markers.EMPTY, "test")), InMemoryExecutionContext(), 1)
+
+        assertThat(results.map { it.after!!.print(null) }).containsExactly("test12")
+    }
+
+    @Test
+    fun recipeThatDoesNotCauseAnotherCycleRunsOnce() {
+        class Append(val anotherCycle: Boolean) : Recipe() {
+            var cycles = 0
+
+            override fun causesAnotherCycle() = anotherCycle
+
+            override fun getVisitor(): TreeVisitor<*, ExecutionContext> {
+                cycles++
+                return object : TreeVisitor<PlainText, ExecutionContext>() {
+                    override fun visit(tree: Tree?, p: ExecutionContext): PlainText? =
+                        (tree as PlainText).withText(tree.print(p) + "!")
+                }
+            }
+        }
+
+        val singlePass = Append(false)
+        singlePass.run(listOf(PlainText(randomId(), Markers.EMPTY, "test")), InMemoryExecutionContext(), 3)
+        assertThat(singlePass.cycles).isEqualTo(1)
+
+        val multiPass = Append(true)
+        multiPass.run(listOf(PlainText(randomId(), Markers.EMPTY, "test")), InMemoryExecutionContext(), 3)
+        assertThat(multiPass.cycles).isEqualTo(3)
+    }
 }
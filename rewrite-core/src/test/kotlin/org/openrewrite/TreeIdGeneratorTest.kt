@@ -0,0 +1,54 @@
+/*
+ * Copyright 2020 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite
+
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.Test
+import java.util.*
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+
+class TreeIdGeneratorTest {
+    @Test
+    fun sequentialIdsAreUniqueAcrossThreads() {
+        val generator = TreeIdGenerator.sequential()
+        val ids = ConcurrentHashMap.newKeySet<UUID>()
+
+        val executor = Executors.newFixedThreadPool(4)
+        repeat(4) {
+            executor.submit {
+                repeat(10_000) { ids.add(generator.next()) }
+            }
+        }
+        executor.shutdown()
+        executor.awaitTermination(1, TimeUnit.MINUTES)
+
+        assertThat(ids).hasSize(40_000)
+    }
+
+    @Test
+    fun sequentialIdsAreVersion4Uuids() {
+        val id = TreeIdGenerator.sequential().next()
+        assertThat(id.version()).isEqualTo(4)
+        assertThat(id.variant()).isEqualTo(2)
+    }
+
+    @Test
+    fun generatorsDoNotShareIds() {
+        assertThat(TreeIdGenerator.sequential().next()).isNotEqualTo(TreeIdGenerator.sequential().next())
+    }
+}
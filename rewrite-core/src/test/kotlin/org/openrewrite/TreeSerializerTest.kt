@@ -39,4 +39,14 @@ class TreeSerializerTest {
         val deserialized = serializer.readList(serialized)
         assertThat(deserialized[0].getStyle(TextStyle::class.java)!!.charset).isEqualTo("UTF-8")
     }
+
+    @Test
+    fun compactIds() {
+        val plainTexts = (1..100).map { PlainText(Tree.randomId(), Markers.EMPTY, "hi") }
+
+        val compact = TreeSerializer<PlainText>(true).write(plainTexts)
+        assertThat(compact.size).isLessThan(TreeSerializer<PlainText>().write(plainTexts).size)
+
+        assertThat(TreeSerializer<PlainText>().readList(compact).map { it.id }).isEqualTo(plainTexts.map { it.id })
+    }
 }
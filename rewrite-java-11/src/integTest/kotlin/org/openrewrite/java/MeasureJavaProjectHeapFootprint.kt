@@ -0,0 +1,61 @@
+/*
+ * Copyright 2020 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java
+
+import org.openrewrite.InMemoryExecutionContext
+import org.openrewrite.MetricsDestinations
+import java.nio.file.Files
+import java.nio.file.Path
+import java.nio.file.Paths
+import java.nio.file.attribute.BasicFileAttributes
+import java.util.function.BiPredicate
+import kotlin.streams.toList
+
+/**
+ * Parses the Java sources in a directory and prints the estimated heap retained by their ASTs, by class, to
+ * track regressions in the memory needed to hold a repository's ASTs.
+ */
+object MeasureJavaProjectHeapFootprint {
+    @JvmStatic
+    fun main(args: Array<String>) {
+        val meterRegistry = MetricsDestinations.prometheus()
+
+        val srcDir = Paths.get(args[0])
+        val predicate = BiPredicate<Path, BasicFileAttributes> { p, bfa ->
+            bfa.isRegularFile && p.fileName.toString().endsWith(".java")
+        }
+
+        val paths = Files.find(srcDir, 999, predicate)
+            .limit(if (args.size > 1) args[1].toLong() else Long.MAX_VALUE)
+            .toList()
+
+        val listener = HeapFootprintListener().bindTo(meterRegistry)
+        val parser = JavaParser.fromJavaVersion()
+            .logCompilationWarningsAndErrors(false)
+            // compare with and without -Drewrite.parse.noInterning to measure the savings of interning strings
+            .internStrings(System.getProperty("rewrite.parse.noInterning") == null)
+            .doOnParse(listener)
+            .build()
+
+        val start = System.nanoTime()
+        val cus = parser.parse(paths, srcDir, InMemoryExecutionContext())
+        println("Parsed and measured ${cus.size} files in ${(System.nanoTime() - start) * 1e-6}ms")
+        println(listener.footprint.classReport(if (args.size > 2) args[2].toInt() else 50))
+
+        //Sleep long enough for prometheus to scape the final metrics.
+        Thread.sleep(11000)
+    }
+}
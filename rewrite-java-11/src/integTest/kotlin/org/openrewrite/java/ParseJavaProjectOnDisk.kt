@@ -21,10 +21,12 @@ import io.micrometer.core.instrument.distribution.DistributionStatisticConfig
 import org.openrewrite.ExecutionContext
 import org.openrewrite.InMemoryExecutionContext
 import org.openrewrite.MetricsDestinations
+import org.openrewrite.TreeIdGenerator
 import java.nio.file.Files
 import java.nio.file.Path
 import java.nio.file.Paths
 import java.nio.file.attribute.BasicFileAttributes
+import java.util.concurrent.ForkJoinPool
 import java.util.function.BiPredicate
 import kotlin.streams.toList
 
@@ -54,9 +56,18 @@ object ParseJavaProjectOnDisk {
             .limit(if (args.size > 1) args[1].toLong() else Long.MAX_VALUE)
             .toList()
 
+        // compare with and without -Drewrite.parse.randomIds to measure the cost of generating tree ids with SecureRandom
+        if (System.getProperty("rewrite.parse.randomIds") != null) {
+            TreeIdGenerator.setDefault(TreeIdGenerator.random())
+        }
+
         var start = System.nanoTime()
         val parser: JavaParser = JavaParser.fromJavaVersion()
             .logCompilationWarningsAndErrors(false) // optional, for quiet parsing
+            // compare with and without -Drewrite.parse.parallel to measure the speedup of parallel mapping
+            .parallelMapping(if (System.getProperty("rewrite.parse.parallel") != null) ForkJoinPool.commonPool() else null)
+            // compare with and without -Drewrite.parse.syntaxOnly to measure the cost of type attribution
+            .syntaxOnly(System.getProperty("rewrite.parse.syntaxOnly") != null)
             .build()
 
         println("Loaded ${paths.size} files in ${(System.nanoTime() - start) * 1e-6}ms")
@@ -19,6 +19,7 @@ import org.openrewrite.ExecutionContext
 import org.openrewrite.InMemoryExecutionContext
 import org.openrewrite.Recipe
 import org.openrewrite.SourceFile
+import org.openrewrite.TreePrinter
 import java.nio.file.Files
 import java.nio.file.Path
 import java.nio.file.Paths
@@ -52,7 +53,9 @@ object RewriteJavaProjectOnDisk {
         recipe.run(sourceFiles).map {
             println(it.diff())
             if(System.getenv("rewrite.autofix")?.equals("true") == true) {
-                it.after!!.sourcePath.toFile().writeText(it.after!!.print(), Charsets.UTF_8)
+                Files.newOutputStream(it.after!!.sourcePath).use { out ->
+                    it.after!!.print(TreePrinter.identity<Any>(), Any(), out, Charsets.UTF_8)
+                }
             }
         }
     }
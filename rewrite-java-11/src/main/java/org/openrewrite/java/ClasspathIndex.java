@@ -0,0 +1,480 @@
+/*
+ * Copyright 2020 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java;
+
+import org.openrewrite.internal.lang.NonNullApi;
+import org.openrewrite.internal.lang.Nullable;
+
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.tools.JavaFileObject;
+import java.io.*;
+import java.lang.ref.Cleaner;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.Charset;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * A process-wide index of the classpath entries that {@link Java11Parser} instances compile against.
+ * <p>
+ * Every parser has its own compiler context, and javac's own file manager opens and walks each jar on
+ * the classpath again for every one of those contexts. Since many parsers are typically built against
+ * the same jars (main and test source sets of each module, one parser per {@link JavaTemplate}), the
+ * central directory of each jar is instead read once into an immutable package index here and the jar
+ * is held open, so that all parsers list and read class files from the same {@link ZipFile}.
+ * <p>
+ * Directories are never indexed, since they are usually the output of a build that may change between
+ * parses. Jars are re-indexed when their size or last modified time changes.
+ * <p>
+ * Only the {@link #maxOpenJars} most recently used jars are kept in the index. Each parser holds a {@link Lease}
+ * on the jars it has listed classes from, since the compiler may read a class file from them at any time until the
+ * parser is discarded. A jar that has been replaced in or evicted from the index is closed once no lease holds it.
+ * <p>
+ * This class is thread-safe.
+ */
+@NonNullApi
+final class ClasspathIndex {
+    private static final Cleaner cleaner = Cleaner.create();
+
+    /**
+     * Jars by path, in least recently used order. Guarded by itself.
+     */
+    private static final Map<Path, JarRoot> jars = new LinkedHashMap<>(16, 0.75f, true);
+
+    private static int maxOpenJars = 256;
+
+    private ClasspathIndex() {
+    }
+
+    /**
+     * @param owner The object whose lifetime the lease lasts for, unless it is released sooner.
+     * @return A new lease, released when the owner is no longer reachable.
+     */
+    static Lease lease(Object owner) {
+        Lease lease = new Lease();
+        cleaner.register(owner, lease::release);
+        return lease;
+    }
+
+    // visible for testing
+    static void setMaxOpenJars(int maxOpenJars) {
+        synchronized (jars) {
+            ClasspathIndex.maxOpenJars = maxOpenJars;
+            evictLeastRecentlyUsed();
+        }
+    }
+
+    /**
+     * The jars that one parser lists classes from, which are kept open until the lease is released.
+     */
+    static final class Lease {
+        private final Set<JarRoot> leased = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        synchronized List<Root> roots(Iterable<? extends Path> classpath) {
+            List<Root> roots = new ArrayList<>();
+            for (Path path : classpath) {
+                Root root = root(path);
+                if (root instanceof JarRoot && !leased.add((JarRoot) root)) {
+                    ((JarRoot) root).release(); // this lease already holds it
+                }
+                if (root != null) {
+                    roots.add(root);
+                }
+            }
+            return roots;
+        }
+
+        /**
+         * Release every jar held so far. Roots listed before are no longer safe to read from.
+         */
+        synchronized void release() {
+            for (JarRoot jar : leased) {
+                jar.release();
+            }
+            leased.clear();
+        }
+    }
+
+    /**
+     * @return The root of a classpath entry, where a jar root has been acquired on behalf of the caller.
+     */
+    @Nullable
+    private static Root root(Path path) {
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        } catch (IOException e) {
+            // javac also silently ignores classpath entries that don't exist
+            return null;
+        }
+
+        if (attributes.isDirectory()) {
+            return new DirectoryRoot(path);
+        }
+
+        Path key = path.toAbsolutePath().normalize();
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        long size = attributes.size();
+
+        synchronized (jars) {
+            JarRoot jar = jars.compute(key, (k, indexed) -> {
+                if (indexed != null && indexed.lastModified == lastModified && indexed.size == size) {
+                    return indexed;
+                }
+                if (indexed != null) {
+                    indexed.evict(); // closed once no parser holds it any longer
+                }
+                try {
+                    return new JarRoot(k, lastModified, size);
+                } catch (IOException e) {
+                    return null;
+                }
+            });
+
+            if (jar == null) {
+                return null;
+            }
+            jar.acquire();
+            evictLeastRecentlyUsed();
+            return jar;
+        }
+    }
+
+    private static void evictLeastRecentlyUsed() {
+        for (Iterator<JarRoot> iter = jars.values().iterator(); jars.size() > maxOpenJars && iter.hasNext(); ) {
+            JarRoot jar = iter.next();
+            iter.remove();
+            jar.evict();
+        }
+    }
+
+    private static String packageDirectory(String packageName) {
+        return packageName.replace('.', '/');
+    }
+
+    private static JavaFileObject.Kind kind(String fileName) {
+        for (JavaFileObject.Kind kind : JavaFileObject.Kind.values()) {
+            if (kind != JavaFileObject.Kind.OTHER && fileName.endsWith(kind.extension)) {
+                return kind;
+            }
+        }
+        return JavaFileObject.Kind.OTHER;
+    }
+
+    private static String binaryName(String packageName, String fileName) {
+        int extension = fileName.lastIndexOf('.');
+        String simpleName = extension == -1 ? fileName : fileName.substring(0, extension);
+        return packageName.isEmpty() ? simpleName : packageName + "." + simpleName;
+    }
+
+    interface Root {
+        void list(String packageName, Set<JavaFileObject.Kind> kinds, boolean recurse, Charset charset,
+                  List<JavaFileObject> results) throws IOException;
+    }
+
+    static class JarRoot implements Root {
+        private final Path path;
+        private final long lastModified;
+        private final long size;
+        private final ZipFile zip;
+
+        /**
+         * The number of leases holding this jar, plus one while it is in the index. Guarded by this.
+         */
+        private int references = 1;
+
+        /**
+         * Entry names by the directory containing them, e.g. "java/util" to ["java/util/List.class", ...].
+         */
+        private final Map<String, List<String>> entriesByDirectory = new HashMap<>();
+
+        private JarRoot(Path path, long lastModified, long size) throws IOException {
+            this.path = path;
+            this.lastModified = lastModified;
+            this.size = size;
+            this.zip = new ZipFile(path.toFile());
+
+            Enumeration<? extends ZipEntry> entries = zip.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                if (!entry.isDirectory()) {
+                    String name = entry.getName();
+                    int lastSlash = name.lastIndexOf('/');
+                    entriesByDirectory.computeIfAbsent(lastSlash == -1 ? "" : name.substring(0, lastSlash),
+                            d -> new ArrayList<>()).add(name);
+                }
+            }
+        }
+
+        private synchronized void acquire() {
+            references++;
+        }
+
+        private synchronized void release() {
+            if (--references == 0) {
+                try {
+                    zip.close();
+                } catch (IOException ignored) {
+                    // nothing more can be read from it either way
+                }
+            }
+        }
+
+        /**
+         * Called when the jar leaves the index, so that it is closed once no lease holds it.
+         */
+        private void evict() {
+            release();
+        }
+
+        // visible for testing
+        synchronized boolean isClosed() {
+            return references == 0;
+        }
+
+        @Override
+        public void list(String packageName, Set<JavaFileObject.Kind> kinds, boolean recurse, Charset charset,
+                         List<JavaFileObject> results) {
+            String directory = packageDirectory(packageName);
+            list(directory, kinds, charset, results);
+            if (recurse) {
+                for (String subdirectory : entriesByDirectory.keySet()) {
+                    if (directory.isEmpty() ? !subdirectory.isEmpty() : subdirectory.startsWith(directory + "/")) {
+                        list(subdirectory, kinds, charset, results);
+                    }
+                }
+            }
+        }
+
+        private void list(String directory, Set<JavaFileObject.Kind> kinds, Charset charset, List<JavaFileObject> results) {
+            List<String> entryNames = entriesByDirectory.get(directory);
+            if (entryNames == null) {
+                return;
+            }
+
+            String packageName = directory.replace('/', '.');
+            for (String entryName : entryNames) {
+                String fileName = entryName.substring(entryName.lastIndexOf('/') + 1);
+                JavaFileObject.Kind kind = kind(fileName);
+                if (kinds.contains(kind)) {
+                    results.add(new JarEntryFileObject(this, entryName, fileName, kind,
+                            binaryName(packageName, fileName), charset));
+                }
+            }
+        }
+    }
+
+    private static class DirectoryRoot implements Root {
+        private final Path path;
+
+        private DirectoryRoot(Path path) {
+            this.path = path;
+        }
+
+        @Override
+        public void list(String packageName, Set<JavaFileObject.Kind> kinds, boolean recurse, Charset charset,
+                         List<JavaFileObject> results) throws IOException {
+            Path directory = path.resolve(packageDirectory(packageName));
+            if (!Files.isDirectory(directory)) {
+                return;
+            }
+
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+                for (Path file : files) {
+                    String fileName = file.getFileName().toString();
+                    if (Files.isDirectory(file)) {
+                        if (recurse) {
+                            list(packageName.isEmpty() ? fileName : packageName + "." + fileName, kinds, true,
+                                    charset, results);
+                        }
+                    } else {
+                        JavaFileObject.Kind kind = kind(fileName);
+                        if (kinds.contains(kind)) {
+                            results.add(new DirectoryFileObject(file, fileName, kind,
+                                    binaryName(packageName, fileName), charset));
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * A class or source file found on the classpath, which knows its own binary name so that the file manager
+     * doesn't have to infer it from the classpath location it was listed from.
+     */
+    abstract static class ClasspathFileObject implements JavaFileObject {
+        private final String fileName;
+        private final Kind kind;
+        private final String binaryName;
+        private final Charset charset;
+
+        private ClasspathFileObject(String fileName, Kind kind, String binaryName, Charset charset) {
+            this.fileName = fileName;
+            this.kind = kind;
+            this.binaryName = binaryName;
+            this.charset = charset;
+        }
+
+        String getBinaryName() {
+            return binaryName;
+        }
+
+        @Override
+        public Kind getKind() {
+            return kind;
+        }
+
+        @Override
+        public boolean isNameCompatible(String simpleName, Kind kind) {
+            return this.kind == kind && fileName.equals(simpleName + kind.extension);
+        }
+
+        @Nullable
+        @Override
+        public NestingKind getNestingKind() {
+            return null;
+        }
+
+        @Nullable
+        @Override
+        public Modifier getAccessLevel() {
+            return null;
+        }
+
+        @Override
+        public Reader openReader(boolean ignoreEncodingErrors) throws IOException {
+            return new InputStreamReader(openInputStream(), charset);
+        }
+
+        @Override
+        public CharSequence getCharContent(boolean ignoreEncodingErrors) throws IOException {
+            try (InputStream is = openInputStream()) {
+                return new String(is.readAllBytes(), charset);
+            }
+        }
+
+        @Override
+        public OutputStream openOutputStream() {
+            throw new UnsupportedOperationException("Classpath entries are read-only");
+        }
+
+        @Override
+        public Writer openWriter() {
+            throw new UnsupportedOperationException("Classpath entries are read-only");
+        }
+
+        @Override
+        public boolean delete() {
+            return false;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof ClasspathFileObject && getName().equals(((ClasspathFileObject) o).getName());
+        }
+
+        @Override
+        public int hashCode() {
+            return getName().hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return getName();
+        }
+    }
+
+    private static class JarEntryFileObject extends ClasspathFileObject {
+        private final JarRoot jar;
+        private final String entryName;
+
+        private JarEntryFileObject(JarRoot jar, String entryName, String fileName, Kind kind, String binaryName,
+                                   Charset charset) {
+            super(fileName, kind, binaryName, charset);
+            this.jar = jar;
+            this.entryName = entryName;
+        }
+
+        @Override
+        public URI toUri() {
+            try {
+                return new URI("jar", jar.path.toUri() + "!/" + entryName, null);
+            } catch (URISyntaxException e) {
+                throw new IllegalArgumentException(e);
+            }
+        }
+
+        @Override
+        public String getName() {
+            return jar.path + "(" + entryName + ")";
+        }
+
+        @Override
+        public InputStream openInputStream() throws IOException {
+            ZipEntry entry = jar.zip.getEntry(entryName);
+            if (entry == null) {
+                throw new IOException("Unable to find " + entryName + " in " + jar.path);
+            }
+            return jar.zip.getInputStream(entry);
+        }
+
+        @Override
+        public long getLastModified() {
+            return jar.lastModified;
+        }
+    }
+
+    private static class DirectoryFileObject extends ClasspathFileObject {
+        private final Path path;
+
+        private DirectoryFileObject(Path path, String fileName, Kind kind, String binaryName, Charset charset) {
+            super(fileName, kind, binaryName, charset);
+            this.path = path;
+        }
+
+        @Override
+        public URI toUri() {
+            return path.toUri();
+        }
+
+        @Override
+        public String getName() {
+            return path.toString();
+        }
+
+        @Override
+        public InputStream openInputStream() throws IOException {
+            return Files.newInputStream(path);
+        }
+
+        @Override
+        public long getLastModified() {
+            try {
+                return Files.getLastModifiedTime(path).toMillis();
+            } catch (IOException e) {
+                return 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2020 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java;
+
+import org.openrewrite.java.tree.Comment;
+import org.openrewrite.java.tree.Space;
+import org.openrewrite.marker.Markers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The distinct strings and whitespace of the compilation units mapped in one call to
+ * {@link Java11Parser#parseInputs}. Without it, every literal, comment and run of whitespace is a substring of
+ * its own source file, so that e.g. the same license header, or the same indentation, is held once for every
+ * occurrence rather than once per batch. Identifier names are already shared by {@link org.openrewrite.java.tree.J.Identifier}.
+ * <p>
+ * Compilation units may be mapped in parallel, so the tables are concurrent.
+ */
+final class Interner {
+    private final Map<String, String> strings = new ConcurrentHashMap<>();
+    private final Map<String, Space> whitespace = new ConcurrentHashMap<>();
+
+    String intern(String s) {
+        String interned = strings.putIfAbsent(s, s);
+        return interned == null ? s : interned;
+    }
+
+    Space intern(Space space) {
+        if (space.isEmpty() || space.getMarkers() != Markers.EMPTY) {
+            return space;
+        }
+
+        if (space.getComments().isEmpty()) {
+            Space interned = whitespace.putIfAbsent(space.getWhitespace(), space);
+            return interned == null ? space : interned;
+        }
+
+        // spaces with comments are not interned whole, since comments are all equal to one another
+        List<Comment> comments = new ArrayList<>(space.getComments().size());
+        for (Comment comment : space.getComments()) {
+            comments.add(comment
+                    .withText(intern(comment.getText()))
+                    .withSuffix(intern(comment.getSuffix())));
+        }
+        return Space.build(intern(space.getWhitespace()), comments, Markers.EMPTY);
+    }
+}
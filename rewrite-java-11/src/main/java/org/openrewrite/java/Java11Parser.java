@@ -34,15 +34,20 @@ import org.openrewrite.java.tree.JavaType;
 import org.openrewrite.java.tree.Space;
 import org.openrewrite.style.NamedStyles;
 
+import javax.tools.FileObject;
 import javax.tools.JavaFileManager;
+import javax.tools.JavaFileObject;
 import javax.tools.StandardLocation;
 import java.io.*;
 import java.nio.charset.Charset;
 import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
+import static java.util.Collections.emptyList;
 import static java.util.stream.Collectors.toList;
 
 /**
@@ -64,7 +69,42 @@ public class Java11Parser implements JavaParser {
 
     private final boolean suppressMappingErrors;
 
-    private final JavacFileManager pfm;
+    /**
+     * When non-null, compilation units are mapped to Rewrite ASTs concurrently on this pool once the
+     * compiler has finished parsing and type attribution.
+     */
+    @Nullable
+    private final ForkJoinPool parallelMappingPool;
+
+    /**
+     * When positive, source files are attributed and mapped this many at a time.
+     */
+    private final int attributionChunkSize;
+
+    /**
+     * When true, compilation units are mapped straight from the JDK parser's syntax trees, without types.
+     */
+    private final boolean syntaxOnly;
+
+    /**
+     * The types of classes on the classpath and in the JDK, which may be shared with other parsers.
+     */
+    private final JavaTypeCache libraryClassTypes;
+
+    /**
+     * The types of classes declared in the source files parsed since the last {@link #reset()}, which the
+     * compiler also remembers until then.
+     */
+    private final Map<String, JavaType.Class> sourceClassTypes = new ConcurrentHashMap<>();
+
+    private final ParseLimits limits;
+
+    /**
+     * When true, the strings and whitespace of the compilation units mapped in each batch are shared between them.
+     */
+    private final boolean internStrings;
+
+    private final ClasspathIndexFileManager pfm;
 
     private final Context context;
     private final JavaCompiler compiler;
@@ -77,17 +117,29 @@ public class Java11Parser implements JavaParser {
                          boolean relaxedClassTypeMatching,
                          boolean suppressMappingErrors,
                          boolean logCompilationWarningsAndErrors,
+                         @Nullable ForkJoinPool parallelMappingPool,
+                         int attributionChunkSize,
+                         boolean syntaxOnly,
+                         @Nullable JavaTypeCache typeCache,
+                         ParseLimits limits,
+                         boolean internStrings,
                          Collection<NamedStyles> styles,
                          Listener onParse) {
         this.classpath = classpath;
         this.relaxedClassTypeMatching = relaxedClassTypeMatching;
         this.suppressMappingErrors = suppressMappingErrors;
+        this.parallelMappingPool = parallelMappingPool;
+        this.attributionChunkSize = attributionChunkSize;
+        this.syntaxOnly = syntaxOnly;
+        this.libraryClassTypes = typeCache == null ? new JavaTypeCache() : typeCache;
+        this.limits = limits;
+        this.internStrings = internStrings;
         this.styles = styles;
         this.onParse = onParse;
 
         this.context = new Context();
         this.compilerLog = new ResettableLog(context);
-        this.pfm = new JavacFileManager(context, true, charset);
+        this.pfm = new ClasspathIndexFileManager(context, charset);
         context.put(JavaFileManager.class, this.pfm);
 
         // otherwise, consecutive string literals in binary expressions are concatenated by the parser, losing the original
@@ -145,7 +197,7 @@ public class Java11Parser implements JavaParser {
 
     @Override
     public List<J.CompilationUnit> parseInputs(Iterable<Input> sourceFiles, @Nullable Path relativeTo, ExecutionContext ctx) {
-        if (classpath != null) { // override classpath
+        if (classpath != null && !syntaxOnly) { // override classpath
             if (context.get(JavaFileManager.class) != pfm) {
                 throw new IllegalStateException("JavaFileManager has been forked unexpectedly");
             }
@@ -158,6 +210,14 @@ public class Java11Parser implements JavaParser {
         }
 
         LinkedHashMap<Input, JCTree.JCCompilationUnit> cus = acceptedInputs(sourceFiles).stream()
+                .filter(input -> {
+                    String skipReason = limits.skipReason(input, relativeTo);
+                    if (skipReason != null) {
+                        onParse.onParseFailed(input.getPath(), skipReason);
+                        return false;
+                    }
+                    return true;
+                })
                 .collect(Collectors.toMap(
                         Function.identity(),
                         input -> Timer.builder("rewrite.parse")
@@ -180,6 +240,22 @@ public class Java11Parser implements JavaParser {
                                 }),
                         (e2, e1) -> e1, LinkedHashMap::new));
 
+        List<Input> inputs = new ArrayList<>(cus.keySet());
+        Map<Input, J.CompilationUnit> mapped = new ConcurrentHashMap<>();
+        Interner interner = internStrings ? new Interner() : null;
+
+        if (syntaxOnly) {
+            // the syntax trees come from the same javac parse as an attributed parse, rather than from the ANTLR
+            // Java grammar, so whitespace, comments and the shape of the AST are exactly what they would be with types
+            mapAll(cus, relativeTo, interner, mapped);
+            return inputs.stream()
+                    .map(mapped::get)
+                    .filter(Objects::nonNull)
+                    .collect(toList());
+        }
+
+        boolean entered = false;
+        boolean attributed = false;
         try {
             initModules(cus.values());
             enterAll(cus.values());
@@ -190,57 +266,165 @@ public class Java11Parser implements JavaParser {
             while (annotate.annotationsBlocked()) {
                 annotate.unblockAnnotations(); // also flushes once unblocked
             }
+            entered = true;
 
-            compiler.attribute(compiler.todo);
+            if (attributionChunkSize <= 0) {
+                compiler.attribute(compiler.todo);
+                attributed = true;
+            }
         } catch (Throwable t) {
             // when symbol entering fails on problems like missing types, attribution can often times proceed
             // unhindered, but it sometimes cannot (so attribution is always a BEST EFFORT in the presence of errors)
             onParse.onWarn("Failed symbol entering or attribution", t);
         }
 
-        Map<String, JavaType.Class> sharedClassTypes = new HashMap<>();
-        return cus.entrySet().stream()
-                .map(cuByPath -> {
-                    Timer.Sample sample = Timer.start();
-                    Input input = cuByPath.getKey();
-                    try {
-                        Java11ParserVisitor parser = new Java11ParserVisitor(
-                                input.getRelativePath(relativeTo),
-                                StringUtils.readFully(input.getSource()),
-                                relaxedClassTypeMatching, styles, sharedClassTypes, onParse);
-                        J.CompilationUnit cu = (J.CompilationUnit) parser.scan(cuByPath.getValue(), Space.EMPTY);
-                        sample.stop(Timer.builder("rewrite.parse")
-                                .description("The time spent mapping the OpenJDK AST to Rewrite's AST")
-                                .tag("file.type", "Java")
-                                .tag("outcome", "success")
-                                .tag("exception", "none")
-                                .tag("step", "(3) Map to Rewrite AST")
-                                .register(Metrics.globalRegistry));
-                        return cu;
-                    } catch (Throwable t) {
-                        sample.stop(Timer.builder("rewrite.parse")
-                                .description("The time spent mapping the OpenJDK AST to Rewrite's AST")
-                                .tag("file.type", "Java")
-                                .tag("outcome", "error")
-                                .tag("exception", t.getClass().getSimpleName())
-                                .tag("step", "(3) Map to Rewrite AST")
-                                .register(Metrics.globalRegistry));
+        if (entered && attributionChunkSize > 0) {
+            attributed = attributeAndMapInChunks(cus, relativeTo, interner, mapped);
+        }
 
-                        if (!suppressMappingErrors) {
-                            throw t;
-                        }
+        if (attributed) {
+            // The environments javac keeps around for later compilation phases are, besides our own map, what
+            // holds on to the compiler ASTs. We never run those phases, so dropping them here lets each compiler
+            // AST be garbage collected as soon as it has been mapped. This is only safe once attribution has
+            // succeeded, since completing a source symbol afterwards requires its environment.
+            Enter.instance(context).newRound();
+            CompileStates.instance(context).clear();
+        }
 
-                        return null;
-                    }
-                })
+        mapAll(cus, relativeTo, interner, mapped);
+
+        return inputs.stream()
+                .map(mapped::get)
                 .filter(Objects::nonNull)
                 .collect(toList());
     }
 
+    /**
+     * Attribute source files in the order javac entered them, mapping each chunk of
+     * {@link #attributionChunkSize} source files as soon as it has been attributed.
+     *
+     * @return true if every source file was attributed without failure.
+     */
+    private boolean attributeAndMapInChunks(Map<Input, JCTree.JCCompilationUnit> cus, @Nullable Path relativeTo,
+                                         @Nullable Interner interner, Map<Input, J.CompilationUnit> mapped) {
+        Map<JCTree.JCCompilationUnit, Input> inputsByCu = new IdentityHashMap<>();
+        cus.forEach((input, cu) -> inputsByCu.put(cu, input));
+
+        // a source file is ready to be mapped once every class it declares has been attributed
+        Map<JCTree.JCCompilationUnit, Integer> unattributedClasses = new IdentityHashMap<>();
+        for (Env<AttrContext> env : compiler.todo) {
+            unattributedClasses.merge(env.toplevel, 1, Integer::sum);
+        }
+
+        boolean attributed = true;
+        Map<Input, JCTree.JCCompilationUnit> chunk = new LinkedHashMap<>();
+        while (!compiler.todo.isEmpty()) {
+            Env<AttrContext> env = compiler.todo.remove();
+            try {
+                compiler.attribute(env);
+            } catch (Throwable t) {
+                onParse.onWarn("Failed attribution", t);
+                attributed = false;
+            }
+
+            if (unattributedClasses.merge(env.toplevel, -1, Integer::sum) == 0) {
+                unattributedClasses.remove(env.toplevel);
+                Input input = inputsByCu.remove(env.toplevel);
+                if (input != null) {
+                    chunk.put(input, cus.remove(input));
+                    if (chunk.size() >= attributionChunkSize) {
+                        mapAll(chunk, relativeTo, interner, mapped);
+                    }
+                }
+            }
+        }
+
+        mapAll(chunk, relativeTo, interner, mapped);
+        return attributed;
+    }
+
+    /**
+     * Map compilation units, removing each one from {@code cus} so that it can be garbage collected
+     * once it has been mapped.
+     */
+    private void mapAll(Map<Input, JCTree.JCCompilationUnit> cus, @Nullable Path relativeTo,
+                        @Nullable Interner interner, Map<Input, J.CompilationUnit> mapped) {
+        if (parallelMappingPool == null) {
+            for (Iterator<Map.Entry<Input, JCTree.JCCompilationUnit>> iter = cus.entrySet().iterator(); iter.hasNext(); ) {
+                Map.Entry<Input, JCTree.JCCompilationUnit> cuByInput = iter.next();
+                iter.remove();
+                J.CompilationUnit cu = map(cuByInput.getKey(), cuByInput.getValue(), relativeTo, interner);
+                if (cu != null) {
+                    mapped.put(cuByInput.getKey(), cu);
+                }
+            }
+            return;
+        }
+
+        // there is no dependency between compilation units once attribution is complete, so each one is mapped
+        // by its own visitor. Submitting the parallel stream to the pool makes it the one the stream executes on.
+        parallelMappingPool.submit(() -> cus.entrySet().parallelStream().forEach(cuByInput -> {
+            J.CompilationUnit cu = map(cuByInput.getKey(), cuByInput.getValue(), relativeTo, interner);
+            if (cu != null) {
+                mapped.put(cuByInput.getKey(), cu);
+            }
+        })).join();
+        cus.clear();
+    }
+
+    @Nullable
+    private J.CompilationUnit map(Input input, JCTree.JCCompilationUnit jcCu, @Nullable Path relativeTo,
+                                  @Nullable Interner interner) {
+        Timer.Sample sample = Timer.start();
+        try {
+            Java11ParserVisitor parser = new Java11ParserVisitor(
+                    input.getRelativePath(relativeTo),
+                    StringUtils.readFully(input.getSource()),
+                    relaxedClassTypeMatching, styles, libraryClassTypes, sourceClassTypes, limits.getMappingTimeout(), interner, onParse);
+            J.CompilationUnit cu = (J.CompilationUnit) parser.scan(jcCu, Space.EMPTY);
+            sample.stop(Timer.builder("rewrite.parse")
+                    .description("The time spent mapping the OpenJDK AST to Rewrite's AST")
+                    .tag("file.type", "Java")
+                    .tag("outcome", "success")
+                    .tag("exception", "none")
+                    .tag("step", "(3) Map to Rewrite AST")
+                    .register(Metrics.globalRegistry));
+            onParse.onParseSucceeded(input.getPath());
+            onParse.onSourceFileParsed(cu);
+            return cu;
+        } catch (Java11ParserVisitor.MappingTimeoutException e) {
+            sample.stop(Timer.builder("rewrite.parse")
+                    .description("The time spent mapping the OpenJDK AST to Rewrite's AST")
+                    .tag("file.type", "Java")
+                    .tag("outcome", "timeout")
+                    .tag("exception", "none")
+                    .tag("step", "(3) Map to Rewrite AST")
+                    .register(Metrics.globalRegistry));
+            onParse.onParseFailed(input.getPath(), e.getMessage());
+            return null;
+        } catch (Throwable t) {
+            sample.stop(Timer.builder("rewrite.parse")
+                    .description("The time spent mapping the OpenJDK AST to Rewrite's AST")
+                    .tag("file.type", "Java")
+                    .tag("outcome", "error")
+                    .tag("exception", t.getClass().getSimpleName())
+                    .tag("step", "(3) Map to Rewrite AST")
+                    .register(Metrics.globalRegistry));
+            onParse.onParseFailed(input.getPath());
+
+            if (!suppressMappingErrors) {
+                throw t;
+            }
+
+            return null;
+        }
+    }
+
     @Override
     public Java11Parser reset() {
         compilerLog.reset();
         pfm.flush();
+        sourceClassTypes.clear();
         Check.instance(context).newRound();
         Annotate.instance(context).newRound();
         Enter.instance(context).newRound();
@@ -276,6 +460,88 @@ public class Java11Parser implements JavaParser {
         }
     }
 
+    /**
+     * Serves the class path from the process-wide {@link ClasspathIndex} rather than from javac's own
+     * per-context view of each jar, so that parsers built against the same jars don't each open and walk them.
+     * All other locations (the platform classes in particular) are left to javac.
+     */
+    private static class ClasspathIndexFileManager extends JavacFileManager {
+        private final Charset charset;
+
+        /**
+         * Holds the jars this file manager has listed classes from, since the compiler may complete a symbol from
+         * them at any time until the parser is discarded, even after the class path has changed.
+         */
+        private final ClasspathIndex.Lease lease = ClasspathIndex.lease(this);
+
+        @Nullable
+        private List<ClasspathIndex.Root> classpathRoots;
+
+        private ClasspathIndexFileManager(Context context, Charset charset) {
+            super(context, true, charset);
+            this.charset = charset;
+        }
+
+        @Override
+        public Iterable<JavaFileObject> list(Location location, String packageName, Set<JavaFileObject.Kind> kinds,
+                                             boolean recurse) throws IOException {
+            if (location != StandardLocation.CLASS_PATH) {
+                return super.list(location, packageName, kinds, recurse);
+            }
+
+            if (classpathRoots == null) {
+                Iterable<? extends Path> classpath = getLocationAsPaths(StandardLocation.CLASS_PATH);
+                classpathRoots = classpath == null ? emptyList() : lease.roots(classpath);
+            }
+
+            List<JavaFileObject> results = new ArrayList<>();
+            for (ClasspathIndex.Root root : classpathRoots) {
+                root.list(packageName, kinds, recurse, charset, results);
+            }
+            return results;
+        }
+
+        @Override
+        public String inferBinaryName(Location location, JavaFileObject file) {
+            if (file instanceof ClasspathIndex.ClasspathFileObject) {
+                return ((ClasspathIndex.ClasspathFileObject) file).getBinaryName();
+            }
+            return super.inferBinaryName(location, file);
+        }
+
+        @Override
+        public boolean contains(Location location, FileObject fo) throws IOException {
+            if (fo instanceof ClasspathIndex.ClasspathFileObject) {
+                return location == StandardLocation.CLASS_PATH;
+            }
+            return super.contains(location, fo);
+        }
+
+        @Override
+        public void setLocation(Location location, Iterable<? extends File> searchpath) throws IOException {
+            super.setLocation(location, searchpath);
+            classpathRoots = null;
+        }
+
+        @Override
+        public void setLocationFromPaths(Location location, Collection<? extends Path> searchpath) throws IOException {
+            super.setLocationFromPaths(location, searchpath);
+            classpathRoots = null;
+        }
+
+        @Override
+        public void flush() {
+            super.flush();
+            classpathRoots = null;
+        }
+
+        @Override
+        public void close() throws IOException {
+            super.close();
+            lease.release();
+        }
+    }
+
     private static class TimedTodo extends Todo {
         @Nullable
         private Timer.Sample sample;
@@ -317,7 +583,8 @@ public class Java11Parser implements JavaParser {
         @Override
         public Java11Parser build() {
             return new Java11Parser(classpath, charset, relaxedClassTypeMatching,
-                    suppressMappingErrors, logCompilationWarningsAndErrors, styles, onParse);
+                    suppressMappingErrors, logCompilationWarningsAndErrors, parallelMappingPool, attributionChunkSize,
+                    syntaxOnly, typeCache, parseLimits(), internStrings, styles, onParse);
         }
     }
 }
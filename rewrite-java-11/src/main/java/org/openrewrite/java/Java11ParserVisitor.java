@@ -33,15 +33,14 @@ import org.openrewrite.style.NamedStyles;
 
 import javax.lang.model.element.Modifier;
 import javax.lang.model.element.Name;
+import javax.tools.JavaFileObject;
 import java.lang.reflect.Field;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
 import java.util.function.Supplier;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 import static java.lang.Math.max;
@@ -51,7 +50,6 @@ import static java.util.stream.Collectors.toList;
 import static java.util.stream.StreamSupport.stream;
 import static org.openrewrite.Tree.randomId;
 import static org.openrewrite.java.tree.Space.EMPTY;
-import static org.openrewrite.java.tree.Space.format;
 
 /**
  * Maps the compiler internal AST to the the Rewrite {@link J} AST.
@@ -65,28 +63,93 @@ public class Java11ParserVisitor extends TreePathScanner<J, Space> {
     private final String source;
     private final boolean relaxedClassTypeMatching;
     private final Collection<NamedStyles> styles;
-    private final Map<String, JavaType.Class> sharedClassTypes;
+    private final JavaTypeCache libraryClassTypes;
+    private final Map<String, JavaType.Class> sourceClassTypes;
     private final Parser.Listener onParse;
 
+    @Nullable
+    private final Interner interner;
+
+    private final long mappingStarted = System.nanoTime();
+    private final long mappingTimeoutNanos;
+    private int converted;
+
     @SuppressWarnings("NotNullFieldNotInitialized")
     private EndPosTable endPosTable;
 
     private int cursor = 0;
 
-    private static final Pattern whitespacePrefixPattern = Pattern.compile("^\\s*");
-    private static final Pattern whitespaceSuffixPattern = Pattern.compile("\\s*[^\\s]+(\\s*)");
 
+    /**
+     * @param sharedClassTypes The class types built so far, of both library and source classes, which is also
+     *                         the lock for reading the symbols of the compiler. Visitors that share it and map on
+     *                         different threads must be given a concurrent map.
+     */
     public Java11ParserVisitor(Path sourcePath, String source, boolean relaxedClassTypeMatching,
                                Collection<NamedStyles> styles, Map<String, JavaType.Class> sharedClassTypes,
                                Parser.Listener onParse) {
+        this(sourcePath, source, relaxedClassTypeMatching, styles, typeCache(sharedClassTypes), sharedClassTypes,
+                null, null, onParse);
+    }
+
+    /**
+     * @param libraryClassTypes The class types of the classpath and the JDK, which may be shared with other parsers.
+     * @param sourceClassTypes  The class types of the source files parsed by one compiler, which is also the lock
+     *                          for reading its symbols.
+     * @param mappingTimeout    How long mapping a compilation unit may take, or <code>null</code> for no limit.
+     * @param interner          Deduplicates the strings and whitespace of the compilation units mapped, if given.
+     */
+    Java11ParserVisitor(Path sourcePath, String source, boolean relaxedClassTypeMatching,
+                        Collection<NamedStyles> styles, JavaTypeCache libraryClassTypes,
+                        Map<String, JavaType.Class> sourceClassTypes, @Nullable Duration mappingTimeout,
+                        @Nullable Interner interner, Parser.Listener onParse) {
         this.sourcePath = sourcePath;
         this.source = source;
         this.relaxedClassTypeMatching = relaxedClassTypeMatching;
         this.styles = styles;
-        this.sharedClassTypes = sharedClassTypes;
+        this.libraryClassTypes = libraryClassTypes;
+        this.sourceClassTypes = sourceClassTypes;
+        this.mappingTimeoutNanos = mappingTimeout == null ? Long.MAX_VALUE : mappingTimeout.toNanos();
+        this.interner = interner;
         this.onParse = onParse;
     }
 
+    /**
+     * A type cache over the map that, before library and source types were cached separately, held both.
+     */
+    private static JavaTypeCache typeCache(Map<String, JavaType.Class> sharedClassTypes) {
+        return new JavaTypeCache() {
+            @Nullable
+            @Override
+            public JavaType.Class get(String fullyQualifiedName) {
+                synchronized (sharedClassTypes) {
+                    return sharedClassTypes.get(fullyQualifiedName);
+                }
+            }
+
+            @Override
+            public void put(String fullyQualifiedName, JavaType.Class classType) {
+                synchronized (sharedClassTypes) {
+                    sharedClassTypes.put(fullyQualifiedName, classType);
+                }
+            }
+
+            @Override
+            public int size() {
+                synchronized (sharedClassTypes) {
+                    return sharedClassTypes.size();
+                }
+            }
+
+            @Override
+            public void clear() {
+                synchronized (sharedClassTypes) {
+                    sharedClassTypes.clear();
+                }
+            }
+        };
+    }
+
     @Override
     public J visitAnnotation(AnnotationTree node, Space fmt) {
         skip("@");
@@ -113,12 +176,12 @@ public class Java11ParserVisitor extends TreePathScanner<J, Space> {
 
             args = JContainer.build(argsPrefix, expressions, Markers.EMPTY);
         } else {
-            String remaining = source.substring(cursor, endPos(node));
+            int end = endPos(node);
 
             // TODO: technically, if there is code like this, we have a bug, but seems exceedingly unlikely:
             // @MyAnnotation /* Comment () that contains parentheses */ ()
 
-            if (remaining.contains("(") && remaining.contains(")")) {
+            if (contains('(', cursor, end) && contains(')', cursor, end)) {
                 args = JContainer.build(
                         sourceBefore("("),
                         singletonList(padRight(new J.Empty(randomId(), sourceBefore(")"), Markers.EMPTY), EMPTY)),
@@ -433,7 +496,7 @@ public class Java11ParserVisitor extends TreePathScanner<J, Space> {
     public J visitCompilationUnit(CompilationUnitTree node, Space fmt) {
 
         JCCompilationUnit cu = (JCCompilationUnit) node;
-        fmt = format(source.substring(0, cu.getStartPosition()));
+        fmt = format(source, 0, cu.getStartPosition());
         cursor(cu.getStartPosition());
 
         endPosTable = cu.endPositions;
@@ -453,7 +516,7 @@ public class Java11ParserVisitor extends TreePathScanner<J, Space> {
                 packageDecl == null ? null : padRight(packageDecl, sourceBefore(";")),
                 convertAll(node.getImports(), this::statementDelim, this::statementDelim),
                 convertAll(node.getTypeDecls().stream().filter(JCClassDecl.class::isInstance).collect(toList())),
-                format(source.substring(cursor))
+                format(source, cursor, source.length())
         ).withMarker(styles.toArray(NamedStyles[]::new));
     }
 
@@ -676,8 +739,8 @@ public class Java11ParserVisitor extends TreePathScanner<J, Space> {
         cursor(endPos(node));
         Object value = node.getValue();
         JavaType.Primitive type = primitive(((JCTree.JCLiteral) node).typetag);
-        return new J.Literal(randomId(), fmt, Markers.EMPTY, value,
-                source.substring(((JCLiteral) node).getStartPosition(), endPos(node)), type);
+        return new J.Literal(randomId(), fmt, Markers.EMPTY, value instanceof String ? intern((String) value) : value,
+                intern(source.substring(((JCLiteral) node).getStartPosition(), endPos(node))), type);
     }
 
     @Override
@@ -844,14 +907,14 @@ public class Java11ParserVisitor extends TreePathScanner<J, Space> {
                     convert(dim, t -> sourceBefore("]"))));
         }
 
-        Matcher matcher = Pattern.compile("\\G(\\s*)\\[(\\s*)]").matcher(source);
-        while (matcher.find(cursor)) {
-            cursor(matcher.end());
+        for (int open = emptyDimension(cursor); open >= 0; open = emptyDimension(cursor)) {
+            int close = skipWhitespace(open + 1);
             dimensions.add(new J.ArrayDimension(
                     randomId(),
-                    format(matcher.group(1)),
+                    format(source, cursor, open),
                     Markers.EMPTY,
-                    padRight(new J.Empty(randomId(), format(matcher.group(2)), Markers.EMPTY), EMPTY)));
+                    padRight(new J.Empty(randomId(), format(source, open + 1, close), Markers.EMPTY), EMPTY)));
+            cursor(close + 1);
         }
 
         JContainer<Expression> initializer = node.getInitializers() == null ? null :
@@ -1087,13 +1150,13 @@ public class Java11ParserVisitor extends TreePathScanner<J, Space> {
             } else {
                 fullName += "." + part;
 
-                Matcher whitespacePrefix = whitespacePrefixPattern.matcher(part);
-                Space identFmt = whitespacePrefix.matches() ? format(whitespacePrefix.group(0)) : Space.EMPTY;
+                Space identFmt = skipWhitespace(part, 0) == part.length() ? format(part) : Space.EMPTY;
 
-                Matcher whitespaceSuffix = whitespaceSuffixPattern.matcher(part);
-                //noinspection ResultOfMethodCallIgnored
-                whitespaceSuffix.matches();
-                Space namePrefix = i == parts.length - 1 ? Space.EMPTY : format(whitespaceSuffix.group(1));
+                int suffixStart = part.length();
+                while (suffixStart > 0 && isWhitespace(part.charAt(suffixStart - 1))) {
+                    suffixStart--;
+                }
+                Space namePrefix = i == parts.length - 1 ? Space.EMPTY : format(part, suffixStart, part.length());
 
                 expr = new J.FieldAccess(
                         randomId(),
@@ -1206,26 +1269,30 @@ public class Java11ParserVisitor extends TreePathScanner<J, Space> {
         }
 
         Supplier<List<JLeftPadded<Space>>> dimensions = () -> {
-            Matcher matcher = Pattern.compile("\\G(\\s*)\\[(\\s*)]").matcher(source);
             List<JLeftPadded<Space>> dims = new ArrayList<>();
-            while (matcher.find(cursor)) {
-                cursor(matcher.end());
-                dims.add(padLeft(format(matcher.group(1)), format(matcher.group(2))));
+            for (int open = emptyDimension(cursor); open >= 0; open = emptyDimension(cursor)) {
+                int close = skipWhitespace(open + 1);
+                dims.add(padLeft(format(source, cursor, open), format(source, open + 1, close)));
+                cursor(close + 1);
             }
             return dims;
         };
 
         List<JLeftPadded<Space>> beforeDimensions = dimensions.get();
 
-        String vartypeString = typeExpr == null ? "" : source.substring(vartype.getStartPosition(), endPos(vartype));
-        Matcher varargMatcher = Pattern.compile("(\\s*)\\.{3}").matcher(vartypeString);
         Space varargs = null;
-        if (varargMatcher.find()) {
-            Matcher matcher = Pattern.compile("\\G(\\s*)\\.{3}").matcher(source);
-            if (matcher.find(cursor)) {
-                cursor(matcher.end());
+        int ellipsis = typeExpr == null ? -1 : source.indexOf("...", vartype.getStartPosition());
+        if (ellipsis >= 0 && ellipsis + 3 <= endPos(vartype)) {
+            int varargsPrefix = ellipsis;
+            while (varargsPrefix > vartype.getStartPosition() && isWhitespace(source.charAt(varargsPrefix - 1))) {
+                varargsPrefix--;
+            }
+
+            int cursorEllipsis = skipWhitespace(cursor);
+            if (source.startsWith("...", cursorEllipsis)) {
+                cursor(cursorEllipsis + 3);
             }
-            varargs = format(varargMatcher.group(1));
+            varargs = format(source, varargsPrefix, ellipsis);
         }
 
         List<JRightPadded<J.VariableDeclarations.NamedVariable>> vars = new ArrayList<>();
@@ -1292,11 +1359,20 @@ public class Java11ParserVisitor extends TreePathScanner<J, Space> {
      */
 
     private <J2 extends J> J2 convert(Tree t) {
+        // reading the clock is cheap, but not so cheap that it is worth doing for every tree
+        if ((++converted & 0x3FF) == 0 && System.nanoTime() - mappingStarted > mappingTimeoutNanos) {
+            throw new MappingTimeoutException("Abandoned mapping after more than " +
+                    Duration.ofNanos(mappingTimeoutNanos));
+        }
+
         try {
-            String prefix = source.substring(cursor, max(((JCTree) t).getStartPosition(), cursor));
-            cursor += prefix.length();
-            @SuppressWarnings("unchecked") J2 j = (J2) scan(t, format(prefix));
+            int start = max(((JCTree) t).getStartPosition(), cursor);
+            Space prefix = format(source, cursor, start);
+            cursor(start);
+            @SuppressWarnings("unchecked") J2 j = (J2) scan(t, prefix);
             return j;
+        } catch (MappingTimeoutException ex) {
+            throw ex;
         } catch (Throwable ex) {
             // this SHOULD never happen, but is here simply as a diagnostic measure in the event of unexpected exceptions
             onParse.onError("Failed to convert " + t.getClass().getSimpleName() + " for the following cursor stack:");
@@ -1333,7 +1409,13 @@ public class Java11ParserVisitor extends TreePathScanner<J, Space> {
     }
 
     private long lineNumber(Tree tree) {
-        return source.substring(0, ((JCTree) tree).getStartPosition()).chars().filter(c -> c == '\n').count() + 1;
+        long lineNumber = 1;
+        for (int i = 0; i < ((JCTree) tree).getStartPosition(); i++) {
+            if (source.charAt(i) == '\n') {
+                lineNumber++;
+            }
+        }
+        return lineNumber;
     }
 
     private <T extends J> T convertOrNull(@Nullable Tree t) {
@@ -1426,13 +1508,14 @@ public class Java11ParserVisitor extends TreePathScanner<J, Space> {
                 converted.add(convert(treeGroup.get(0), this::statementDelim));
             } else {
                 // multi-variable declarations are split into independent overlapping JCVariableDecl's by the OpenJDK AST
-                String prefix = source.substring(cursor, max(((JCTree) treeGroup.get(0)).getStartPosition(), cursor));
-                cursor += prefix.length();
+                int start = max(((JCTree) treeGroup.get(0)).getStartPosition(), cursor);
+                Space prefix = format(source, cursor, start);
+                cursor(start);
 
                 Tree last = treeGroup.get(treeGroup.size() - 1);
 
                 @SuppressWarnings("unchecked")
-                J.VariableDeclarations vars = visitVariables((List<VariableTree>) treeGroup, format(prefix));
+                J.VariableDeclarations vars = visitVariables((List<VariableTree>) treeGroup, prefix);
                 JRightPadded<Statement> paddedVars = padRight(vars, semiDelim.apply(last));
                 cursor(max(endPos(last), cursor));
                 converted.add(paddedVars);
@@ -1461,9 +1544,10 @@ public class Java11ParserVisitor extends TreePathScanner<J, Space> {
     );
 
     private Set<Flag> filteredFlags(Symbol sym) {
+        long flags = flags(sym);
         Set<Flag> set = new HashSet<>();
         for (Map.Entry<Long, Flag> mask : flagMasks.entrySet()) {
-            if ((sym.flags() & mask.getKey()) != 0L) {
+            if ((flags & mask.getKey()) != 0L) {
                 Flag value = mask.getValue();
                 set.add(value);
             }
@@ -1503,14 +1587,14 @@ public class Java11ParserVisitor extends TreePathScanner<J, Space> {
             }
 
             List<String> paramNames = new ArrayList<>();
-            for (Symbol.VarSymbol p : genericSymbol.params()) {
+            for (Symbol.VarSymbol p : params(genericSymbol)) {
                 String s = p.name.toString();
-                paramNames.add(s);
+                paramNames.add(intern(s));
             }
 
             return JavaType.Method.build(
                     TypeUtils.asClass(type(genericSymbol.owner)),
-                    methodName,
+                    intern(methodName),
                     genericSignature,
                     signature.apply(selectType),
                     paramNames,
@@ -1526,7 +1610,7 @@ public class Java11ParserVisitor extends TreePathScanner<J, Space> {
         if (symbol instanceof Symbol.ClassSymbol || symbol instanceof Symbol.TypeVariableSymbol) {
             return type(symbol.type);
         } else if (symbol instanceof Symbol.VarSymbol) {
-            return new JavaType.GenericTypeVariable(symbol.name.toString(), null);
+            return new JavaType.GenericTypeVariable(intern(symbol.name.toString()), null);
         }
         return null;
     }
@@ -1551,80 +1635,21 @@ public class Java11ParserVisitor extends TreePathScanner<J, Space> {
             Symbol.ClassSymbol sym = (Symbol.ClassSymbol) type.tsym;
 
             if (stack.contains(sym))
-                return new JavaType.Cyclic(sym.className());
+                return new JavaType.Cyclic(intern(sym.className()));
             else {
                 if (shallow) {
-                    return new JavaType.ShallowClass(sym.className());
+                    return new JavaType.ShallowClass(intern(sym.className()));
                 } else {
-                    JavaType.Class flyweight = sharedClassTypes.get(sym.className());
+                    JavaType.Class flyweight = cachedClassType(sym);
                     if (flyweight != null) {
                         return flyweight;
                     }
 
-                    List<Symbol> stackWithSym = new ArrayList<>(stack);
-                    stackWithSym.add(sym);
-
-                    List<JavaType.Var> fields;
-                    if (sym.members_field == null) {
-                        fields = emptyList();
-                    } else {
-                        fields = new ArrayList<>();
-                        for (Symbol elem : sym.members_field.getSymbols()) {
-                            if (elem instanceof Symbol.VarSymbol) {
-                                fields.add(new JavaType.Var(
-                                        elem.name.toString(),
-                                        type(elem.type, stackWithSym),
-                                        filteredFlags(elem)
-                                ));
-                            }
-                        }
-                    }
-
-                    ClassType classType = (ClassType) type;
-                    ClassType symType = (ClassType) sym.type;
-
-                    List<JavaType> typeParameters;
-                    if (classType.typarams_field == null) {
-                        typeParameters = emptyList();
-                    } else {
-                        typeParameters = new ArrayList<>();
-                        for (Type tParam : classType.typarams_field) {
-                            JavaType javaType = type(tParam, stackWithSym, true);
-                            if (javaType != null) {
-                                typeParameters.add(javaType);
-                            }
-                        }
-                    }
-
-                    List<JavaType> interfaces;
-                    if (symType.interfaces_field == null) {
-                        interfaces = emptyList();
-                    } else {
-                        interfaces = new ArrayList<>();
-                        for (Type iParam : symType.interfaces_field) {
-                            JavaType javaType = type(iParam, stackWithSym, false);
-                            if (javaType != null) {
-                                interfaces.add(javaType);
-                            }
-                        }
-                    }
-
-                    JavaType.Class clazz = JavaType.Class.build(
-                            sym.className(),
-                            fields,
-                            typeParameters,
-                            interfaces,
-                            null,
-                            TypeUtils.asClass(type(classType.supertype_field, stackWithSym)),
-                            relaxedClassTypeMatching);
-
-                    sharedClassTypes.put(sym.className(), clazz);
-
-                    return clazz;
+                    return classType((ClassType) type, sym, stack);
                 }
             }
         } else if (type instanceof TypeVar) {
-            return new JavaType.GenericTypeVariable(type.tsym.name.toString(),
+            return new JavaType.GenericTypeVariable(intern(type.tsym.name.toString()),
                     TypeUtils.asClass(type(type.getUpperBound(), stack)));
         } else if (type instanceof JCPrimitiveType) {
             return primitive(type.getTag());
@@ -1637,6 +1662,129 @@ public class Java11ParserVisitor extends TreePathScanner<J, Space> {
         }
     }
 
+    @Nullable
+    private JavaType.Class cachedClassType(Symbol.ClassSymbol sym) {
+        JavaType.Class flyweight = sourceClassTypes.get(sym.className());
+        return flyweight == null ? libraryClassTypes.get(sym.className()) : flyweight;
+    }
+
+    /**
+     * Classes read from class files belong to the classpath or the JDK, and their types can be shared with other
+     * parsers. All other classes were entered from the source files being parsed.
+     */
+    private static boolean isLibraryClass(Symbol.ClassSymbol sym) {
+        return sym.classfile != null && sym.classfile.getKind() == JavaFileObject.Kind.CLASS;
+    }
+
+    /**
+     * Compiler symbols are completed lazily, and completing one reads its class file into the compiler's symbol
+     * table, which is not safe to do from multiple threads. So when compilation units are mapped in parallel, only
+     * the reads of a symbol that may complete it, or that may see it half completed, hold the lock on the parser's
+     * own source class types. Types are built from what was read without it. The library class type cache may be
+     * shared with other parsers, each with a compiler of its own, so it is not used as the lock.
+     */
+    private JavaType.Class classType(ClassType classType, Symbol.ClassSymbol sym, List<Symbol> stack) {
+        List<Symbol> fieldSymbols = new ArrayList<>();
+        com.sun.tools.javac.util.List<Type> typeParameterTypes;
+        com.sun.tools.javac.util.List<Type> interfaceTypes;
+        Type supertype;
+        synchronized (sourceClassTypes) {
+            if (sym.members_field != null) {
+                for (Symbol elem : sym.members_field.getSymbols()) {
+                    if (elem instanceof Symbol.VarSymbol) {
+                        fieldSymbols.add(elem);
+                    }
+                }
+            }
+            typeParameterTypes = classType.typarams_field;
+            interfaceTypes = ((ClassType) sym.type).interfaces_field;
+            supertype = classType.supertype_field;
+        }
+
+        List<Symbol> stackWithSym = new ArrayList<>(stack);
+        stackWithSym.add(sym);
+
+        List<JavaType.Var> fields;
+        if (fieldSymbols.isEmpty()) {
+            fields = emptyList();
+        } else {
+            fields = new ArrayList<>();
+            for (Symbol elem : fieldSymbols) {
+                fields.add(new JavaType.Var(
+                        intern(elem.name.toString()),
+                        type(elem.type, stackWithSym),
+                        filteredFlags(elem)
+                ));
+            }
+        }
+
+        List<JavaType> typeParameters;
+        if (typeParameterTypes == null) {
+            typeParameters = emptyList();
+        } else {
+            typeParameters = new ArrayList<>();
+            for (Type tParam : typeParameterTypes) {
+                JavaType javaType = type(tParam, stackWithSym, true);
+                if (javaType != null) {
+                    typeParameters.add(javaType);
+                }
+            }
+        }
+
+        List<JavaType> interfaces;
+        if (interfaceTypes == null) {
+            interfaces = emptyList();
+        } else {
+            interfaces = new ArrayList<>();
+            for (Type iParam : interfaceTypes) {
+                JavaType javaType = type(iParam, stackWithSym, false);
+                if (javaType != null) {
+                    interfaces.add(javaType);
+                }
+            }
+        }
+
+        // two threads may build the same class type at once, in which case both get the same flyweight
+        JavaType.Class clazz = JavaType.Class.build(
+                sym.className(),
+                fields,
+                typeParameters,
+                interfaces,
+                null,
+                TypeUtils.asClass(type(supertype, stackWithSym)),
+                relaxedClassTypeMatching);
+
+        if (isLibraryClass(sym)) {
+            libraryClassTypes.put(sym.className(), clazz);
+        } else {
+            sourceClassTypes.put(sym.className(), clazz);
+        }
+
+        return clazz;
+    }
+
+    /**
+     * Reading the flags of a class symbol completes it. See {@link #classType(ClassType, Symbol.ClassSymbol, List)}.
+     */
+    private long flags(Symbol sym) {
+        if (sym instanceof Symbol.ClassSymbol) {
+            synchronized (sourceClassTypes) {
+                return sym.flags();
+            }
+        }
+        return sym.flags();
+    }
+
+    /**
+     * Reading the parameters of a method symbol completes its owner and may create them.
+     * See {@link #classType(ClassType, Symbol.ClassSymbol, List)}.
+     */
+    private com.sun.tools.javac.util.List<Symbol.VarSymbol> params(Symbol.MethodSymbol sym) {
+        synchronized (sourceClassTypes) {
+            return sym.params();
+        }
+    }
+
     @Nullable
     private JavaType type(Tree t) {
         return type(((JCTree) t).type);
@@ -1683,6 +1831,22 @@ public class Java11ParserVisitor extends TreePathScanner<J, Space> {
         return ((JCTree) t).getEndPosition(endPosTable);
     }
 
+    private Space format(String formatting) {
+        return intern(Space.format(formatting));
+    }
+
+    private Space format(CharSequence source, int beginIndex, int endIndex) {
+        return intern(Space.format(source, beginIndex, endIndex));
+    }
+
+    private String intern(String s) {
+        return interner == null ? s : interner.intern(s);
+    }
+
+    private Space intern(Space space) {
+        return interner == null ? space : interner.intern(space);
+    }
+
     private Space sourceBefore(String untilDelim) {
         return sourceBefore(untilDelim, null);
     }
@@ -1698,9 +1862,9 @@ public class Java11ParserVisitor extends TreePathScanner<J, Space> {
             return EMPTY; // unable to find this delimiter
         }
 
-        String prefix = source.substring(cursor, delimIndex);
-        cursor += prefix.length() + untilDelim.length(); // advance past the delimiter
-        return Space.format(prefix);
+        Space prefix = format(source, cursor, delimIndex);
+        cursor = delimIndex + untilDelim.length(); // advance past the delimiter
+        return prefix;
     }
 
     private <T> JRightPadded<T> padRight(T tree, Space right) {
@@ -1721,19 +1885,17 @@ public class Java11ParserVisitor extends TreePathScanner<J, Space> {
                 inSingleLineComment = false;
             } else {
                 if (source.length() - untilDelim.length() > delimIndex + 1) {
-                    switch (source.substring(delimIndex, delimIndex + 2)) {
-                        case "//":
-                            inSingleLineComment = true;
-                            delimIndex++;
-                            break;
-                        case "/*":
-                            inMultiLineComment = true;
-                            delimIndex++;
-                            break;
-                        case "*/":
-                            inMultiLineComment = false;
-                            delimIndex = delimIndex + 2;
-                            break;
+                    char c1 = source.charAt(delimIndex);
+                    char c2 = source.charAt(delimIndex + 1);
+                    if (c1 == '/' && c2 == '/') {
+                        inSingleLineComment = true;
+                        delimIndex++;
+                    } else if (c1 == '/' && c2 == '*') {
+                        inMultiLineComment = true;
+                        delimIndex++;
+                    } else if (c1 == '*' && c2 == '/') {
+                        inMultiLineComment = false;
+                        delimIndex = delimIndex + 2;
                     }
                 }
 
@@ -1765,33 +1927,73 @@ public class Java11ParserVisitor extends TreePathScanner<J, Space> {
                 inSingleLineComment = false;
             } else {
                 if (source.length() > delimIndex + 1) {
-                    switch (source.substring(delimIndex, delimIndex + 2)) {
-                        case "//":
-                            inSingleLineComment = true;
-                            delimIndex++;
-                            continue;
-                        case "/*":
-                            inMultiLineComment = true;
-                            delimIndex++;
-                            continue;
-                        case "*/":
-                            inMultiLineComment = false;
-                            delimIndex++;
-                            continue;
+                    char c1 = source.charAt(delimIndex);
+                    char c2 = source.charAt(delimIndex + 1);
+                    if (c1 == '/' && c2 == '/') {
+                        inSingleLineComment = true;
+                        delimIndex++;
+                        continue;
+                    } else if (c1 == '/' && c2 == '*') {
+                        inMultiLineComment = true;
+                        delimIndex++;
+                        continue;
+                    } else if (c1 == '*' && c2 == '/') {
+                        inMultiLineComment = false;
+                        delimIndex++;
+                        continue;
                     }
                 }
 
                 if (!inMultiLineComment && !inSingleLineComment) {
-                    if (!Character.isWhitespace(source.substring(delimIndex, delimIndex + 1).charAt(0))) {
+                    if (!Character.isWhitespace(source.charAt(delimIndex))) {
                         break; // found it!
                     }
                 }
             }
         }
 
-        String prefix = source.substring(cursor, delimIndex);
-        cursor += prefix.length();
-        return format(prefix);
+        Space prefix = format(source, cursor, delimIndex);
+        cursor = delimIndex;
+        return prefix;
+    }
+
+    /**
+     * @return The index of the '[' of an empty array dimension, like <code>[]</code>, following optional
+     * whitespace at <code>index</code>, or -1 if there is no empty array dimension at <code>index</code>.
+     */
+    private int emptyDimension(int index) {
+        int open = skipWhitespace(index);
+        if (open < source.length() && source.charAt(open) == '[') {
+            int close = skipWhitespace(open + 1);
+            if (close < source.length() && source.charAt(close) == ']') {
+                return open;
+            }
+        }
+        return -1;
+    }
+
+    private int skipWhitespace(int index) {
+        return skipWhitespace(source, index);
+    }
+
+    private static int skipWhitespace(String s, int index) {
+        while (index < s.length() && isWhitespace(s.charAt(index))) {
+            index++;
+        }
+        return index;
+    }
+
+    /**
+     * Whitespace as in the <code>\s</code> regular expression character class. Unlike
+     * {@link Character#isWhitespace(char)}, this doesn't include the ASCII information separators.
+     */
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    private boolean contains(char c, int beginIndex, int endIndex) {
+        int index = source.indexOf(c, beginIndex);
+        return index >= 0 && index < endIndex;
     }
 
     private String skip(@Nullable String token) {
@@ -1857,7 +2059,7 @@ public class Java11ParserVisitor extends TreePathScanner<J, Space> {
 
         boolean inComment = false;
         boolean inMultilineComment = false;
-        final AtomicReference<String> word = new AtomicReference<>("");
+        StringBuilder word = new StringBuilder();
         for (int i = cursor; i < source.length(); i++) {
             char c = source.charAt(i);
             if (c == '/' && source.length() > i + 1) {
@@ -1875,10 +2077,11 @@ public class Java11ParserVisitor extends TreePathScanner<J, Space> {
                 inComment = false;
             } else if (!inMultilineComment && !inComment) {
                 if (Character.isWhitespace(c)) {
-                    if (!word.get().isEmpty()) {
+                    if (word.length() > 0) {
                         Modifier matching = null;
                         for (Modifier modifier : modifiers.getFlags()) {
-                            if (modifier.name().toLowerCase().equals(word.get())) {
+                            // Modifier#toString() is the lower case name of the modifier, and is cached
+                            if (modifier.toString().contentEquals(word)) {
                                 matching = modifier;
                                 break;
                             }
@@ -1888,11 +2091,11 @@ public class Java11ParserVisitor extends TreePathScanner<J, Space> {
                             break;
                         } else {
                             sortedModifiers.add(matching);
-                            word.set("");
+                            word.setLength(0);
                         }
                     }
                 } else {
-                    word.getAndUpdate(w -> w + c);
+                    word.append(c);
                 }
             }
         }
@@ -1947,4 +2150,14 @@ public class Java11ParserVisitor extends TreePathScanner<J, Space> {
 
         return mappedModifiers;
     }
+
+    /**
+     * Thrown when mapping a compilation unit takes longer than the mapping timeout. No diagnostics are logged, since
+     * there is nothing wrong with the compilation unit besides its size.
+     */
+    static class MappingTimeoutException extends RuntimeException {
+        MappingTimeoutException(String message) {
+            super(message, null, false, false);
+        }
+    }
 }
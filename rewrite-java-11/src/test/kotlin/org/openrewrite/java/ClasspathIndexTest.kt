@@ -0,0 +1,96 @@
+/*
+ * Copyright 2020 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java
+
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.AfterEach
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.io.TempDir
+import java.nio.file.Files
+import java.nio.file.Path
+import java.nio.file.attribute.FileTime
+import java.util.zip.ZipEntry
+import java.util.zip.ZipOutputStream
+
+class ClasspathIndexTest {
+
+    @AfterEach
+    fun restoreMaxOpenJars() {
+        ClasspathIndex.setMaxOpenJars(256)
+    }
+
+    private fun jar(path: Path, vararg entries: String): Path {
+        ZipOutputStream(Files.newOutputStream(path)).use { zip ->
+            entries.forEach { entry ->
+                zip.putNextEntry(ZipEntry(entry))
+                zip.closeEntry()
+            }
+        }
+        return path
+    }
+
+    private fun ClasspathIndex.Lease.jarRoot(jar: Path) = roots(listOf(jar))[0] as ClasspathIndex.JarRoot
+
+    @Test
+    fun indexReusedBetweenLeases(@TempDir tempDir: Path) {
+        val jar = jar(tempDir.resolve("a.jar"), "a/A.class")
+
+        val first = ClasspathIndex.lease(Any())
+        val second = ClasspathIndex.lease(Any())
+        val root = first.jarRoot(jar)
+        assertThat(second.jarRoot(jar)).isSameAs(root)
+
+        first.release()
+        second.release()
+        assertThat(root.isClosed).isFalse()
+    }
+
+    @Test
+    fun replacedJarClosedOnceNoLeaseHoldsIt(@TempDir tempDir: Path) {
+        val jar = jar(tempDir.resolve("a.jar"), "a/A.class")
+        val first = ClasspathIndex.lease(Any())
+        val original = first.jarRoot(jar)
+
+        jar(jar, "a/A.class", "a/B.class")
+        Files.setLastModifiedTime(jar, FileTime.fromMillis(Files.getLastModifiedTime(jar).toMillis() + 1000))
+        val second = ClasspathIndex.lease(Any())
+        val replacement = second.jarRoot(jar)
+
+        assertThat(replacement).isNotSameAs(original)
+        assertThat(original.isClosed).isFalse()
+
+        first.release()
+        assertThat(original.isClosed).isTrue()
+        assertThat(replacement.isClosed).isFalse()
+        second.release()
+    }
+
+    @Test
+    fun evictedJarClosedOnceNoLeaseHoldsIt(@TempDir tempDir: Path) {
+        ClasspathIndex.setMaxOpenJars(1)
+        val a = jar(tempDir.resolve("a.jar"), "a/A.class")
+        val b = jar(tempDir.resolve("b.jar"), "b/B.class")
+
+        val lease = ClasspathIndex.lease(Any())
+        val evicted = lease.jarRoot(a)
+        val indexed = lease.jarRoot(b)
+        assertThat(evicted.isClosed).isFalse()
+
+        lease.release()
+        assertThat(evicted.isClosed).isTrue()
+        assertThat(indexed.isClosed).isFalse()
+    }
+}
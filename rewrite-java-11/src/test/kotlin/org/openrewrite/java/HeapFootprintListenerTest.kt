@@ -0,0 +1,65 @@
+/*
+ * Copyright 2020 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.Test
+import org.openrewrite.java.tree.J
+import org.openrewrite.java.tree.JavaType
+import org.openrewrite.java.tree.Space
+
+class HeapFootprintListenerTest : Java11Test {
+
+    @Test
+    fun measureSourceFilesAsTheyAreParsed() {
+        val registry = SimpleMeterRegistry()
+        val listener = HeapFootprintListener().bindTo(registry)
+
+        javaParser().doOnParse(listener).build().parse(
+            """
+                import java.util.List;
+                public class A {
+                    List<String> names;
+                }
+            """.trimIndent(),
+            """
+                import java.util.List;
+                public class B {
+                    List<String> names;
+                }
+            """.trimIndent()
+        )
+
+        val footprint = listener.footprint
+        assertThat(footprint.retainedBytes).hasSize(2)
+        assertThat(footprint.totalBytes).isEqualTo(footprint.retainedBytes.values.sum())
+
+        val classes = footprint.classFootprints
+        assertThat(classes[J.CompilationUnit::class.java]!!.instances).isEqualTo(2)
+        assertThat(classes[J.CompilationUnit::class.java]!!.retainedBytes).isPositive()
+        assertThat(classes[JavaType.Class::class.java]!!.sharedInstances).isPositive()
+        assertThat(classes[Space::class.java]!!.reuseRatio).isPositive()
+
+        assertThat(registry.get("rewrite.lst.heap").gauge().value()).isEqualTo(footprint.totalBytes.toDouble())
+        assertThat(registry.get("rewrite.lst.instances").tag("class", J::class.java.name).gauge().value())
+            .isEqualTo(classes.values.filter { J::class.java.isAssignableFrom(it.type) }.map { it.instances }.sum().toDouble())
+        assertThat(registry.find("rewrite.lst.instances").tag("class", J.CompilationUnit::class.java.name).gauge())
+            .isNull()
+        assertThat(registry.find("rewrite.lst.instances").gauges()).hasSize(4)
+        assertThat(footprint.classReport(10)).contains(J.CompilationUnit::class.java.name)
+    }
+}
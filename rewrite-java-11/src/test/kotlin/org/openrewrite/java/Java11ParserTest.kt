@@ -0,0 +1,276 @@
+/*
+ * Copyright 2020 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java
+
+import org.assertj.core.api.Assertions.assertThat
+import org.assertj.core.api.Assertions.entry
+import org.junit.jupiter.api.Test
+import org.openrewrite.InMemoryExecutionContext
+import org.openrewrite.Parser
+import org.openrewrite.SourceFile
+import org.openrewrite.TreePrinter
+import org.openrewrite.internal.HeapFootprint
+import org.openrewrite.marker.SearchResult
+import org.openrewrite.java.tree.J
+import org.openrewrite.java.tree.JavaType
+import java.io.ByteArrayInputStream
+import java.io.ByteArrayOutputStream
+import java.io.StringWriter
+import java.nio.file.Path
+import java.nio.file.Paths
+import java.time.Duration
+import java.util.concurrent.ForkJoinPool
+
+class Java11ParserTest : Java11Test {
+
+    @Test
+    fun parallelMapping() {
+        val sources = (0 until 50).map { i ->
+            """
+                package p;
+                import java.util.List;
+                public class A$i {
+                    List<String> names;
+                    A${(i + 1) % 50} next;
+                }
+            """.trimIndent()
+        }.toTypedArray()
+
+        val pool = ForkJoinPool(4)
+        val cus = javaParser().parallelMapping(pool).build().parse(*sources)
+        pool.shutdown()
+
+        assertThat(cus.map { it.printTrimmed() }).containsExactly(*sources)
+        cus.forEach { cu ->
+            val next = cu.classes[0].body.statements[1] as J.VariableDeclarations
+            assertThat((next.typeExpression!!.type as JavaType.FullyQualified).fullyQualifiedName)
+                .startsWith("p.A")
+        }
+    }
+
+    @Test
+    fun classpathSharedBetweenParsers() {
+        val source = """
+            import org.junit.jupiter.api.Assertions;
+            public class A {
+                Assertions assertions;
+            }
+        """.trimIndent()
+
+        val classpath = JavaParser.dependenciesFromClasspath("junit-jupiter-api")
+        repeat(2) {
+            val cu = javaParser().classpath(classpath).build().parse(source)[0]
+            val field = cu.classes[0].body.statements[0] as J.VariableDeclarations
+            assertThat((field.typeExpression!!.type as JavaType.FullyQualified).fullyQualifiedName)
+                .isEqualTo("org.junit.jupiter.api.Assertions")
+        }
+    }
+
+    @Test
+    fun typeCacheSharedBetweenParsers() {
+        val source = """
+            import java.util.List;
+            public class A {
+                List<String> names;
+            }
+        """.trimIndent()
+
+        val typeCache = JavaTypeCache()
+        val types = (0 until 2).map {
+            val cu = javaParser().typeCache(typeCache).build().parse(source)[0]
+            (cu.classes[0].body.statements[0] as J.VariableDeclarations).typeExpression!!.type
+        }
+
+        assertThat(types[1]).isSameAs(types[0])
+        assertThat(typeCache.get("java.util.List")).isSameAs(types[0])
+        assertThat(typeCache.get("A")).isNull()
+    }
+
+    @Test
+    fun sourceTypesForgottenOnReset() {
+        val parser = javaParser().build()
+        val fieldNames = listOf("a", "b").map { name ->
+            parser.reset()
+            val cu = parser.parse("public class A { int $name; }")[0]
+            (cu.classes[0].type as JavaType.Class).members.map { it.name }
+        }
+
+        assertThat(fieldNames).containsExactly(listOf("a"), listOf("b"))
+    }
+
+    @Test
+    fun attributionChunks() {
+        val sources = (0 until 5).map { i ->
+            """
+                package p;
+                public class B$i {
+                    B${(i + 1) % 5} next;
+                    int size() { return next.size(); }
+                }
+            """.trimIndent()
+        }.toTypedArray()
+
+        val streamed = mutableListOf<SourceFile>()
+        val cus = Java11Parser.builder()
+            .attributionChunkSize(2)
+            .doOnParse(object : Parser.Listener {
+                override fun onSourceFileParsed(sourceFile: SourceFile) {
+                    streamed.add(sourceFile)
+                }
+            })
+            .build()
+            .parse(*sources)
+
+        assertThat(cus.map { it.printTrimmed() }).containsExactly(*sources)
+        assertThat(streamed).containsExactlyElementsOf(cus)
+        cus.forEach { cu ->
+            val size = (cu.classes[0].body.statements[1] as J.MethodDeclaration).body!!.statements[0] as J.Return
+            assertThat((size.expression as J.MethodInvocation).type).isNotNull
+        }
+    }
+
+    @Test
+    fun skipSourcesOverLimits() {
+        val failures = mutableMapOf<Path, String>()
+        val listener = object : Parser.Listener {
+            override fun onParseFailed(sourcePath: Path, reason: String) {
+                failures[sourcePath] = reason
+            }
+        }
+
+        fun input(path: String, source: String) =
+            Parser.Input(Paths.get(path), { ByteArrayInputStream(source.toByteArray()) })
+
+        val cus = Java11Parser.builder()
+            .maxSourceFileLines(3)
+            .skipGeneratedSources(true)
+            .generatedSourcePaths("build/generated/**")
+            .doOnParse(listener)
+            .build()
+            .parseInputs(listOf(
+                input("src/A.java", "public class A {}"),
+                input("src/B.java", "public class B {\n\n\n}"),
+                input("src/C.java", "// Generated from Java.g4 by ANTLR 4.8\npublic class C {}"),
+                input("build/generated/D.java", "public class D {}"),
+                input("src/E.java", "package src;\n/** Returns the tree generated from a source file. */\npublic class E {}")
+            ), null, InMemoryExecutionContext())
+
+        assertThat(cus.map { it.classes[0].simpleName }).containsExactly("A", "E")
+        assertThat(failures).containsOnly(
+            entry(Paths.get("src/B.java"), "Skipped source file longer than 3 lines"),
+            entry(Paths.get("src/C.java"), "Skipped generated source file marked \"Generated from\""),
+            entry(Paths.get("build/generated/D.java"), "Skipped generated source file matching build/generated/**")
+        )
+    }
+
+    @Test
+    fun abandonMappingAfterTimeout() {
+        val failures = mutableListOf<String>()
+        val source = (0 until 500).joinToString("\n", "public class A {\n", "\n}") { i ->
+            "    int field$i = $i;"
+        }
+
+        val cus = Java11Parser.builder()
+            .mappingTimeout(Duration.ZERO)
+            .doOnParse(object : Parser.Listener {
+                override fun onParseFailed(sourcePath: Path, reason: String) {
+                    failures.add(reason)
+                }
+            })
+            .build()
+            .parse(source)
+
+        assertThat(cus).isEmpty()
+        assertThat(failures).containsExactly("Abandoned mapping after more than PT0S")
+    }
+
+    @Test
+    fun internStrings() {
+        val inputs = (0 until 10).map { i ->
+            Parser.Input(Paths.get("A$i.java"), {
+                ByteArrayInputStream("""
+                    /*
+                     * Licensed under the Apache License, Version 2.0
+                     */
+                    public class A$i {
+                        String name = "value";
+                        String get() { return name; }
+                    }
+                """.trimIndent().toByteArray())
+            })
+        }
+
+        fun parse(internStrings: Boolean) = javaParser().internStrings(internStrings).build()
+            .parseInputs(inputs, null, InMemoryExecutionContext())
+
+        val before = parse(false)
+        val after = parse(true)
+
+        val literals = after.map { cu ->
+            ((cu.classes[0].body.statements[0] as J.VariableDeclarations).variables[0].initializer as J.Literal).valueSource
+        }
+        assertThat(literals.distinct()).hasSize(1)
+        assertThat(literals[1]).isSameAs(literals[0])
+        assertThat(after[1].prefix.comments[0].text).isSameAs(after[0].prefix.comments[0].text)
+
+        val footprintBefore = HeapFootprint.of(before)
+        val footprintAfter = HeapFootprint.of(after)
+        assertThat(footprintAfter.totalBytes).isLessThan(footprintBefore.totalBytes)
+        assertThat(HeapFootprint.report(footprintBefore, footprintAfter)).contains("A0.java", "Total")
+    }
+
+    @Test
+    fun syntaxOnly() {
+        val source = """
+            import java.util.List;
+            public class A {
+                List<String> names;
+                int size() { return names.size(); }
+            }
+        """.trimIndent()
+
+        val cu = javaParser().syntaxOnly(true).build().parse(source)[0]
+
+        assertThat(cu.printTrimmed()).isEqualTo(source)
+        val names = cu.classes[0].body.statements[0] as J.VariableDeclarations
+        assertThat(names.typeExpression!!.type).isNull()
+        val size = (cu.classes[0].body.statements[1] as J.MethodDeclaration).body!!.statements[0] as J.Return
+        assertThat((size.expression as J.MethodInvocation).type).isNull()
+    }
+
+    @Test
+    fun printToAppendable() {
+        val source = (0 until 500).joinToString("\n", "public class A {\n", "\n}") { i ->
+            "    int field$i = $i;"
+        }
+        val cu = javaParser().build().parse(source)[0]
+
+        val writer = StringWriter()
+        cu.print(TreePrinter.identity(), null, writer)
+        assertThat(writer.toString()).isEqualTo(source)
+
+        val bytes = ByteArrayOutputStream()
+        cu.print(TreePrinter.identity(), null, bytes, Charsets.UTF_8)
+        assertThat(bytes.toString(Charsets.UTF_8)).isEqualTo(source)
+
+        val marked = cu.withMarker<J.CompilationUnit>(object : SearchResult {
+            override fun getDescription(): String? = null
+        })
+        val markedWriter = StringWriter()
+        marked.print(SearchResult.PRINTER, null, markedWriter)
+        assertThat(markedWriter.toString()).isEqualTo(marked.print(SearchResult.PRINTER, null))
+    }
+}
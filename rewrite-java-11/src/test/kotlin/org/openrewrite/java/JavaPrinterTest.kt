@@ -0,0 +1,63 @@
+/*
+ * Copyright 2020 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java
+
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.Test
+import org.openrewrite.TreePrinter
+import org.openrewrite.java.tree.J
+
+class JavaPrinterTest : Java11Test {
+
+    @Test
+    fun memoizedPrintingOfUnchangedSubtrees() {
+        val source = """
+            public class A {
+                void first() {
+                    int n = 0;
+                }
+
+                void second() {
+                    int m = 1;
+                }
+            }
+        """.trimIndent()
+        val cu = javaParser().build().parse(source)[0]
+
+        val memo = JavaPrinter.Memo()
+        fun print(j: J) = JavaPrinter(TreePrinter.identity<Int>(), memo).print(j, 0)
+
+        val printed = print(cu)
+        assertThat(printed).isEqualTo(source)
+        assertThat(print(cu)).isSameAs(printed)
+        assertThat(memo.hits).isEqualTo(1)
+
+        val statements = cu.classes[0].body.statements
+        val first = statements[0] as J.MethodDeclaration
+        val renamed = cu.withClasses(listOf(cu.classes[0].withBody(cu.classes[0].body.withStatements(
+            listOf(first.withName(first.name.withName("renamed")), statements[1])
+        ))))
+
+        // only the unchanged second method is reused
+        assertThat(print(renamed)).isEqualTo(source.replace("first", "renamed"))
+        assertThat(memo.hits).isEqualTo(2)
+        assertThat(print(cu)).isSameAs(printed)
+
+        // printers without a memo neither read nor fill it
+        assertThat(cu.print()).isNotSameAs(printed).isEqualTo(source)
+        assertThat(memo.hits).isEqualTo(3)
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2020 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.internal.template
+
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.Test
+import org.openrewrite.java.Java11Test
+import org.openrewrite.java.JavaIsoVisitor
+import org.openrewrite.java.tree.J
+import java.util.*
+
+class SnippetCacheTest : Java11Test {
+
+    @Test
+    fun cachedSnippetsHaveFreshIds() {
+        val cu = javaParser().build().parse("""
+            class A {
+                void test() {
+                    int n = 1 + 2;
+                }
+            }
+        """.trimIndent())[0]
+        val method = cu.classes[0].body.statements[0] as J.MethodDeclaration
+
+        val cache = SnippetCache()
+        assertThat(cache.get("generated")).isNull()
+        cache.put("generated", listOf(method))
+
+        val copy = cache.get("generated")!![0]
+        assertThat(copy.print()).isEqualTo(method.print())
+
+        val ids = mutableSetOf<UUID>()
+        object : JavaIsoVisitor<Int>() {
+            override fun postVisit(tree: J, p: Int): J {
+                ids.add(tree.id)
+                return tree
+            }
+        }.run {
+            visit(method, 0)
+            visit(copy, 0)
+        }
+        assertThat(ids).hasSize(2 * countTrees(method))
+    }
+
+    private fun countTrees(j: J): Int {
+        var count = 0
+        object : JavaIsoVisitor<Int>() {
+            override fun postVisit(tree: J, p: Int): J {
+                count++
+                return tree
+            }
+        }.visit(j, 0)
+        return count
+    }
+}
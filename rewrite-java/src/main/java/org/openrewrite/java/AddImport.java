@@ -19,7 +19,6 @@ import lombok.EqualsAndHashCode;
 import org.openrewrite.internal.lang.Nullable;
 import org.openrewrite.java.internal.FormatFirstClassPrefix;
 import org.openrewrite.java.search.FindMethods;
-import org.openrewrite.java.search.FindTypes;
 import org.openrewrite.java.tree.*;
 import org.openrewrite.marker.Markers;
 
@@ -129,13 +128,8 @@ public class AddImport<P> extends JavaIsoVisitor<P> {
     //Note that using anyMatch when a stream is empty ends up returning true, which is not the behavior needed here!
     private boolean hasReference(J.CompilationUnit compilationUnit) {
         if (statik == null) {
-            //Non-static imports, we just look for field accesses.
-            for (NameTree t : FindTypes.find(compilationUnit, type)) {
-                if (!(t instanceof J.FieldAccess) || !((J.FieldAccess) t).isFullyQualifiedClassReference(type)) {
-                    return true;
-                }
-            }
-            return false;
+            //Non-static imports, we just look for references that are not fully qualified.
+            return TypeReferences.of(compilationUnit).getImportableTypes().contains(type);
         }
 
         //For static imports, we are either looking for a specific method or a wildcard.
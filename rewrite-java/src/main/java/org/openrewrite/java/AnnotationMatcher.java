@@ -15,18 +15,19 @@
  */
 package org.openrewrite.java;
 
-import lombok.Data;
 import org.antlr.v4.runtime.CharStreams;
 import org.antlr.v4.runtime.CommonTokenStream;
+import org.openrewrite.internal.lang.Nullable;
 import org.openrewrite.java.internal.grammar.AnnotationSignatureParser;
 import org.openrewrite.java.internal.grammar.AspectJLexer;
+import org.openrewrite.java.tree.Expression;
 import org.openrewrite.java.tree.J;
 import org.openrewrite.java.tree.JavaType;
 import org.openrewrite.java.tree.TypeUtils;
 
+import java.util.LinkedHashMap;
 import java.util.List;
-
-import static java.util.stream.Collectors.toList;
+import java.util.Map;
 
 /**
  * This matcher will find all annotations matching the annotation pattern
@@ -47,13 +48,43 @@ import static java.util.stream.Collectors.toList;
  * {@literal @}myhttp.Get(path="recentPayments", serviceName="payments")  - Exaclty the same results from the previous example, order of parameters does not matter.
  * {@literal @}java.lang.SuppressWarnings("deprecation")                  - Matches java.langSupressWarning with a single parameter.
  * </PRE>
+ *
+ * The signature is parsed once, and annotations are matched by comparing their literals, identifiers and field
+ * accesses against it structurally rather than by printing their arguments.
  */
 public class AnnotationMatcher {
-    private final AnnotationSignatureParser.AnnotationContext match;
+    private static final int MAX_COMPILED_SIGNATURES = 1024;
+
+    /**
+     * Compiled signatures by annotation signature, so that a signature used over and over is only parsed once. The least
+     * recently used are evicted, so that a long running process matching many ad hoc signatures doesn't keep them all.
+     */
+    private static final Map<String, CompiledSignature> compiledSignatures =
+            new LinkedHashMap<String, CompiledSignature>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, CompiledSignature> eldest) {
+                    return size() > MAX_COMPILED_SIGNATURES;
+                }
+            };
+
+    private final CompiledSignature signature;
 
     public AnnotationMatcher(String signature) {
-        this.match = new AnnotationSignatureParser(new CommonTokenStream(new AspectJLexer(CharStreams.fromString(signature))))
-                .annotation();
+        this.signature = compile(signature);
+    }
+
+    private static CompiledSignature compile(String signature) {
+        CompiledSignature compiled;
+        synchronized (compiledSignatures) {
+            compiled = compiledSignatures.get(signature);
+        }
+        if (compiled == null) {
+            compiled = new CompiledSignature(signature);
+            synchronized (compiledSignatures) {
+                compiledSignatures.put(signature, compiled);
+            }
+        }
+        return compiled;
     }
 
     public boolean matches(J.Annotation annotation) {
@@ -64,51 +95,141 @@ public class AnnotationMatcher {
 
     private boolean matchesAnnotationName(J.Annotation annotation) {
         JavaType.Class typeAsClass = TypeUtils.asClass(annotation.getType());
-        return match.annotationName().getText().equals(typeAsClass == null ? null : typeAsClass.getFullyQualifiedName());
+        return typeAsClass != null && signature.annotationName.equals(typeAsClass.getFullyQualifiedName());
     }
 
     private boolean matchesNamedParameters(J.Annotation annotation) {
-        AnnotationSignatureParser.ElementValuePairsContext pairs = match.elementValuePairs();
-        if (pairs == null || pairs.elementValuePair() == null) {
+        if (signature.parameterNames == null) {
             return true;
         }
 
-        List<AnnotationParameter> matchArgs = pairs.elementValuePair().stream()
-                .map(pair -> new AnnotationParameter(pair.Identifier().getText(), pair.elementValue().getText()))
-                .collect(toList());
-
-        return annotation.getArguments() != null && annotation.getArguments().stream()
-                .map(arg -> {
-                    J.Assignment assignment = (J.Assignment) arg;
-                    return new AnnotationParameter(assignment.getVariable().printTrimmed(),
-                            assignment.getAssignment().printTrimmed());
-                })
-                .allMatch(param -> matchArgs.stream().anyMatch(param::equals));
+        List<Expression> args = annotation.getArguments();
+        if (args == null) {
+            return false;
+        }
+
+        for (Expression arg : args) {
+            if (!(arg instanceof J.Assignment)) {
+                return false;
+            }
+            J.Assignment assignment = (J.Assignment) arg;
+            boolean anyMatch = false;
+            for (int i = 0; i < signature.parameterNames.length; i++) {
+                if (printsAs(assignment.getVariable(), signature.parameterNames[i]) &&
+                        printsAs(assignment.getAssignment(), signature.parameterValues[i])) {
+                    anyMatch = true;
+                    break;
+                }
+            }
+            if (!anyMatch) {
+                return false;
+            }
+        }
+        return true;
     }
 
     private boolean matchesSingleParameter(J.Annotation annotation) {
-        if (match.elementValue() == null) {
+        if (signature.elementValue == null) {
+            return true;
+        }
+
+        List<Expression> args = annotation.getArguments();
+        if (args == null || args.isEmpty()) {
             return true;
         }
 
-        return annotation.getArguments() == null || annotation.getArguments().stream()
-                .findAny()
-                .map(arg -> {
-                    if (arg instanceof J.Assignment) {
-                        return ((J.Assignment) arg).getAssignment().printTrimmed().equals(match.elementValue().getText());
-                    }
-                    if (arg instanceof J.Literal) {
-                        return ((J.Literal) arg).getValueSource().equals(match.elementValue().getText());
-                    }
-                    return false;
-                })
-                .orElse(true);
+        Expression arg = args.get(0);
+        if (arg instanceof J.Assignment) {
+            return printsAs(((J.Assignment) arg).getAssignment(), signature.elementValue);
+        }
+        if (arg instanceof J.Literal) {
+            return signature.elementValue.equals(((J.Literal) arg).getValueSource());
+        }
+        return false;
+    }
+
+    /**
+     * @return Whether the expression's trimmed source is exactly the text. Literals, identifiers and field accesses
+     * are compared without printing them. Other expressions, and those carrying comments, are printed.
+     */
+    private static boolean printsAs(Expression expression, String text) {
+        if (expression.getPrefix().getComments().isEmpty()) {
+            Boolean matches = printsAs(expression, text, 0, text.length());
+            if (matches != null) {
+                return matches;
+            }
+        }
+        return expression.printTrimmed().equals(text);
+    }
+
+    /**
+     * @return Whether the tree prints as the region of the text between start and end, or null when the tree
+     * can't be compared structurally.
+     */
+    @Nullable
+    private static Boolean printsAs(J j, String text, int start, int end) {
+        if (j instanceof J.Literal) {
+            return regionEquals(text, start, end, ((J.Literal) j).getValueSource());
+        } else if (j instanceof J.Identifier) {
+            return regionEquals(text, start, end, ((J.Identifier) j).getSimpleName());
+        } else if (j instanceof J.FieldAccess) {
+            J.FieldAccess fieldAccess = (J.FieldAccess) j;
+            if (!fieldAccess.getTarget().getPrefix().isEmpty() ||
+                    !fieldAccess.getPadding().getName().getBefore().isEmpty() ||
+                    !fieldAccess.getName().getPrefix().isEmpty()) {
+                return null;
+            }
+
+            String name = fieldAccess.getSimpleName();
+            int dot = end - name.length() - 1;
+            if (dot <= start || text.charAt(dot) != '.' || !text.regionMatches(dot + 1, name, 0, name.length())) {
+                return false;
+            }
+            return printsAs(fieldAccess.getTarget(), text, start, dot);
+        }
+        return null;
     }
 
-    @Data
-    private static class AnnotationParameter {
-        private final String id;
-        private final String value;
+    @Nullable
+    private static Boolean regionEquals(String text, int start, int end, @Nullable String source) {
+        if (source == null || source.indexOf('\n') >= 0) {
+            return null;
+        }
+        return source.length() == end - start && text.regionMatches(start, source, 0, source.length());
     }
 
+    private static class CompiledSignature {
+        private final String annotationName;
+
+        @Nullable
+        private final String elementValue;
+
+        @Nullable
+        private final String[] parameterNames;
+
+        @Nullable
+        private final String[] parameterValues;
+
+        private CompiledSignature(String signature) {
+            AnnotationSignatureParser.AnnotationContext match = new AnnotationSignatureParser(new CommonTokenStream(
+                    new AspectJLexer(CharStreams.fromString(signature)))).annotation();
+
+            this.annotationName = match.annotationName().getText();
+            this.elementValue = match.elementValue() == null ? null : match.elementValue().getText();
+
+            AnnotationSignatureParser.ElementValuePairsContext pairs = match.elementValuePairs();
+            if (pairs == null || pairs.elementValuePair() == null) {
+                this.parameterNames = null;
+                this.parameterValues = null;
+            } else {
+                List<AnnotationSignatureParser.ElementValuePairContext> pairList = pairs.elementValuePair();
+                this.parameterNames = new String[pairList.size()];
+                this.parameterValues = new String[pairList.size()];
+                for (int i = 0; i < pairList.size(); i++) {
+                    parameterNames[i] = pairList.get(i).Identifier().getText();
+                    parameterValues[i] = pairList.get(i).elementValue().getText();
+                }
+            }
+        }
+    }
 }
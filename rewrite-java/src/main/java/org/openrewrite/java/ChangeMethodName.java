@@ -56,6 +56,14 @@ public class ChangeMethodName extends Recipe {
             setCursoringOn();
         }
 
+        @Override
+        public J.CompilationUnit visitCompilationUnit(J.CompilationUnit cu, ExecutionContext ctx) {
+            if (!methodMatcher.matchesAnyMethodName(cu)) {
+                return cu;
+            }
+            return super.visitCompilationUnit(cu, ctx);
+        }
+
         @Override
         public J.MethodDeclaration visitMethodDeclaration(J.MethodDeclaration method, ExecutionContext ctx) {
             J.MethodDeclaration m = super.visitMethodDeclaration(method, ctx);
@@ -57,6 +57,14 @@ public class ChangeMethodTargetToVariable extends Recipe {
             this.variableType = variableType;
         }
 
+        @Override
+        public J.CompilationUnit visitCompilationUnit(J.CompilationUnit cu, ExecutionContext ctx) {
+            if (!methodMatcher.matchesAnyInvocation(cu)) {
+                return cu;
+            }
+            return super.visitCompilationUnit(cu, ctx);
+        }
+
         @Override
         public J.MethodInvocation visitMethodInvocation(J.MethodInvocation method, ExecutionContext ctx) {
             J.MethodInvocation m = super.visitMethodInvocation(method, ctx);
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2020 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.Incubating;
+import org.openrewrite.Recipe;
+import org.openrewrite.TreeVisitor;
+import org.openrewrite.internal.lang.Nullable;
+import org.openrewrite.java.tree.J;
+import org.openrewrite.java.tree.JavaType;
+import org.openrewrite.java.tree.TypeTree;
+
+import java.nio.file.Paths;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import static java.util.Collections.emptyList;
+
+/**
+ * Moves many packages at once, as a migration from one library to another does, in a single pass over each
+ * compilation unit.
+ * <p>
+ * Unlike {@link ChangePackage}, which changes the types that the source files declare in the package one after
+ * another, this changes every reference to a type in one of the packages, including to types that the source files
+ * do not declare, by looking the package of each type it visits up in the mapping. Star imports of an old package
+ * are changed to star imports of the new package.
+ */
+@Incubating(since = "7.0.0")
+@Data
+@EqualsAndHashCode(callSuper = true)
+public class ChangePackages extends Recipe {
+    /**
+     * Fully-qualified package names of the old packages, mapped to the fully-qualified package names of their
+     * replacements.
+     */
+    private final Map<String, String> oldToNewFullyQualifiedPackageNames;
+
+    @Override
+    protected TreeVisitor<?, ExecutionContext> getVisitor() {
+        return new ChangeType.ChangeTypeVisitor() {
+            private final Map<String, JavaType> targetTypes = new HashMap<>();
+
+            @Nullable
+            private String oldPackageName;
+
+            @Nullable
+            @Override
+            protected JavaType targetType(String fullyQualifiedName) {
+                String packageName = packageName(fullyQualifiedName);
+                String newPackageName = oldToNewFullyQualifiedPackageNames.get(packageName);
+                if (newPackageName == null) {
+                    return null;
+                }
+                return targetTypes.computeIfAbsent(fullyQualifiedName, fqn ->
+                        JavaType.Class.build(newPackageName + fqn.substring(packageName.length())));
+            }
+
+            @Override
+            protected Collection<String> importsCoveredBy(String starImportPackageName) {
+                // star imports of an old package are changed to star imports of the new package like any other import
+                return emptyList();
+            }
+
+            @Override
+            public J visitCompilationUnit(J.CompilationUnit cu, ExecutionContext ctx) {
+                J.CompilationUnit c = (J.CompilationUnit) super.visitCompilationUnit(cu, ctx);
+                if (oldPackageName != null) {
+                    String path = c.getSourcePath().toString();
+                    c = c.withSourcePath(Paths.get(path.replaceFirst(
+                            oldPackageName.replace('.', '/'),
+                            oldToNewFullyQualifiedPackageNames.get(oldPackageName).replace('.', '/')
+                    )));
+                }
+                return c;
+            }
+
+            @Override
+            public J visitPackage(J.Package pkg, ExecutionContext ctx) {
+                String packageName = pkg.getExpression().printTrimmed().replaceAll("\\s", "");
+                String newPackageName = oldToNewFullyQualifiedPackageNames.get(packageName);
+                if (newPackageName != null) {
+                    oldPackageName = packageName;
+                    return pkg.withExpression(TypeTree.build(newPackageName)
+                            .withPrefix(pkg.getExpression().getPrefix()));
+                }
+                // the package name is not a reference to a type
+                return pkg;
+            }
+        };
+    }
+
+    /**
+     * The package of a fully qualified type name, by the same convention as {@link JavaType.FullyQualified#getPackageName()}
+     * that package names are not capitalized, but without splitting the name.
+     */
+    private static String packageName(String fullyQualifiedName) {
+        int start = 0;
+        while (start < fullyQualifiedName.length() && !Character.isUpperCase(fullyQualifiedName.charAt(start))) {
+            int end = fullyQualifiedName.indexOf('.', start);
+            if (end < 0) {
+                break;
+            }
+            start = end + 1;
+        }
+        return start == 0 ? "" : fullyQualifiedName.substring(0, start - 1);
+    }
+}
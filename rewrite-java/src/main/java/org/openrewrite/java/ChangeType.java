@@ -25,6 +25,13 @@ import org.openrewrite.internal.lang.Nullable;
 import org.openrewrite.java.tree.*;
 import org.openrewrite.marker.Markers;
 
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
 import static org.openrewrite.Tree.randomId;
 
 /**
@@ -50,34 +57,115 @@ public class ChangeType extends Recipe {
 
     @Override
     protected TreeVisitor<?, ExecutionContext> getVisitor() {
-        return new ChangeTypeVisitor(newFullyQualifiedTypeName);
+        JavaType targetType = targetType(newFullyQualifiedTypeName);
+        String oldPackageName = JavaType.Class.build(oldFullyQualifiedTypeName).getPackageName();
+        return new ChangeTypeVisitor() {
+            @Nullable
+            @Override
+            protected JavaType targetType(String fullyQualifiedName) {
+                return fullyQualifiedName.equals(oldFullyQualifiedTypeName) ? targetType : null;
+            }
+
+            @Override
+            protected Collection<String> importsCoveredBy(String starImportPackageName) {
+                return starImportPackageName.equals(oldPackageName) ?
+                        singletonList(oldFullyQualifiedTypeName) :
+                        emptyList();
+            }
+        };
     }
 
-    private class ChangeTypeVisitor extends JavaVisitor<ExecutionContext> {
-        private final JavaType targetType;
+    static JavaType targetType(String fullyQualifiedName) {
+        JavaType type = JavaType.Primitive.fromKeyword(fullyQualifiedName);
+        if (type == null) {
+            type = JavaType.Class.build(fullyQualifiedName);
+        }
+        return type;
+    }
 
-        private ChangeTypeVisitor(String targetType) {
-            JavaType type = JavaType.Primitive.fromKeyword(targetType);
-            if (type == null) {
-                type = JavaType.Class.build(targetType);
+    /**
+     * Changes the types that {@link #targetType(String)} maps to a new type in a single pass, no matter how many there
+     * are. Imports are only added and removed for the types the compilation unit refers to.
+     */
+    abstract static class ChangeTypeVisitor extends JavaVisitor<ExecutionContext> {
+        /**
+         * The fully qualified names of the types that are being changed and that the compilation unit refers to.
+         */
+        private final Set<String> referenced = new LinkedHashSet<>();
+
+        /**
+         * @param fullyQualifiedName The fully qualified name of a type.
+         * @return The type that replaces it, or null if the type is not changed.
+         */
+        @Nullable
+        protected abstract JavaType targetType(String fullyQualifiedName);
+
+        /**
+         * @param starImportPackageName The package of a star import.
+         * @return The imports to try to remove when this star import may no longer be needed, because types in the
+         * package are changed.
+         */
+        protected abstract Collection<String> importsCoveredBy(String starImportPackageName);
+
+        @Nullable
+        private JavaType target(@Nullable String fullyQualifiedName) {
+            if (fullyQualifiedName == null) {
+                return null;
+            }
+            JavaType target = targetType(fullyQualifiedName);
+            if (target != null) {
+                referenced.add(fullyQualifiedName);
             }
-            this.targetType = type;
+            return target;
+        }
+
+        @Nullable
+        private JavaType target(@Nullable JavaType type) {
+            JavaType.Class asClass = TypeUtils.asClass(type);
+            return asClass == null ? null : target(asClass.getFullyQualifiedName());
         }
 
         @Override
         public J visitCompilationUnit(J.CompilationUnit cu, ExecutionContext ctx) {
-            if (targetType instanceof JavaType.FullyQualified) {
-                maybeAddImport((JavaType.FullyQualified) targetType);
+            J c = super.visitCompilationUnit(cu, ctx);
+
+            Set<String> maybeRemove = new LinkedHashSet<>(referenced);
+            for (J.Import anImport : cu.getImports()) {
+                if (!anImport.isStatic() && "*".equals(anImport.getQualid().getSimpleName())) {
+                    maybeRemove.addAll(importsCoveredBy(anImport.getPackageName()));
+                }
             }
-            maybeRemoveImport(oldFullyQualifiedTypeName);
-            return super.visitCompilationUnit(cu, ctx);
+
+            J.Package pkg = ((J.CompilationUnit) c).getPackageDeclaration();
+            String packageName = pkg == null ? "" : pkg.getExpression().printTrimmed();
+            Set<String> samePackage = new HashSet<>();
+            for (String oldFullyQualifiedTypeName : referenced) {
+                JavaType targetType = targetType(oldFullyQualifiedTypeName);
+                if (targetType instanceof JavaType.FullyQualified) {
+                    JavaType.FullyQualified fq = (JavaType.FullyQualified) targetType;
+                    if (fq.getPackageName().equals(packageName)) {
+                        samePackage.add(fq.getFullyQualifiedName());
+                    } else {
+                        maybeAddImport(fq);
+                    }
+                }
+            }
+            if (!samePackage.isEmpty()) {
+                // the imports of the old types have been changed to imports of types that need none
+                c = ((J.CompilationUnit) c).withImports(ListUtils.map(((J.CompilationUnit) c).getImports(), i ->
+                        !i.isStatic() && samePackage.contains(i.getTypeName()) ? null : i));
+            }
+            for (String oldFullyQualifiedTypeName : maybeRemove) {
+                maybeRemoveImport(oldFullyQualifiedTypeName);
+            }
+            return c;
         }
 
         @Override
         public <N extends NameTree> N visitTypeName(N name, ExecutionContext ctx) {
-            JavaType.Class oldTypeAsClass = TypeUtils.asClass(name.getType());
+            JavaType targetType = target(name.getType());
             N n = visitAndCast(name, ctx, super::visitTypeName);
-            if (!(name instanceof TypeTree) && oldTypeAsClass != null && oldTypeAsClass.getFullyQualifiedName().equals(oldFullyQualifiedTypeName)) {
+            if (!(name instanceof TypeTree) && targetType != null) {
                 n = n.withType(targetType);
             }
             return n;
@@ -113,30 +201,49 @@ public class ChangeType extends Recipe {
         @Override
         public J visitFieldAccess(J.FieldAccess fieldAccess, ExecutionContext ctx) {
             J.FieldAccess f = visitAndCast(fieldAccess, ctx, super::visitFieldAccess);
-            if (f.isFullyQualifiedClassReference(oldFullyQualifiedTypeName)) {
-                if (targetType instanceof JavaType.FullyQualified) {
-                    return TypeTree.build(((JavaType.FullyQualified) targetType).getFullyQualifiedName())
-                            .withPrefix(f.getPrefix());
-                } else if (targetType instanceof JavaType.Primitive) {
-                    return new J.Primitive(
-                            f.getId(),
-                            f.getPrefix(),
-                            Markers.EMPTY,
-                            (JavaType.Primitive) targetType
-                    );
-                }
+            JavaType targetType = target(fullyQualifiedName(f));
+            if (targetType instanceof JavaType.FullyQualified) {
+                return TypeTree.build(((JavaType.FullyQualified) targetType).getFullyQualifiedName())
+                        .withPrefix(f.getPrefix());
+            } else if (targetType instanceof JavaType.Primitive) {
+                return new J.Primitive(
+                        f.getId(),
+                        f.getPrefix(),
+                        Markers.EMPTY,
+                        (JavaType.Primitive) targetType
+                );
             }
             return f;
         }
 
+        /**
+         * @return The name a field access spells out, if it consists only of names, like a fully qualified class
+         * reference.
+         */
+        @Nullable
+        private static String fullyQualifiedName(J.FieldAccess fieldAccess) {
+            Expression target = fieldAccess.getTarget();
+            String targetName;
+            if (target instanceof J.Identifier) {
+                targetName = ((J.Identifier) target).getSimpleName();
+            } else if (target instanceof J.FieldAccess) {
+                targetName = fullyQualifiedName((J.FieldAccess) target);
+            } else {
+                return null;
+            }
+            return targetName == null ? null : targetName + '.' + fieldAccess.getSimpleName();
+        }
+
         @Override
         public J visitIdentifier(J.Identifier ident, ExecutionContext ctx) {
             // if the ident's type is equal to the type we're looking for, and the classname of the type we're looking for is equal to the ident's string representation
             // Then transform it, otherwise leave it alone
             J.Identifier i = visitAndCast(ident, ctx, super::visitIdentifier);
-            JavaType.Class original = JavaType.Class.build(oldFullyQualifiedTypeName);
+            JavaType.Class original = TypeUtils.asClass(i.getType());
+            JavaType targetType = target(original);
 
-            if (TypeUtils.isOfClassType(i.getType(), oldFullyQualifiedTypeName) && i.getSimpleName().equals(original.getClassName())) {
+            if (targetType != null &&
+                    i.getSimpleName().equals(JavaType.Class.build(original.getFullyQualifiedName()).getClassName())) {
                 if (targetType instanceof JavaType.FullyQualified) {
                     i = i.withName(((JavaType.FullyQualified) targetType).getClassName());
                 } else if (targetType instanceof JavaType.Primitive) {
@@ -164,15 +271,15 @@ public class ChangeType extends Recipe {
             }
 
             if (m.getSelect() != null) {
-                JavaType.Class selectType = TypeUtils.asClass(m.getSelect().getType());
-                if (selectType != null && selectType.getFullyQualifiedName().equals(oldFullyQualifiedTypeName)) {
+                JavaType targetType = target(m.getSelect().getType());
+                if (targetType != null) {
                     m = m.withSelect(m.getSelect().withType(targetType));
                 }
             }
 
             if (m.getType() != null) {
-                if (m.getType().getDeclaringType().getFullyQualifiedName().equals(oldFullyQualifiedTypeName) &&
-                        targetType instanceof JavaType.FullyQualified) {
+                JavaType targetType = target(m.getType().getDeclaringType().getFullyQualifiedName());
+                if (targetType instanceof JavaType.FullyQualified) {
                     m = m.withDeclaringType((JavaType.FullyQualified) targetType);
                 }
             }
@@ -199,8 +306,8 @@ public class ChangeType extends Recipe {
         public J.VariableDeclarations.NamedVariable visitVariable(J.VariableDeclarations.NamedVariable variable, ExecutionContext ctx) {
             J.VariableDeclarations.NamedVariable v = visitAndCast(variable, ctx, super::visitVariable);
 
-            JavaType.Class varType = TypeUtils.asClass(variable.getType());
-            if (varType != null && varType.getFullyQualifiedName().equals(oldFullyQualifiedTypeName)) {
+            JavaType targetType = target(variable.getType());
+            if (targetType != null) {
                 v = v.withType(targetType).withName(v.getName().withType(targetType));
             }
 
@@ -241,14 +348,14 @@ public class ChangeType extends Recipe {
         @SuppressWarnings({"unchecked", "ConstantConditions"})
         private <T extends J> T transformName(@Nullable T nameField) {
             if (nameField instanceof NameTree) {
-                JavaType.Class nameTreeClass = TypeUtils.asClass(((NameTree) nameField).getType());
-                String name;
-                if (targetType instanceof JavaType.FullyQualified) {
-                    name = ((JavaType.FullyQualified) targetType).getClassName();
-                } else {
-                    name = ((JavaType.Primitive) targetType).getKeyword();
-                }
-                if (nameTreeClass != null && nameTreeClass.getFullyQualifiedName().equals(oldFullyQualifiedTypeName)) {
+                JavaType targetType = target(((NameTree) nameField).getType());
+                if (targetType != null) {
+                    String name;
+                    if (targetType instanceof JavaType.FullyQualified) {
+                        name = ((JavaType.FullyQualified) targetType).getClassName();
+                    } else {
+                        name = ((JavaType.Primitive) targetType).getKeyword();
+                    }
                     return (T) J.Identifier.build(randomId(),
                             nameField.getPrefix(),
                             Markers.EMPTY,
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2020 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.Incubating;
+import org.openrewrite.Recipe;
+import org.openrewrite.TreeVisitor;
+import org.openrewrite.internal.lang.Nullable;
+import org.openrewrite.java.tree.JavaType;
+
+import java.util.*;
+
+import static java.util.Collections.emptyList;
+
+/**
+ * Changes many types at once, as a migration from one library to another does. Each type is changed the way
+ * {@link ChangeType} changes it, but all of them are changed in a single pass over each compilation unit that looks
+ * every type it visits up in the mapping, and imports are only added and removed for the types that the compilation
+ * unit refers to.
+ */
+@Incubating(since = "7.0.0")
+@Getter
+@EqualsAndHashCode(callSuper = true, onlyExplicitlyIncluded = true)
+public class ChangeTypes extends Recipe {
+
+    /**
+     * Fully-qualified class names of the original types, mapped to the fully-qualified class names of their
+     * replacements. A replacement type can also be defined as a primitive.
+     */
+    @EqualsAndHashCode.Include
+    private final Map<String, String> oldToNewFullyQualifiedTypeNames;
+
+    private final Map<String, JavaType> targetTypes = new HashMap<>();
+    private final Map<String, List<String>> oldTypesByPackage = new HashMap<>();
+
+    public ChangeTypes(Map<String, String> oldToNewFullyQualifiedTypeNames) {
+        this.oldToNewFullyQualifiedTypeNames = oldToNewFullyQualifiedTypeNames;
+        for (Map.Entry<String, String> oldToNew : oldToNewFullyQualifiedTypeNames.entrySet()) {
+            targetTypes.put(oldToNew.getKey(), ChangeType.targetType(oldToNew.getValue()));
+            oldTypesByPackage.computeIfAbsent(JavaType.Class.build(oldToNew.getKey()).getPackageName(),
+                    p -> new ArrayList<>()).add(oldToNew.getKey());
+        }
+    }
+
+    @Override
+    protected TreeVisitor<?, ExecutionContext> getVisitor() {
+        return new ChangeType.ChangeTypeVisitor() {
+            @Nullable
+            @Override
+            protected JavaType targetType(String fullyQualifiedName) {
+                return targetTypes.get(fullyQualifiedName);
+            }
+
+            @Override
+            protected Collection<String> importsCoveredBy(String starImportPackageName) {
+                return oldTypesByPackage.getOrDefault(starImportPackageName, emptyList());
+            }
+        };
+    }
+}
@@ -62,6 +62,14 @@ public class DeleteMethodArgument extends Recipe {
             this.methodMatcher = methodMatcher;
         }
 
+        @Override
+        public J.CompilationUnit visitCompilationUnit(J.CompilationUnit cu, ExecutionContext ctx) {
+            if (!methodMatcher.matchesAnyInvocation(cu)) {
+                return cu;
+            }
+            return super.visitCompilationUnit(cu, ctx);
+        }
+
         @Override
         public J.MethodInvocation visitMethodInvocation(J.MethodInvocation method, ExecutionContext ctx) {
             J.MethodInvocation m = super.visitMethodInvocation(method, ctx);
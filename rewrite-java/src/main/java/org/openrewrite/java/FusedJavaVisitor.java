@@ -0,0 +1,94 @@
+/*
+ * Copyright 2020 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java;
+
+import org.openrewrite.Tree;
+import org.openrewrite.TreeVisitor;
+import org.openrewrite.internal.lang.Nullable;
+import org.openrewrite.java.tree.J;
+
+import java.util.*;
+
+/**
+ * Applies many visitors to every tree in a single traversal. Each tree is pre-visited by every visitor before its
+ * children are visited and visited by every visitor after, in order.
+ */
+class FusedJavaVisitor<P> extends JavaVisitor<P> {
+    private final List<TreeVisitor<J, P>> visitors;
+    private final BitSet changed;
+
+    /**
+     * For each tree being visited, its children as they were returned from visiting them.
+     */
+    private final Deque<List<J>> children = new ArrayDeque<>();
+
+    FusedJavaVisitor(List<TreeVisitor<J, P>> visitors, BitSet changed) {
+        this.visitors = visitors;
+        this.changed = changed;
+        setCursoringOn();
+    }
+
+    @Nullable
+    @Override
+    public J visit(@Nullable Tree tree, P p) {
+        children.push(new ArrayList<>(4));
+        J j;
+        try {
+            j = super.visit(tree, p);
+        } finally {
+            children.pop();
+        }
+        if (j != null && !children.isEmpty()) {
+            children.peek().add(j);
+        }
+        return j;
+    }
+
+    @Nullable
+    @Override
+    public J preVisit(J tree, P p) {
+        J t = tree;
+        for (int i = 0; i < visitors.size(); i++) {
+            J visited = visitors.get(i).preVisitNode(t, p, getCursor());
+            if (visited != t) {
+                changed.set(i);
+            }
+            t = visited;
+            if (t == null) {
+                break;
+            }
+        }
+        return t;
+    }
+
+    @Nullable
+    @Override
+    public J postVisit(J tree, P p) {
+        List<J> visitedChildren = children.peek();
+        J t = tree;
+        for (int i = 0; i < visitors.size(); i++) {
+            J visited = visitors.get(i).visitNode(t, p, getCursor(), visitedChildren);
+            if (visited != t) {
+                changed.set(i);
+            }
+            t = visited;
+            if (t == null) {
+                break;
+            }
+        }
+        return t;
+    }
+}
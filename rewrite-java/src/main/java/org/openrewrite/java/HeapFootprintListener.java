@@ -0,0 +1,177 @@
+/*
+ * Copyright 2020 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.openrewrite.Incubating;
+import org.openrewrite.Parser;
+import org.openrewrite.SourceFile;
+import org.openrewrite.internal.HeapFootprint;
+import org.openrewrite.java.tree.J;
+import org.openrewrite.java.tree.JavaType;
+import org.openrewrite.java.tree.Space;
+import org.openrewrite.marker.Markers;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+/**
+ * Measures the {@link HeapFootprint} of each source file as soon as it is parsed, and optionally publishes it as
+ * gauges, so that the memory needed to hold the ASTs of a repository can be tracked rather than found by trial and
+ * error. Every other event is passed on to the listener it wraps.
+ * <p>
+ * Measuring walks every object reachable from each source file, so it is meant for diagnostics rather than for
+ * every parse.
+ */
+@Incubating(since = "7.0.0")
+public class HeapFootprintListener implements Parser.Listener {
+    /**
+     * The kinds of objects that make up most of an AST, which are published as gauges. Tagging gauges by every
+     * class reachable from the source files would publish an unbounded number of them, so the footprint of each
+     * individual class is left to {@link HeapFootprint#classReport(int)}.
+     */
+    private static final List<Class<?>> GAUGED_TYPES = Arrays.asList(J.class, JavaType.class, Space.class, Markers.class);
+
+    private final HeapFootprint footprint = new HeapFootprint();
+    private final Parser.Listener delegate;
+
+    public HeapFootprintListener() {
+        this(Parser.Listener.NOOP);
+    }
+
+    public HeapFootprintListener(Parser.Listener delegate) {
+        this.delegate = delegate;
+    }
+
+    public HeapFootprint getFootprint() {
+        return footprint;
+    }
+
+    /**
+     * Publish the total footprint, and the footprint of the trees, types, whitespace and markers reachable from the
+     * source files, as gauges.
+     *
+     * @param registry The registry to publish the gauges to.
+     * @return This listener.
+     */
+    public HeapFootprintListener bindTo(MeterRegistry registry) {
+        Gauge.builder("rewrite.lst.heap", footprint, HeapFootprint::getTotalBytes)
+                .description("The estimated bytes retained by the ASTs of the source files parsed")
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("rewrite.lst.source.files", footprint, f -> f.getRetainedBytes().size())
+                .description("The number of source files whose heap footprint has been measured")
+                .register(registry);
+
+        for (Class<?> type : GAUGED_TYPES) {
+            Tags tags = Tags.of("class", type.getName());
+            Gauge.builder("rewrite.lst.instances", this, l -> l.sum(type, HeapFootprint.ClassFootprint::getInstances))
+                    .description("The number of instances of a class reachable from the source files parsed")
+                    .tags(tags)
+                    .register(registry);
+            Gauge.builder("rewrite.lst.shared.instances", this, l -> l.sum(type, HeapFootprint.ClassFootprint::getSharedInstances))
+                    .description("The number of instances of a class referred to more than once")
+                    .tags(tags)
+                    .register(registry);
+            Gauge.builder("rewrite.lst.reuse", this, l -> l.reuseRatio(type))
+                    .description("The fraction of references to a class that are to a shared instance")
+                    .tags(tags)
+                    .register(registry);
+            Gauge.builder("rewrite.lst.shallow", this, l -> l.sum(type, HeapFootprint.ClassFootprint::getShallowBytes))
+                    .description("The estimated bytes of the instances of a class")
+                    .baseUnit("bytes")
+                    .tags(tags)
+                    .register(registry);
+            Gauge.builder("rewrite.lst.retained", this, l -> l.sum(type, HeapFootprint.ClassFootprint::getRetainedBytes))
+                    .description("The estimated bytes retained by the trees of a class")
+                    .baseUnit("bytes")
+                    .tags(tags)
+                    .register(registry);
+        }
+        return this;
+    }
+
+    /**
+     * @return The sum of a measure over the classes that are assignable to a type, e.g. all of the {@link J} trees.
+     */
+    private long sum(Class<?> type, ToLongFunction<HeapFootprint.ClassFootprint> measure) {
+        long sum = 0;
+        for (HeapFootprint.ClassFootprint classFootprint : footprint.getClassFootprints().values()) {
+            if (type.isAssignableFrom(classFootprint.getType())) {
+                sum += measure.applyAsLong(classFootprint);
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * @return Like {@link HeapFootprint.ClassFootprint#getReuseRatio()}, over the classes that are assignable to a type.
+     */
+    private double reuseRatio(Class<?> type) {
+        long references = sum(type, HeapFootprint.ClassFootprint::getReferences);
+        return references == 0 ? 0.0 : (double) (references - sum(type, HeapFootprint.ClassFootprint::getInstances)) / references;
+    }
+
+    @Override
+    public void onSourceFileParsed(SourceFile sourceFile) {
+        footprint.add(sourceFile);
+        delegate.onSourceFileParsed(sourceFile);
+    }
+
+    @Override
+    public void onParseStart(Path sourcePath) {
+        delegate.onParseStart(sourcePath);
+    }
+
+    @Override
+    public void onParseSucceeded(Path sourcePath) {
+        delegate.onParseSucceeded(sourcePath);
+    }
+
+    @Override
+    public void onParseFailed(Path sourcePath) {
+        delegate.onParseFailed(sourcePath);
+    }
+
+    @Override
+    public void onParseFailed(Path sourcePath, String reason) {
+        delegate.onParseFailed(sourcePath, reason);
+    }
+
+    @Override
+    public void onError(String message) {
+        delegate.onError(message);
+    }
+
+    @Override
+    public void onError(String message, Throwable t) {
+        delegate.onError(message, t);
+    }
+
+    @Override
+    public void onWarn(String message) {
+        delegate.onWarn(message);
+    }
+
+    @Override
+    public void onWarn(String message, Throwable t) {
+        delegate.onWarn(message, t);
+    }
+}
@@ -16,41 +16,152 @@
 package org.openrewrite.java;
 
 import org.openrewrite.Cursor;
+import org.openrewrite.Incubating;
 import org.openrewrite.Tree;
 import org.openrewrite.TreePrinter;
+import org.openrewrite.internal.PrinterAccumulator;
+import org.openrewrite.internal.WeakIdentityMap;
 import org.openrewrite.internal.lang.NonNull;
 import org.openrewrite.internal.lang.Nullable;
 import org.openrewrite.java.tree.*;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
 
 import static org.openrewrite.java.tree.J.Modifier.*;
 
 public class JavaPrinter<P> extends JavaVisitor<P> {
 
-    private static final String PRINTER_ACC_KEY = "printed";
-
     private final TreePrinter<P> treePrinter;
 
+    @Nullable
+    private final Memo memo;
+
+    @Nullable
+    private PrinterAccumulator accumulator;
+
     public JavaPrinter(TreePrinter<P> treePrinter) {
+        this(treePrinter, null);
+    }
+
+    /**
+     * A printer that memoizes what it prints. Trees are immutable, so once a tree has been printed it can be
+     * reprinted with a single lookup. Printing a tree that was changed then only renders the path from the root
+     * to the change; unchanged class and method declarations on either side of it are copied from the memo.
+     * <p>
+     * Memoization trades memory for time. The printed output of every tree printed directly and of every class
+     * and method declaration printed on the way is held by the memo until the tree itself becomes unreachable,
+     * or the memo does. It only applies to this printer itself when printing with {@link TreePrinter#identity()}.
+     *
+     * @param treePrinter The tree printer.
+     * @param memo        The memo to share printed output through, e.g. with later printers of the same trees,
+     *                    or <code>null</code> to not memoize.
+     */
+    @Incubating(since = "7.0.0")
+    public JavaPrinter(TreePrinter<P> treePrinter, @Nullable Memo memo) {
         this.treePrinter = treePrinter;
+        this.memo = memo;
         setCursoringOn();
     }
 
+    /**
+     * Printed output of trees by identity, shared by the printers it is given to. Trees compare equal by id, and
+     * an edited copy keeps its original's id, so trees are held weakly and compared by identity instead.
+     */
+    @Incubating(since = "7.0.0")
+    public static class Memo {
+        private final WeakIdentityMap<J, String> printed = new WeakIdentityMap<>();
+        private final LongAdder hits = new LongAdder();
+
+        @Nullable
+        String get(J j) {
+            String print = printed.get(j);
+            if (print != null) {
+                hits.increment();
+            }
+            return print;
+        }
+
+        void put(J j, String print) {
+            printed.put(j, print);
+        }
+
+        /**
+         * @return The number of times printed output has been reused.
+         */
+        public long getHits() {
+            return hits.sum();
+        }
+    }
+
+    private boolean isMemoizing() {
+        return memo != null && treePrinter == TreePrinter.identity() && getClass() == JavaPrinter.class;
+    }
+
     @NonNull
     protected StringBuilder getPrinter() {
-        StringBuilder acc = getCursor().getRoot().getNearestMessage(PRINTER_ACC_KEY);
-        if (acc == null) {
-            acc = new StringBuilder();
-            getCursor().getRoot().putMessage(PRINTER_ACC_KEY, acc);
+        if (accumulator == null) {
+            accumulator = new PrinterAccumulator();
         }
-        return acc;
+        return accumulator.getBuffer();
     }
 
     public String print(J j, P p) {
-        setCursor(new Cursor(null, "EPSILON"));
-        visit(j, p);
-        return getPrinter().toString();
+        boolean memoizing = isMemoizing();
+        if (memoizing) {
+            String memoized = memo.get(j);
+            if (memoized != null) {
+                return memoized;
+            }
+        }
+
+        PrinterAccumulator enclosing = accumulator;
+        try {
+            accumulator = new PrinterAccumulator();
+            setCursor(new Cursor(null, "EPSILON"));
+            visit(j, p);
+            String print = accumulator.getBuffer().toString();
+            if (memoizing) {
+                memo.put(j, print);
+            }
+            return print;
+        } finally {
+            accumulator = enclosing;
+        }
+    }
+
+    /**
+     * Print to a sink, periodically draining the printed output into it rather than building the whole
+     * output as one string.
+     *
+     * @param j The tree to print.
+     * @param p Visit context.
+     * @param out The sink to print to. It is neither flushed nor closed.
+     */
+    public void print(J j, P p, Appendable out) {
+        if (isMemoizing()) {
+            String memoized = memo.get(j);
+            if (memoized != null) {
+                try {
+                    out.append(memoized);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return;
+            }
+        }
+
+        PrinterAccumulator enclosing = accumulator;
+        try {
+            accumulator = new PrinterAccumulator(out, treePrinter);
+            setCursor(new Cursor(null, "EPSILON"));
+            visit(j, p);
+            accumulator.flush();
+        } finally {
+            accumulator = enclosing;
+        }
     }
 
     @Override
@@ -61,14 +172,35 @@ public class JavaPrinter<P> extends JavaVisitor<P> {
         }
 
         StringBuilder printerAcc = getPrinter();
+        if ((tree instanceof J.ClassDeclaration || tree instanceof J.MethodDeclaration) && isMemoizing()) {
+            return visitMemoized((J) tree, p);
+        }
+
         treePrinter.doBefore(tree, printerAcc, p);
         tree = super.visit(tree, p);
         if (tree != null) {
             treePrinter.doAfter(tree, printerAcc, p);
         }
+        accumulator.flushIfFull();
         return (J) tree;
     }
 
+    private J visitMemoized(J tree, P p) {
+        String memoized = memo.get(tree);
+        if (memoized != null) {
+            accumulator.getBuffer().append(memoized);
+        } else {
+            long start = accumulator.getPosition();
+            super.visit(tree, p);
+            String print = accumulator.printedSince(start);
+            if (print != null) {
+                memo.put(tree, print);
+            }
+        }
+        accumulator.flushIfFull();
+        return tree;
+    }
+
     protected void visit(@Nullable List<? extends J> nodes, P p) {
         if (nodes != null) {
             for (J node : nodes) {
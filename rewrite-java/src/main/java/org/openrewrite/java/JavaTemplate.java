@@ -19,10 +19,14 @@ import org.openrewrite.Cursor;
 import org.openrewrite.Incubating;
 import org.openrewrite.Tree;
 import org.openrewrite.internal.StringUtils;
+import org.openrewrite.internal.lang.Nullable;
 import org.openrewrite.java.format.AutoFormatVisitor;
 import org.openrewrite.java.internal.template.ExtractTrees;
 import org.openrewrite.java.internal.template.InsertAtCoordinates;
+import org.openrewrite.java.internal.template.JavaParserPool;
 import org.openrewrite.java.internal.template.JavaTemplatePrinter;
+import org.openrewrite.java.internal.template.ScopeSignature;
+import org.openrewrite.java.internal.template.SnippetCache;
 import org.openrewrite.java.tree.J;
 import org.openrewrite.java.tree.JLeftPadded;
 import org.openrewrite.java.tree.JRightPadded;
@@ -41,24 +45,34 @@ import java.util.function.Supplier;
 @Incubating(since = "7.0.0")
 public class JavaTemplate {
     private final Supplier<Cursor> parentScopeGetter;
+
+    /**
+     * When null, templates are compiled with a parser borrowed from the {@link JavaParserPool}.
+     */
+    @Nullable
     private final JavaParser parser;
+
+    private final SnippetCache snippetCache;
     private final String code;
     private final int parameterCount;
     private final Set<String> imports;
     private final String parameterMarker;
     private final Consumer<String> onAfterVariableSubstitution;
     private final Consumer<String> onBeforeParseTemplate;
+    private final boolean minimalStub;
 
-    private JavaTemplate(Supplier<Cursor> parentScopeGetter, JavaParser parser, String code, Set<String> imports,
+    private JavaTemplate(Supplier<Cursor> parentScopeGetter, @Nullable JavaParser parser, String code, Set<String> imports,
                          String parameterMarker, Consumer<String> onAfterVariableSubstitution,
-                         Consumer<String> onBeforeParseTemplate) {
+                         Consumer<String> onBeforeParseTemplate, boolean minimalStub) {
         this.parentScopeGetter = parentScopeGetter;
         this.parser = parser;
+        this.snippetCache = parser == null ? SnippetCache.shared() : new SnippetCache();
         this.code = code;
         this.imports = imports;
         this.parameterMarker = parameterMarker;
         this.onAfterVariableSubstitution = onAfterVariableSubstitution;
         this.onBeforeParseTemplate = onBeforeParseTemplate;
+        this.minimalStub = minimalStub;
         this.parameterCount = StringUtils.countOccurrences(code, parameterMarker);
     }
 
@@ -92,17 +106,27 @@ public class JavaTemplate {
         //coordinates are found.
         Cursor insertionScope = JavaTemplatePrinter.findCoordinateCursor(parentScope, changing, coordinates);
 
-        String generatedSource = new JavaTemplatePrinter(substitutedTemplate, changing, coordinates, imports)
-                .print(cu, insertionScope);
-        onBeforeParseTemplate.accept(generatedSource);
+        //A template applied to places that see the same declarations compiles to the same snippets, which are then
+        //copied from the cache rather than compiled again.
+        String snippetKey = substitutedTemplate + '\n' + imports + '\n' +
+                ScopeSignature.of(changing, insertionScope, coordinates);
+        List<J> generatedElements = snippetCache.get(snippetKey);
+        if (generatedElements == null) {
+            String generatedSource = new JavaTemplatePrinter(substitutedTemplate, changing, coordinates, imports, minimalStub)
+                    .print(cu, insertionScope);
+            onBeforeParseTemplate.accept(generatedSource);
 
-        parser.reset();
-        J.CompilationUnit synthetic = parser.parse(generatedSource).iterator().next();
+            J.CompilationUnit synthetic = parser == null ?
+                    JavaParserPool.withParser(p -> p.parse(generatedSource).iterator().next()) :
+                    parser.reset().parse(generatedSource).iterator().next();
+            generatedElements = ExtractTrees.extract(synthetic);
+            snippetCache.put(snippetKey, generatedElements);
+        }
 
-        List<J> generatedElements = ExtractTrees.extract(synthetic);
+        AutoFormatVisitor<Integer> autoFormat = new AutoFormatVisitor<>();
         for (int i = 0; i < generatedElements.size(); i++) {
             J snippet = generatedElements.get(i);
-            generatedElements.set(i, new AutoFormatVisitor<Integer>().visit(snippet, 0, parentScope));
+            generatedElements.set(i, autoFormat.visit(snippet, 0, parentScope));
         }
 
         //noinspection unchecked,ConstantConditions
@@ -142,12 +166,13 @@ public class JavaTemplate {
         private final String code;
         private final Set<String> imports = new HashSet<>();
 
-        private JavaParser javaParser = JavaParser.fromJavaVersion()
-                .logCompilationWarningsAndErrors(false)
-                .build();
+        @Nullable
+        private JavaParser javaParser;
 
         private String parameterMarker = "#{}";
 
+        private boolean minimalStub;
+
         private Consumer<String> onAfterVariableSubstitution = s -> {
         };
         private Consumer<String> onBeforeParseTemplate = s -> {
@@ -202,6 +227,10 @@ public class JavaTemplate {
             return this;
         }
 
+        /**
+         * A parser to compile this template with. If not specified, templates are compiled with parsers that are
+         * shared by all templates, which is much cheaper than a new parser for every template.
+         */
         public Builder javaParser(JavaParser javaParser) {
             this.javaParser = javaParser;
             return this;
@@ -216,6 +245,21 @@ public class JavaTemplate {
             return this;
         }
 
+        /**
+         * Whether the template is compiled in a minimal stub of the enclosing compilation unit, which leaves out
+         * its comments and the statements before the insertion point that declare no variable or type. Disabled
+         * by default.
+         * <p>
+         * This is not a skeleton of member signatures: the class declarations, fields and method signatures of the
+         * compilation unit, and the declarations in scope of the insertion point, are printed as they would be
+         * otherwise. The synthetic source, and the time to compile it, is only smaller when the enclosing method has
+         * many statements or the compilation unit has many comments.
+         */
+        public Builder minimalStub(boolean minimalStub) {
+            this.minimalStub = minimalStub;
+            return this;
+        }
+
         public Builder doAfterVariableSubstitution(Consumer<String> afterVariableSubstitution) {
             this.onAfterVariableSubstitution = afterVariableSubstitution;
             return this;
@@ -228,7 +272,7 @@ public class JavaTemplate {
 
         public JavaTemplate build() {
             return new JavaTemplate(parentScope, javaParser, code, imports, parameterMarker,
-                    onAfterVariableSubstitution, onBeforeParseTemplate);
+                    onAfterVariableSubstitution, onBeforeParseTemplate, minimalStub);
         }
     }
 }
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2020 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java;
+
+import org.openrewrite.Incubating;
+import org.openrewrite.internal.lang.Nullable;
+import org.openrewrite.java.tree.JavaType;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The class types a {@link JavaParser} has built for types on its classpath and in the JDK, by fully qualified
+ * name, so that they are built once rather than again for each set of source files parsed.
+ * <p>
+ * Each parser has its own cache unless one is given to {@link JavaParser.Builder#typeCache(JavaTypeCache)}, and a
+ * cache may be shared by any number of parsers, on any number of threads, as long as their classpaths agree on the
+ * version of every library they have in common. The types of source files are never cached here, since they can
+ * change from one parse to the next, and are instead forgotten when the parser is {@link JavaParser#reset() reset}.
+ */
+@Incubating(since = "7.0.0")
+public class JavaTypeCache {
+    private final Map<String, JavaType.Class> classTypes = new ConcurrentHashMap<>();
+
+    @Nullable
+    public JavaType.Class get(String fullyQualifiedName) {
+        return classTypes.get(fullyQualifiedName);
+    }
+
+    public void put(String fullyQualifiedName, JavaType.Class classType) {
+        classTypes.put(fullyQualifiedName, classType);
+    }
+
+    /**
+     * @return The number of class types in the cache.
+     */
+    public int size() {
+        return classTypes.size();
+    }
+
+    /**
+     * Forget every class type, e.g. once the libraries they were built from are no longer being parsed against.
+     */
+    public void clear() {
+        classTypes.clear();
+    }
+}
@@ -21,10 +21,13 @@ import org.openrewrite.Tree;
 import org.openrewrite.TreeVisitor;
 import org.openrewrite.internal.ListUtils;
 import org.openrewrite.internal.lang.Nullable;
+import org.openrewrite.java.format.AutoFormatChangesVisitor;
 import org.openrewrite.java.format.AutoFormatVisitor;
 import org.openrewrite.java.tree.*;
 import org.openrewrite.marker.Markers;
 
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Objects;
@@ -36,6 +39,21 @@ public class JavaVisitor<P> extends TreeVisitor<J, P> {
         return JavaTemplate.builder(this::getCursor, code);
     }
 
+    @Incubating(since = "7.0.0")
+    @Nullable
+    @Override
+    public TreeVisitor<J, P> fuse(List<TreeVisitor<J, P>> others, BitSet changed) {
+        List<TreeVisitor<J, P>> visitors = new ArrayList<>(others.size() + 1);
+        visitors.add(this);
+        for (TreeVisitor<J, P> other : others) {
+            if (!(other instanceof JavaVisitor)) {
+                return null;
+            }
+            visitors.add(other);
+        }
+        return new FusedJavaVisitor<>(visitors, changed);
+    }
+
     /**
      * This method will add an import to the compilation unit if there is a reference to the type. It adds an additional
      * visitor which means the "add import" is deferred and does not complete immediately. This operation is idempotent
@@ -61,6 +79,20 @@ public class JavaVisitor<P> extends TreeVisitor<J, P> {
         return after;
     }
 
+    /**
+     * Like {@link #maybeAutoFormat(J, J, Object, Cursor)}, but only formats the parts of the tree that differ
+     * between before and after, leaving the formatting of everything else as it was.
+     */
+    @Incubating(since = "7.0.0")
+    @SuppressWarnings({"unchecked", "ConstantConditions"})
+    public <J2 extends J> J2 maybeAutoFormatChanges(J2 before, J2 after, P p, Cursor cursor) {
+        if (before != after) {
+            return (J2) new AutoFormatChangesVisitor<>(AutoFormatChangesVisitor.changedTrees(before, after))
+                    .visit(after, p, cursor);
+        }
+        return after;
+    }
+
     public <J2 extends J> J2 autoFormat(J2 j, P p) {
         return autoFormat(j, p, getCursor());
     }
@@ -15,11 +15,14 @@
  */
 package org.openrewrite.java;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import org.antlr.v4.runtime.CharStreams;
 import org.antlr.v4.runtime.CommonTokenStream;
 import org.antlr.v4.runtime.tree.TerminalNode;
+import org.openrewrite.Incubating;
+import org.openrewrite.internal.WeakIdentityMap;
 import org.openrewrite.internal.lang.Nullable;
 import org.openrewrite.java.internal.grammar.AspectJLexer;
 import org.openrewrite.java.internal.grammar.RefactorMethodSignatureParser;
@@ -27,15 +30,18 @@ import org.openrewrite.java.internal.grammar.RefactorMethodSignatureParserBaseVi
 import org.openrewrite.java.tree.Expression;
 import org.openrewrite.java.tree.J;
 import org.openrewrite.java.tree.JavaType;
+import org.openrewrite.java.tree.Statement;
 import org.openrewrite.java.tree.TypeUtils;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Objects;
-import java.util.Optional;
+import java.util.Map;
+import java.util.Set;
 import java.util.regex.Pattern;
 
 import static java.util.stream.Collectors.joining;
+import static java.util.stream.Collectors.toList;
 
 /**
  * This class accepts an AspectJ pointcut expression and is used to identify methods that match the expression. The
@@ -59,29 +65,48 @@ import static java.util.stream.Collectors.joining;
  * my.org.MyClass *(boolean, ..)           - All method invocations where the first arg is a boolean in my.org.MyClass
  * </PRE>
  */
-@SuppressWarnings("NotNullFieldNotInitialized")
 @Getter
 public class MethodMatcher {
-    private Pattern targetTypePattern;
-    private Pattern methodNamePattern;
-    private Pattern argumentPattern;
+    private static final int MAX_COMPILED_SIGNATURES = 1024;
+
+    /**
+     * Compiled signatures by method signature, so that a signature used over and over is only parsed once. The least
+     * recently used are evicted, so that a long running process matching many ad hoc signatures doesn't keep them all.
+     */
+    private static final Map<String, CompiledSignature> compiledSignatures =
+            new LinkedHashMap<String, CompiledSignature>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, CompiledSignature> eldest) {
+                    return size() > MAX_COMPILED_SIGNATURES;
+                }
+            };
+
+    private final Pattern targetTypePattern;
+    private final Pattern methodNamePattern;
+    private final Pattern argumentPattern;
+
+    @Getter(AccessLevel.NONE)
+    private final CompiledSignature compiled;
 
     public MethodMatcher(String signature) {
-        RefactorMethodSignatureParser parser = new RefactorMethodSignatureParser(new CommonTokenStream(new AspectJLexer(
-                CharStreams.fromString(signature))));
+        this.compiled = compile(signature);
+        this.targetTypePattern = compiled.targetTypePattern;
+        this.methodNamePattern = compiled.methodNamePattern;
+        this.argumentPattern = compiled.argumentPattern;
+    }
 
-        new RefactorMethodSignatureParserBaseVisitor<Void>() {
-            @Override
-            public Void visitMethodPattern(RefactorMethodSignatureParser.MethodPatternContext ctx) {
-                targetTypePattern = Pattern.compile(new TypeVisitor().visitTargetTypePattern(ctx.targetTypePattern()));
-                methodNamePattern = Pattern.compile(ctx.simpleNamePattern().children.stream()
-                        .map(c -> AspectjUtils.aspectjNameToPattern(c.toString()))
-                        .collect(joining("")));
-                argumentPattern = Pattern.compile(new FormalParameterVisitor().visitFormalParametersPattern(
-                        ctx.formalParametersPattern()));
-                return null;
+    private static CompiledSignature compile(String signature) {
+        CompiledSignature compiled;
+        synchronized (compiledSignatures) {
+            compiled = compiledSignatures.get(signature);
+        }
+        if (compiled == null) {
+            compiled = new CompiledSignature(signature);
+            synchronized (compiledSignatures) {
+                compiledSignatures.put(signature, compiled);
             }
-        }.visit(parser.methodPattern());
+        }
+        return compiled;
     }
 
     public boolean matches(J.MethodDeclaration method, J.ClassDeclaration enclosing) {
@@ -89,78 +114,152 @@ public class MethodMatcher {
             return false;
         }
 
-        String signaturePattern = method.getParameters().stream()
-                .map(v -> {
-                    if (v instanceof J.VariableDeclarations) {
-                        J.VariableDeclarations vd = (J.VariableDeclarations) v;
-                        if (vd.getTypeAsClass() != null) {
-                            return vd.getTypeAsClass();
-                        } else {
-                            return vd.getTypeExpression() != null ? vd.getTypeExpression().getType() : null;
-                        }
-                    } else {
-                        return null;
-                    }
-                })
-                .filter(Objects::nonNull)
-                .map(this::typePattern)
-                .filter(Objects::nonNull)
-                .collect(joining(","));
+        List<JavaType> parameterTypes = new ArrayList<>(method.getParameters().size());
+        for (Statement parameter : method.getParameters()) {
+            if (parameter instanceof J.VariableDeclarations) {
+                J.VariableDeclarations vd = (J.VariableDeclarations) parameter;
+                JavaType type = vd.getTypeAsClass() != null ? vd.getTypeAsClass() :
+                        vd.getTypeExpression() != null ? vd.getTypeExpression().getType() : null;
+                if (type != null) {
+                    parameterTypes.add(type);
+                }
+            }
+        }
 
         return matchesTargetType(TypeUtils.asClass(enclosing.getType())) &&
-                methodNamePattern.matcher(method.getSimpleName()).matches() &&
-                argumentPattern.matcher(signaturePattern).matches();
+                compiled.methodName.matches(method.getSimpleName()) &&
+                compiled.matchesArguments(parameterTypes);
     }
 
     public boolean matches(J.MethodInvocation method) {
-        if (method.getType() == null || method.getType().getDeclaringType() == null) {
+        JavaType.Method type = method.getType();
+        if (type == null || type.getDeclaringType() == null) {
             return false;
         }
 
-        if (method.getType().getResolvedSignature() == null) {
+        if (type.getResolvedSignature() == null) {
             // no way to verify the parameter list
             return false;
         }
 
-        String resolvedSignaturePattern = method.getType().getResolvedSignature().getParamTypes().stream()
-                .map(this::typePattern)
-                .filter(Objects::nonNull)
-                .collect(joining(","));
+        return matches(type, method.getSimpleName());
+    }
+
+    /**
+     * @param type The type of a method invocation.
+     * @return Whether an invocation of a method of this type matches. This is the same as matching an invocation,
+     * for all but the invocations of constructors by {@code this(..)} and {@code super(..)}.
+     */
+    @Incubating(since = "7.0.0")
+    public boolean matches(@Nullable JavaType.Method type) {
+        return type != null && type.getDeclaringType() != null && type.getResolvedSignature() != null &&
+                matches(type, type.getName());
+    }
+
+    private boolean matches(JavaType.Method type, String simpleName) {
+        if (!compiled.methodName.matches(simpleName)) {
+            return false;
+        }
+
+        // method types are immutable and shared between all invocations of the same method
+        Boolean matches = compiled.matchesByMethodType.get(type);
+        if (matches == null) {
+            matches = matchesTargetType(type.getDeclaringType()) &&
+                    compiled.matchesArguments(type.getResolvedSignature().getParamTypes());
+            compiled.matchesByMethodType.put(type, matches);
+        }
+        return matches;
+    }
+
+    /**
+     * The method invocations of a compilation unit are gathered once, in a single pass that is shared by all
+     * matchers, so recipes can use this to skip compilation units that they would make no changes to without
+     * visiting them.
+     *
+     * @param cu A compilation unit.
+     * @return Whether any method invocation in the compilation unit matches.
+     */
+    @Incubating(since = "7.0.0")
+    public boolean matchesAnyInvocation(J.CompilationUnit cu) {
+        Map<String, Set<JavaType.Method>> invocations = MethodUsages.of(cu).getInvocations();
+        String methodName = compiled.methodName.getLiteral();
+        if (methodName != null) {
+            return matchesAny(invocations.get(methodName), methodName);
+        }
+
+        for (Map.Entry<String, Set<JavaType.Method>> invocationsByName : invocations.entrySet()) {
+            if (matchesAny(invocationsByName.getValue(), invocationsByName.getKey())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean matchesAny(@Nullable Set<JavaType.Method> types, String simpleName) {
+        if (types != null) {
+            for (JavaType.Method type : types) {
+                if (matches(type, simpleName)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Like {@link #matchesAnyInvocation(J.CompilationUnit)}, this is answered from a single shared pass over the
+     * compilation unit. It only compares method names, so it may be true even when nothing else matches.
+     *
+     * @param cu A compilation unit.
+     * @return Whether the name of any method invoked, declared or statically imported by the compilation unit
+     * (or of any field it accesses) matches the method name pattern.
+     */
+    @Incubating(since = "7.0.0")
+    public boolean matchesAnyMethodName(J.CompilationUnit cu) {
+        Set<String> methodNames = MethodUsages.of(cu).getMethodNames();
+        String methodName = compiled.methodName.getLiteral();
+        if (methodName != null) {
+            return methodNames.contains(methodName);
+        }
 
-        return matchesTargetType(method.getType().getDeclaringType()) &&
-                methodNamePattern.matcher(method.getSimpleName()).matches() &&
-                argumentPattern.matcher(resolvedSignaturePattern).matches();
+        for (String name : methodNames) {
+            if (compiled.methodName.matches(name)) {
+                return true;
+            }
+        }
+        return false;
     }
 
     public boolean matches(J.NewClass constructor) {
         if (constructor.getType() == null) {
             return false;
         }
-        String signaturePattern = Optional.ofNullable(constructor.getArguments())
-                .map(args -> args.getElements().stream()
-                        .map(Expression::getType)
-                        .filter(Objects::nonNull)
-                        .map(this::typePattern)
-                        .filter(Objects::nonNull)
-                        .collect(joining(","))
-                ).orElse("");
+
+        List<JavaType> argumentTypes = new ArrayList<>();
+        if (constructor.getArguments() != null) {
+            for (Expression argument : constructor.getArguments().getElements()) {
+                if (argument.getType() != null) {
+                    argumentTypes.add(argument.getType());
+                }
+            }
+        }
 
         JavaType.Class type = TypeUtils.asClass(constructor.getType());
         assert type != null;
         return matchesTargetType(type) &&
-                methodNamePattern.matcher(type.getClassName()).matches() &&
-                argumentPattern.matcher(signaturePattern).matches();
+                compiled.methodName.matches(type.getClassName()) &&
+                compiled.matchesArguments(argumentTypes);
     }
 
     boolean matchesTargetType(@Nullable JavaType.FullyQualified type) {
         JavaType.Class asClass = TypeUtils.asClass(type);
-        return type != null && (targetTypePattern.matcher(type.getFullyQualifiedName()).matches() ||
+        return type != null && (compiled.targetType.matches(type.getFullyQualifiedName()) ||
                 type != JavaType.Class.OBJECT &&
                         (asClass == null || matchesTargetType(asClass.getSupertype() == null ? JavaType.Class.OBJECT : asClass.getSupertype())));
     }
 
     @Nullable
-    private String typePattern(JavaType type) {
+    private static String typePattern(JavaType type) {
         if (type instanceof JavaType.Primitive) {
             return ((JavaType.Primitive) type).getKeyword();
         } else if (type instanceof JavaType.Class) {
@@ -173,6 +272,263 @@ public class MethodMatcher {
         }
         return null;
     }
+
+    /**
+     * A method pattern compiled into matchers that compare names and types directly, without building strings
+     * to run regular expressions against.
+     */
+    private static class CompiledSignature {
+        private Pattern targetTypePattern;
+        private Pattern methodNamePattern;
+        private Pattern argumentPattern;
+
+        private NamePattern targetType;
+        private NamePattern methodName;
+        private List<NamePattern> formalTypes;
+
+        /**
+         * The position of ".." among the formal parameters, or -1 if there is none.
+         */
+        private int dotDotIndex;
+
+        private final WeakIdentityMap<JavaType.Method, Boolean> matchesByMethodType = new WeakIdentityMap<>();
+
+        @SuppressWarnings("NotNullFieldNotInitialized")
+        private CompiledSignature(String signature) {
+            RefactorMethodSignatureParser parser = new RefactorMethodSignatureParser(new CommonTokenStream(new AspectJLexer(
+                    CharStreams.fromString(signature))));
+
+            new RefactorMethodSignatureParserBaseVisitor<Void>() {
+                @Override
+                public Void visitMethodPattern(RefactorMethodSignatureParser.MethodPatternContext ctx) {
+                    String targetTypeRegex = new TypeVisitor().visitTargetTypePattern(ctx.targetTypePattern());
+                    targetTypePattern = Pattern.compile(targetTypeRegex);
+                    targetType = NamePattern.compile(targetTypeRegex);
+
+                    String methodNameRegex = ctx.simpleNamePattern().children.stream()
+                            .map(c -> AspectjUtils.aspectjNameToPattern(c.toString()))
+                            .collect(joining(""));
+                    methodNamePattern = Pattern.compile(methodNameRegex);
+                    methodName = NamePattern.compile(methodNameRegex);
+
+                    FormalParameterVisitor formalParameters = new FormalParameterVisitor();
+                    argumentPattern = Pattern.compile(formalParameters.visitFormalParametersPattern(
+                            ctx.formalParametersPattern()));
+                    formalTypes = formalParameters.getFormalTypeRegexes().stream()
+                            .map(NamePattern::compile)
+                            .collect(toList());
+                    dotDotIndex = formalParameters.getDotDotIndex();
+                    return null;
+                }
+            }.visit(parser.methodPattern());
+        }
+
+        /**
+         * Types that can't be expressed in a method pattern (e.g. generic type variables) are skipped.
+         */
+        private boolean matchesArguments(List<JavaType> types) {
+            List<JavaType> argumentTypes = types;
+            for (JavaType type : types) {
+                if (!isArgumentType(type)) {
+                    argumentTypes = new ArrayList<>(types.size());
+                    for (JavaType t : types) {
+                        if (isArgumentType(t)) {
+                            argumentTypes.add(t);
+                        }
+                    }
+                    break;
+                }
+            }
+
+            int formals = formalTypes.size();
+            int arguments = argumentTypes.size();
+            if (dotDotIndex == -1 ? arguments != formals : arguments < formals) {
+                return false;
+            }
+
+            for (int i = 0; i < formals; i++) {
+                // formal types after ".." are matched against the trailing arguments
+                int argument = dotDotIndex == -1 || i < dotDotIndex ? i : arguments - formals + i;
+                if (!formalTypes.get(i).matches(argumentTypes.get(argument))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static boolean isArgumentType(JavaType type) {
+            return type instanceof JavaType.Primitive ||
+                    type instanceof JavaType.Class ||
+                    (type instanceof JavaType.Array && ((JavaType.Array) type).getElemType() != null);
+        }
+    }
+
+    /**
+     * Matches names against the subset of regular expressions that {@link AspectjUtils#aspectjNameToPattern(String)}
+     * produces, without going through {@link java.util.regex}. Anything else falls back to a compiled {@link Pattern}.
+     */
+    private static class NamePattern {
+        private static final String STAR_REGEX = "[^.]*";
+        private static final String DOT_DOT_REGEX = "\\.(.+\\.)?";
+
+        private static final byte LITERAL = 0;
+        private static final byte ANY_CHARACTER = 1;
+        private static final byte STAR = 2;
+        private static final byte DOT_DOT = 3;
+
+        private final byte[] kinds;
+
+        /**
+         * The text of each {@link #LITERAL} segment, null for wildcard segments.
+         */
+        private final String[] literals;
+
+        @Nullable
+        private final Pattern fallback;
+
+        /**
+         * The one name this pattern matches, if it has no wildcards.
+         */
+        @Nullable
+        private final String literal;
+
+        private NamePattern(byte[] kinds, String[] literals, @Nullable Pattern fallback) {
+            this.kinds = kinds;
+            this.literals = literals;
+            this.fallback = fallback;
+
+            StringBuilder name = new StringBuilder();
+            for (int i = 0; i < kinds.length && name != null; i++) {
+                if (kinds[i] == LITERAL) {
+                    name.append(literals[i]);
+                } else if (kinds[i] == ANY_CHARACTER) {
+                    // only ever produced for the '.' separating the parts of a name
+                    name.append('.');
+                } else {
+                    name = null;
+                }
+            }
+            this.literal = fallback == null && name != null ? name.toString() : null;
+        }
+
+        @Nullable
+        String getLiteral() {
+            return literal;
+        }
+
+        static NamePattern compile(String regex) {
+            List<Byte> kinds = new ArrayList<>();
+            List<String> literals = new ArrayList<>();
+            StringBuilder literal = new StringBuilder();
+
+            for (int i = 0; i < regex.length(); ) {
+                char c = regex.charAt(i);
+                byte wildcard;
+                if (regex.startsWith(DOT_DOT_REGEX, i)) {
+                    wildcard = DOT_DOT;
+                    i += DOT_DOT_REGEX.length();
+                } else if (regex.startsWith(STAR_REGEX, i)) {
+                    wildcard = STAR;
+                    i += STAR_REGEX.length();
+                } else if (c == '.') {
+                    // an unescaped '.' in a type name pattern matches any character
+                    wildcard = ANY_CHARACTER;
+                    i++;
+                } else if (c == '\\' && i + 1 < regex.length() &&
+                        (regex.charAt(i + 1) == '[' || regex.charAt(i + 1) == ']')) {
+                    literal.append(regex.charAt(i + 1));
+                    i += 2;
+                    continue;
+                } else if (Character.isJavaIdentifierPart(c) && c != '$') {
+                    literal.append(c);
+                    i++;
+                    continue;
+                } else {
+                    return new NamePattern(new byte[0], new String[0], Pattern.compile(regex));
+                }
+
+                if (literal.length() > 0) {
+                    kinds.add(LITERAL);
+                    literals.add(literal.toString());
+                    literal.setLength(0);
+                }
+                kinds.add(wildcard);
+                literals.add(null);
+            }
+
+            if (literal.length() > 0) {
+                kinds.add(LITERAL);
+                literals.add(literal.toString());
+            }
+
+            byte[] kindArray = new byte[kinds.size()];
+            for (int i = 0; i < kindArray.length; i++) {
+                kindArray[i] = kinds.get(i);
+            }
+            return new NamePattern(kindArray, literals.toArray(new String[0]), null);
+        }
+
+        boolean matches(JavaType type) {
+            if (type instanceof JavaType.Primitive) {
+                return matches(((JavaType.Primitive) type).getKeyword());
+            } else if (type instanceof JavaType.Class) {
+                return matches(((JavaType.Class) type).getFullyQualifiedName());
+            }
+            String typePattern = typePattern(type);
+            return typePattern != null && matches(typePattern);
+        }
+
+        boolean matches(String name) {
+            return fallback == null ? matches(name, 0, 0) : fallback.matcher(name).matches();
+        }
+
+        private boolean matches(String name, int from, int segment) {
+            int i = from;
+            for (; segment < kinds.length; segment++) {
+                switch (kinds[segment]) {
+                    case LITERAL:
+                        String literal = literals[segment];
+                        if (!name.startsWith(literal, i)) {
+                            return false;
+                        }
+                        i += literal.length();
+                        break;
+                    case ANY_CHARACTER:
+                        if (i >= name.length()) {
+                            return false;
+                        }
+                        i++;
+                        break;
+                    case STAR:
+                        // any run of characters up to the next '.'
+                        for (int end = i; ; end++) {
+                            if (matches(name, end, segment + 1)) {
+                                return true;
+                            }
+                            if (end >= name.length() || name.charAt(end) == '.') {
+                                return false;
+                            }
+                        }
+                    case DOT_DOT:
+                    default:
+                        // a single '.', or any run of characters that starts and ends with a '.'
+                        if (i >= name.length() || name.charAt(i) != '.') {
+                            return false;
+                        }
+                        if (matches(name, i + 1, segment + 1)) {
+                            return true;
+                        }
+                        for (int end = i + 2; end < name.length(); end++) {
+                            if (name.charAt(end) == '.' && matches(name, end + 1, segment + 1)) {
+                                return true;
+                            }
+                        }
+                        return false;
+                }
+            }
+            return i == name.length();
+        }
+    }
 }
 
 class TypeVisitor extends RefactorMethodSignatureParserBaseVisitor<String> {
@@ -261,6 +617,23 @@ class FormalParameterVisitor extends RefactorMethodSignatureParserBaseVisitor<St
         return String.join("", argumentPatterns).replace("...", "\\[\\]");
     }
 
+    /**
+     * @return The patterns of the formal parameter types in order, leaving out "..".
+     */
+    List<String> getFormalTypeRegexes() {
+        List<String> regexes = new ArrayList<>(arguments.size());
+        for (Argument argument : arguments) {
+            if (argument != Argument.DOT_DOT) {
+                regexes.add(argument.getRegex());
+            }
+        }
+        return regexes;
+    }
+
+    int getDotDotIndex() {
+        return arguments.indexOf(Argument.DOT_DOT);
+    }
+
     private static abstract class Argument {
         abstract String getRegex();
 
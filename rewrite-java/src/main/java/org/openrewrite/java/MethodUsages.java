@@ -0,0 +1,82 @@
+/*
+ * Copyright 2020 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java;
+
+import lombok.Getter;
+import org.openrewrite.internal.WeakIdentityMap;
+import org.openrewrite.java.tree.J;
+import org.openrewrite.java.tree.JavaType;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The methods a compilation unit refers to, gathered in a single pass over it that is shared by every
+ * {@link MethodMatcher} asking about the same compilation unit.
+ */
+@Getter
+final class MethodUsages {
+    private static final WeakIdentityMap<J.CompilationUnit, MethodUsages> usages = new WeakIdentityMap<>();
+
+    /**
+     * The types of the methods that are invoked, by the name they are invoked with.
+     */
+    private final Map<String, Set<JavaType.Method>> invocations = new HashMap<>();
+
+    /**
+     * The names of the methods that are invoked or declared, and the names of all field accesses, which include
+     * the methods that are statically imported.
+     */
+    private final Set<String> methodNames = new HashSet<>();
+
+    private MethodUsages() {
+    }
+
+    static MethodUsages of(J.CompilationUnit cu) {
+        MethodUsages methodUsages = usages.get(cu);
+        if (methodUsages == null) {
+            methodUsages = new MethodUsages();
+            new JavaIsoVisitor<MethodUsages>() {
+                @Override
+                public J.MethodInvocation visitMethodInvocation(J.MethodInvocation method, MethodUsages u) {
+                    u.methodNames.add(method.getSimpleName());
+                    JavaType.Method type = method.getType();
+                    if (type != null && type.getDeclaringType() != null && type.getResolvedSignature() != null) {
+                        u.invocations.computeIfAbsent(method.getSimpleName(), n -> new HashSet<>()).add(type);
+                    }
+                    return super.visitMethodInvocation(method, u);
+                }
+
+                @Override
+                public J.MethodDeclaration visitMethodDeclaration(J.MethodDeclaration method, MethodUsages u) {
+                    u.methodNames.add(method.getSimpleName());
+                    return super.visitMethodDeclaration(method, u);
+                }
+
+                @Override
+                public J.FieldAccess visitFieldAccess(J.FieldAccess fieldAccess, MethodUsages u) {
+                    // static imports refer to methods by field access
+                    u.methodNames.add(fieldAccess.getSimpleName());
+                    return super.visitFieldAccess(fieldAccess, u);
+                }
+            }.visit(cu, methodUsages);
+            usages.put(cu, methodUsages);
+        }
+        return methodUsages;
+    }
+}
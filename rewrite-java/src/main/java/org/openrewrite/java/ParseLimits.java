@@ -0,0 +1,189 @@
+/*
+ * Copyright 2020 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java;
+
+import org.openrewrite.Incubating;
+import org.openrewrite.Parser;
+import org.openrewrite.internal.lang.Nullable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.time.Duration;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Limits on the cost of parsing any one source file, so that a few giant or generated source files, like parsers
+ * generated by ANTLR or the output of the protocol buffer compiler, don't dominate the time and memory it takes to
+ * parse a whole batch.
+ * <p>
+ * Source files over the size limits, or recognized as generated, are skipped before the compiler ever sees them,
+ * and are reported to {@link Parser.Listener#onParseFailed(Path, String)} with the reason. Since they are never
+ * compiled, references to the types they declare from other source files in the batch are left without types.
+ * Source files whose mapping to a Rewrite AST runs over the {@link #getMappingTimeout() mapping timeout} are
+ * reported the same way, without an AST.
+ */
+@Incubating(since = "7.0.0")
+public class ParseLimits {
+    /**
+     * Generated sources are recognized by one of these markers anywhere in their first {@link #HEADER_BYTES} bytes,
+     * e.g. a <code>@Generated</code> annotation or the "DO NOT EDIT!" warning of the protocol buffer compiler.
+     */
+    private static final Pattern GENERATED_MARKER = Pattern.compile("DO NOT EDIT|@Generated\\b|@generated\\b");
+
+    /**
+     * Generated sources are also recognized by one of these markers in the comments that lead the source file,
+     * e.g. the "Generated from Java.g4 by ANTLR" comment. Elsewhere, like in the Javadoc of a hand written class,
+     * these phrases are too common to mean the source file itself is generated.
+     */
+    private static final Pattern GENERATED_HEADER_MARKER = Pattern.compile(
+            "\\b[Gg]enerated (?:by|from)\\b|\\b[Aa]uto-?generated\\b");
+
+    private static final int HEADER_BYTES = 8192;
+
+    private final long maxSourceFileSize;
+    private final long maxSourceFileLines;
+    private final boolean skipGeneratedSources;
+    private final String[] generatedSourcePaths;
+    private final PathMatcher[] generatedSourcePathMatchers;
+
+    @Nullable
+    private final Duration mappingTimeout;
+
+    /**
+     * @param maxSourceFileSize    The size in bytes over which source files are skipped.
+     * @param maxSourceFileLines   The number of lines over which source files are skipped.
+     * @param skipGeneratedSources Whether to skip source files with a generated code marker in their header.
+     * @param generatedSourcePaths Globs matching the paths of source files to skip as generated, relative to the
+     *                             path that source files are parsed relative to, e.g. <code>**&#47;generated/**</code>.
+     * @param mappingTimeout       The time that mapping any one source file to a Rewrite AST may take before it is
+     *                             abandoned, or <code>null</code> for no limit.
+     */
+    public ParseLimits(long maxSourceFileSize, long maxSourceFileLines, boolean skipGeneratedSources,
+                       String[] generatedSourcePaths, @Nullable Duration mappingTimeout) {
+        this.maxSourceFileSize = maxSourceFileSize;
+        this.maxSourceFileLines = maxSourceFileLines;
+        this.skipGeneratedSources = skipGeneratedSources;
+        this.generatedSourcePaths = generatedSourcePaths;
+        this.generatedSourcePathMatchers = new PathMatcher[generatedSourcePaths.length];
+        for (int i = 0; i < generatedSourcePaths.length; i++) {
+            generatedSourcePathMatchers[i] = FileSystems.getDefault().getPathMatcher("glob:" + generatedSourcePaths[i]);
+        }
+        this.mappingTimeout = mappingTimeout;
+    }
+
+    @Nullable
+    public Duration getMappingTimeout() {
+        return mappingTimeout;
+    }
+
+    /**
+     * @param input      A source file about to be parsed.
+     * @param relativeTo The path that source files are parsed relative to.
+     * @return Why the source file should be skipped, or <code>null</code> if it is within these limits.
+     */
+    @Nullable
+    public String skipReason(Parser.Input input, @Nullable Path relativeTo) {
+        Path relativePath = input.getRelativePath(relativeTo);
+        for (int i = 0; i < generatedSourcePathMatchers.length; i++) {
+            if (generatedSourcePathMatchers[i].matches(relativePath)) {
+                return "Skipped generated source file matching " + generatedSourcePaths[i];
+            }
+        }
+
+        boolean measure = maxSourceFileSize != Long.MAX_VALUE || maxSourceFileLines != Long.MAX_VALUE;
+        if (!measure && !skipGeneratedSources) {
+            return null;
+        }
+
+        // read no further than needed to decide, so that giant source files are never held in memory whole
+        byte[] header = new byte[HEADER_BYTES];
+        int headerLength = 0;
+        long size = 0;
+        long lines = 1;
+        byte[] buffer = new byte[HEADER_BYTES];
+        try (InputStream source = input.getSource()) {
+            for (int n; (n = source.read(buffer)) != -1; ) {
+                if (headerLength < HEADER_BYTES) {
+                    int copied = Math.min(n, HEADER_BYTES - headerLength);
+                    System.arraycopy(buffer, 0, header, headerLength, copied);
+                    headerLength += copied;
+                }
+
+                size += n;
+                if (size > maxSourceFileSize) {
+                    return "Skipped source file larger than " + maxSourceFileSize + " bytes";
+                }
+
+                for (int i = 0; i < n; i++) {
+                    if (buffer[i] == '\n') {
+                        lines++;
+                    }
+                }
+                if (lines > maxSourceFileLines) {
+                    return "Skipped source file longer than " + maxSourceFileLines + " lines";
+                }
+
+                if (!measure && headerLength == HEADER_BYTES) {
+                    break;
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        if (skipGeneratedSources) {
+            String headerText = new String(header, 0, headerLength, StandardCharsets.ISO_8859_1);
+            Matcher marker = GENERATED_MARKER.matcher(headerText);
+            if (!marker.find()) {
+                marker = GENERATED_HEADER_MARKER.matcher(headerText).region(0, leadingCommentsEnd(headerText));
+                if (!marker.find()) {
+                    return null;
+                }
+            }
+            return "Skipped generated source file marked \"" + marker.group() + "\"";
+        }
+
+        return null;
+    }
+
+    /**
+     * @param source The beginning of a source file.
+     * @return The index of the first character that is neither whitespace nor part of a comment.
+     */
+    private static int leadingCommentsEnd(String source) {
+        int i = 0;
+        while (i < source.length()) {
+            if (Character.isWhitespace(source.charAt(i))) {
+                i++;
+            } else if (source.startsWith("//", i)) {
+                int end = source.indexOf('\n', i);
+                i = end == -1 ? source.length() : end + 1;
+            } else if (source.startsWith("/*", i)) {
+                int end = source.indexOf("*/", i + 2);
+                i = end == -1 ? source.length() : end + 2;
+            } else {
+                break;
+            }
+        }
+        return i;
+    }
+}
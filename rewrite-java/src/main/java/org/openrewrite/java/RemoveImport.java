@@ -25,6 +25,7 @@ import org.openrewrite.marker.Markers;
 
 import java.util.*;
 
+import static java.util.Collections.emptySet;
 import static org.openrewrite.Tree.randomId;
 
 @EqualsAndHashCode(callSuper = false, onlyExplicitlyIncluded = true)
@@ -36,7 +37,6 @@ public class RemoveImport<P> extends JavaIsoVisitor<P> {
     private final String type;
 
     private final JavaType.Class classType;
-    private final MethodMatcher methodMatcher;
 
     @Nullable
     private J.Import namedImport;
@@ -48,13 +48,12 @@ public class RemoveImport<P> extends JavaIsoVisitor<P> {
     private J.Import staticStarImport;
 
     private final Set<String> referencedTypes = new HashSet<>();
-    private final Set<J.Identifier> referencedMethods = new HashSet<>();
+    private final Set<String> referencedMethods = new HashSet<>();
     private final Set<String> referencedFields = new HashSet<>();
     private final Set<J.Import> staticNamedImports = Collections.newSetFromMap(new IdentityHashMap<>());
 
     public RemoveImport(String type) {
         this.type = type;
-        this.methodMatcher = new MethodMatcher(type + " *(..)");
         this.classType = JavaType.Class.build(type);
         setCursoringOn();
     }
@@ -69,7 +68,22 @@ public class RemoveImport<P> extends JavaIsoVisitor<P> {
         referencedFields.clear();
         staticNamedImports.clear();
 
-        J.CompilationUnit c = super.visitCompilationUnit(cu, p);
+        for (J.Import impoort : cu.getImports()) {
+            collectImport(impoort);
+        }
+        if (namedImport == null && starImport == null && staticStarImport == null && staticNamedImports.isEmpty()) {
+            return cu;
+        }
+
+        TypeReferences typeReferences = TypeReferences.of(cu);
+        for (JavaType.Class referencedType : typeReferences.getTypesByPackage()
+                .getOrDefault(classType.getPackageName(), emptySet())) {
+            referencedTypes.add(referencedType.getFullyQualifiedName());
+        }
+        referencedMethods.addAll(typeReferences.getMethodsByType().getOrDefault(type, emptySet()));
+        referencedFields.addAll(typeReferences.getIdentifiers());
+
+        J.CompilationUnit c = cu;
         J.CompilationUnit temp = staticImportDeletions(classImportDeletions(c));
         if (temp != c) {
             Cursor cursor = new Cursor(null, temp);
@@ -85,8 +99,7 @@ public class RemoveImport<P> extends JavaIsoVisitor<P> {
         return c;
     }
 
-    @Override
-    public J.Import visitImport(J.Import impoort, P p) {
+    private void collectImport(J.Import impoort) {
         if (impoort.isStatic()) {
             if (impoort.getQualid().getTarget().printTrimmed().equals(type) || impoort.getQualid().printTrimmed().equals(type)) {
                 if ("*".equals(impoort.getQualid().getSimpleName())) {
@@ -102,35 +115,6 @@ public class RemoveImport<P> extends JavaIsoVisitor<P> {
                 starImport = impoort;
             }
         }
-
-        return super.visitImport(impoort, p);
-    }
-
-    @Override
-    public <N extends NameTree> N visitTypeName(N name, P p) {
-        JavaType.Class asClass = TypeUtils.asClass(name.getType());
-        if (asClass != null && asClass.getPackageName().equals(classType.getPackageName()) &&
-                getCursor().getPathAsStream().noneMatch(J.Import.class::isInstance)) {
-            referencedTypes.add(asClass.getFullyQualifiedName());
-        }
-        return super.visitTypeName(name, p);
-    }
-
-    @Override
-    public J.Identifier visitIdentifier(J.Identifier ident, P p) {
-        if (getCursor().getPathAsStream().noneMatch(J.Import.class::isInstance)) {
-            referencedFields.add(ident.getSimpleName());
-        }
-        return super.visitIdentifier(ident, p);
-    }
-
-    @Override
-    public J.MethodInvocation visitMethodInvocation(J.MethodInvocation method, P p) {
-        if (methodMatcher.matches(method) && method.getType() != null &&
-                method.getType().getDeclaringType().getFullyQualifiedName().equals(type)) {
-            referencedMethods.add(method.getName());
-        }
-        return super.visitMethodInvocation(method, p);
     }
 
     private J.CompilationUnit classImportDeletions(J.CompilationUnit cu) {
@@ -166,7 +150,7 @@ public class RemoveImport<P> extends JavaIsoVisitor<P> {
         for (J.Import staticImport : staticNamedImports) {
             String methodOrField = staticImport.getQualid().getSimpleName();
             JavaType.Class qualidType = TypeUtils.asClass(staticImport.getQualid().getTarget().getType());
-            if (referencedMethods.stream().noneMatch(m -> m.getSimpleName().equals(methodOrField)) &&
+            if (!referencedMethods.contains(methodOrField) &&
                     noFieldReferences(qualidType, methodOrField)) {
                 cu = delete(cu, staticImport);
             }
@@ -48,11 +48,9 @@ public class RemoveUnusedImports extends Recipe {
             ImportLayoutStyle layoutStyle = Optional.ofNullable(cu.getStyle(ImportLayoutStyle.class))
                     .orElse(IntelliJ.importLayout());
 
-            Map<String, Set<String>> methodsByTypeName = new HashMap<>();
-            new StaticMethodsByType().visit(cu, methodsByTypeName);
-
-            Map<String, Set<JavaType.Class>> typesByPackage = new HashMap<>();
-            new TypesByPackage().visit(cu, typesByPackage);
+            TypeReferences typeReferences = TypeReferences.of(cu);
+            Map<String, Set<String>> methodsByTypeName = typeReferences.getStaticMethodsByType();
+            Map<String, Set<JavaType.Class>> typesByPackage = typeReferences.getTypesByPackage();
 
             boolean changed = false;
             // Whenever an import statement is found to be used it should be added to this list
@@ -116,37 +114,5 @@ public class RemoveUnusedImports extends Recipe {
 
             return cu;
         }
-
-        private static class TypesByPackage extends JavaIsoVisitor<Map<String, Set<JavaType.Class>>> {
-            TypesByPackage() {
-                setCursoringOn();
-            }
-
-            @Override
-            public <N extends NameTree> N visitTypeName(N name, Map<String, Set<JavaType.Class>> ctx) {
-                if (getCursor().firstEnclosing(J.Import.class) == null) {
-                    JavaType.Class clazz = TypeUtils.asClass(name.getType());
-                    if (clazz != null) {
-                        ctx.computeIfAbsent(clazz.getPackageName(), t -> new HashSet<>()).add(clazz);
-                    }
-                }
-                return super.visitTypeName(name, ctx);
-            }
-        }
-
-        private static class StaticMethodsByType extends JavaIsoVisitor<Map<String, Set<String>>> {
-            @Override
-            public J.MethodInvocation visitMethodInvocation(J.MethodInvocation method, Map<String, Set<String>> ctx) {
-                J.MethodInvocation m = super.visitMethodInvocation(method, ctx);
-                if (method.getSelect() == null) {
-                    JavaType.Method type = method.getType();
-                    if (type != null && type.hasFlags(Flag.Static)) {
-                        ctx.computeIfAbsent(type.getDeclaringType().getFullyQualifiedName(), t -> new HashSet<>())
-                                .add(type.getName());
-                    }
-                }
-                return m;
-            }
-        }
     }
 }
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2020 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java;
+
+import lombok.Getter;
+import org.openrewrite.Cursor;
+import org.openrewrite.internal.WeakIdentityMap;
+import org.openrewrite.java.tree.*;
+
+import java.util.*;
+
+/**
+ * The types and members a compilation unit refers to outside of its imports, gathered in a single pass over it that
+ * is shared by the visitors that add, remove and order imports.
+ * <p>
+ * Only the class declarations of the compilation unit are indexed, and the index is cached by the identity of the
+ * list that holds them. Adding or removing imports creates a new compilation unit with the same classes, so the
+ * visitors that run one after another to fix up the imports of a compilation unit all share one index. Since the
+ * index is shared, the collections it exposes are unmodifiable once it has been gathered.
+ */
+@Getter
+final class TypeReferences {
+    private static final WeakIdentityMap<List<J.ClassDeclaration>, TypeReferences> references = new WeakIdentityMap<>();
+
+    /**
+     * The classes referred to by name, by their package name.
+     */
+    private Map<String, Set<JavaType.Class>> typesByPackage = new HashMap<>();
+
+    /**
+     * The fully qualified names of the classes referred to in a way that requires them to be imported, that is
+     * by name other than a fully qualified name, or as the target of a class literal.
+     */
+    private Set<String> importableTypes = new HashSet<>();
+
+    /**
+     * The names of the methods that are invoked, by the fully qualified name of their declaring type.
+     */
+    private Map<String, Set<String>> methodsByType = new HashMap<>();
+
+    /**
+     * The names of the static methods that are invoked without a select, by the fully qualified name of their
+     * declaring type.
+     */
+    private Map<String, Set<String>> staticMethodsByType = new HashMap<>();
+
+    /**
+     * The simple names of all identifiers.
+     */
+    private Set<String> identifiers = new HashSet<>();
+
+    private TypeReferences() {
+    }
+
+    static TypeReferences of(J.CompilationUnit cu) {
+        List<J.ClassDeclaration> classes = cu.getClasses();
+        TypeReferences typeReferences = references.get(classes);
+        if (typeReferences == null) {
+            typeReferences = new TypeReferences();
+            Indexer indexer = new Indexer();
+            Cursor root = new Cursor(null, cu);
+            for (J.ClassDeclaration classDecl : classes) {
+                indexer.visit(classDecl, typeReferences, root);
+            }
+            typeReferences.freeze();
+            references.put(classes, typeReferences);
+        }
+        return typeReferences;
+    }
+
+    private void freeze() {
+        typesByPackage = unmodifiable(typesByPackage);
+        importableTypes = Collections.unmodifiableSet(importableTypes);
+        methodsByType = unmodifiable(methodsByType);
+        staticMethodsByType = unmodifiable(staticMethodsByType);
+        identifiers = Collections.unmodifiableSet(identifiers);
+    }
+
+    private static <V> Map<String, Set<V>> unmodifiable(Map<String, Set<V>> map) {
+        map.replaceAll((key, values) -> Collections.unmodifiableSet(values));
+        return Collections.unmodifiableMap(map);
+    }
+
+    private static class Indexer extends JavaIsoVisitor<TypeReferences> {
+        Indexer() {
+            setCursoringOn();
+        }
+
+        @Override
+        public <N extends NameTree> N visitTypeName(N name, TypeReferences r) {
+            JavaType.Class clazz = TypeUtils.asClass(name.getType());
+            if (clazz != null) {
+                r.typesByPackage.computeIfAbsent(clazz.getPackageName(), t -> new HashSet<>()).add(clazz);
+                if (!(name instanceof J.FieldAccess) ||
+                        !((J.FieldAccess) name).isFullyQualifiedClassReference(clazz.getFullyQualifiedName())) {
+                    r.importableTypes.add(clazz.getFullyQualifiedName());
+                }
+            }
+            return super.visitTypeName(name, r);
+        }
+
+        @Override
+        public J.FieldAccess visitFieldAccess(J.FieldAccess fieldAccess, TypeReferences r) {
+            if (fieldAccess.getName().getSimpleName().equals("class")) {
+                JavaType.Class targetClass = TypeUtils.asClass(fieldAccess.getTarget().getType());
+                if (targetClass != null) {
+                    r.importableTypes.add(targetClass.getFullyQualifiedName());
+                }
+            }
+            return super.visitFieldAccess(fieldAccess, r);
+        }
+
+        @Override
+        public J.Identifier visitIdentifier(J.Identifier ident, TypeReferences r) {
+            r.identifiers.add(ident.getSimpleName());
+            return super.visitIdentifier(ident, r);
+        }
+
+        @Override
+        public J.MethodInvocation visitMethodInvocation(J.MethodInvocation method, TypeReferences r) {
+            JavaType.Method type = method.getType();
+            if (type != null && type.getDeclaringType() != null) {
+                String declaringType = type.getDeclaringType().getFullyQualifiedName();
+                r.methodsByType.computeIfAbsent(declaringType, t -> new HashSet<>()).add(method.getSimpleName());
+                if (method.getSelect() == null && type.hasFlags(Flag.Static)) {
+                    r.staticMethodsByType.computeIfAbsent(declaringType, t -> new HashSet<>()).add(type.getName());
+                }
+            }
+            return super.visitMethodInvocation(method, r);
+        }
+    }
+}
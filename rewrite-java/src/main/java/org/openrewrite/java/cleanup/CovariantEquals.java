@@ -26,4 +26,9 @@ public class CovariantEquals extends Recipe {
     protected TreeVisitor<?, ExecutionContext> getVisitor() {
         return new CovariantEqualsVisitor<>();
     }
+
+    @Override
+    protected boolean isFusable() {
+        return true;
+    }
 }
@@ -26,6 +26,14 @@ public class SimplifyBooleanExpression extends Recipe {
     protected TreeVisitor<?, ExecutionContext> getVisitor() {
         return new SimplifyBooleanExpressionVisitor();
     }
-}
 
+    @Override
+    protected boolean isFusable() {
+        return true;
+    }
 
+    @Override
+    protected boolean causesAnotherCycle() {
+        return false;
+    }
+}
@@ -28,18 +28,21 @@ import org.openrewrite.java.tree.J;
 public class SimplifyBooleanExpressionVisitor<P> extends JavaVisitor<P> {
 
     private static final String MAYBE_AUTO_FORMAT_ME = "MAYBE_AUTO_FORMAT_ME";
+    private static final String UNWRAP_PARENTHESES = "UNWRAP_PARENTHESES";
 
     public SimplifyBooleanExpressionVisitor() {
         setCursoringOn();
     }
 
     @Override
-    public J visitCompilationUnit(J.CompilationUnit cu, P p) {
-        J.CompilationUnit c = visitAndCast(cu, p, super::visitCompilationUnit);
-        if (c != cu) {
-            doAfterVisit(new SimplifyBooleanExpressionVisitor());
+    public <T extends J> J visitParentheses(J.Parentheses<T> parens, P p) {
+        J j = super.visitParentheses(parens, p);
+        if (getCursor().pollMessage(UNWRAP_PARENTHESES) != null && j instanceof J.Parentheses &&
+                UnwrapParentheses.isUnwrappable(getCursor())) {
+            J.Parentheses<?> asParens = (J.Parentheses<?>) j;
+            j = asParens.getTree().withPrefix(asParens.getPrefix());
         }
-        return c;
+        return j;
     }
 
     @Override
@@ -95,7 +98,7 @@ public class SimplifyBooleanExpressionVisitor<P> extends JavaVisitor<P> {
     public @Nullable J postVisit(J tree, P p) {
         J j = super.postVisit(tree, p);
         if (getCursor().pollMessage(MAYBE_AUTO_FORMAT_ME) != null) {
-            j = new AutoFormatVisitor<>().visit(j, p, getCursor());
+            j = new AutoFormatVisitor<>().visit(j, p, getCursor().getParentOrThrow());
         }
         return j;
     }
@@ -112,9 +115,13 @@ public class SimplifyBooleanExpressionVisitor<P> extends JavaVisitor<P> {
             } else if (isLiteralFalse(asUnary.getExpression())) {
                 maybeUnwrapParentheses();
                 j = ((J.Literal) asUnary.getExpression()).withValue(true).withValueSource("true");
-            } else if (asUnary.getExpression() instanceof J.Unary && ((J.Unary) asUnary.getExpression()).getOperator() == J.Unary.Type.Not) {
+            } else if (isNot(asUnary.getExpression())) {
                 maybeUnwrapParentheses();
                 j = ((J.Unary) asUnary.getExpression()).getExpression();
+            } else if (asUnary.getExpression() instanceof J.Parentheses &&
+                    isNot(((J.Parentheses<?>) asUnary.getExpression()).getTree())) {
+                maybeUnwrapParentheses();
+                j = ((J.Unary) ((J.Parentheses<?>) asUnary.getExpression()).getTree()).getExpression();
             }
         }
 
@@ -124,19 +131,20 @@ public class SimplifyBooleanExpressionVisitor<P> extends JavaVisitor<P> {
 
     /**
      * Specifically for removing immediately-enclosing parentheses on Identifiers and Literals.
-     * This queues a potential unwrap operation for the next visit. After unwrapping something, it's possible
-     * there are more Simplifications this recipe can identify and perform, which is why visitCompilationUnit
-     * checks for any changes to the entire Compilation Unit, and if so, queues up another SimplifyBooleanExpression
-     * recipe call. This convergence loop eventually reconciles any remaining Boolean Expression Simplifications
-     * the recipe can perform.
+     * Expressions are simplified bottom-up, so the parentheses are unwrapped as soon as they have been visited, and
+     * any expression enclosing them is simplified further in the same visit rather than in another pass.
      */
     private void maybeUnwrapParentheses() {
         Cursor c = getCursor().getParentOrThrow().dropParentUntil(J.class::isInstance);
         if (c.getValue() instanceof J.Parentheses) {
-            doAfterVisit(new UnwrapParentheses<>(c.getValue()));
+            c.putMessage(UNWRAP_PARENTHESES, true);
         }
     }
 
+    private boolean isNot(@Nullable J tree) {
+        return tree instanceof J.Unary && ((J.Unary) tree).getOperator() == J.Unary.Type.Not;
+    }
+
     private boolean isLiteralTrue(@Nullable Expression expression) {
         return expression instanceof J.Literal && ((J.Literal) expression).getValue() == Boolean.valueOf(true);
     }
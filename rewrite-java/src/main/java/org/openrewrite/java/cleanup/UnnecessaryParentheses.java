@@ -19,29 +19,21 @@ import org.openrewrite.ExecutionContext;
 import org.openrewrite.Incubating;
 import org.openrewrite.Recipe;
 import org.openrewrite.TreeVisitor;
-import org.openrewrite.java.JavaIsoVisitor;
-import org.openrewrite.java.style.IntelliJ;
-import org.openrewrite.java.style.UnnecessaryParenthesesStyle;
-import org.openrewrite.java.tree.J;
 
 @Incubating(since = "7.0.0")
 public class UnnecessaryParentheses extends Recipe {
     @Override
     protected TreeVisitor<?, ExecutionContext> getVisitor() {
-        return new UnnecessaryParenthesesFromCompilationUnitStyle();
+        return new UnnecessaryParenthesesVisitor<>();
     }
 
-    private static class UnnecessaryParenthesesFromCompilationUnitStyle extends JavaIsoVisitor<ExecutionContext> {
-        @Override
-        public J.CompilationUnit visitCompilationUnit(J.CompilationUnit cu, ExecutionContext executionContext) {
-            UnnecessaryParenthesesStyle style = cu.getStyle(UnnecessaryParenthesesStyle.class);
-            if (style == null) {
-                style = IntelliJ.unnecessaryParentheses();
-            }
-            doAfterVisit(new UnnecessaryParenthesesVisitor<>(style));
-            return super.visitCompilationUnit(cu, executionContext);
-        }
+    @Override
+    protected boolean isFusable() {
+        return true;
     }
-}
-
 
+    @Override
+    protected boolean causesAnotherCycle() {
+        return false;
+    }
+}
@@ -15,69 +15,83 @@
  */
 package org.openrewrite.java.cleanup;
 
-import org.openrewrite.Cursor;
 import org.openrewrite.Incubating;
+import org.openrewrite.internal.lang.Nullable;
 import org.openrewrite.java.JavaVisitor;
 import org.openrewrite.java.UnwrapParentheses;
+import org.openrewrite.java.style.IntelliJ;
 import org.openrewrite.java.style.UnnecessaryParenthesesStyle;
 import org.openrewrite.java.tree.J;
 import org.openrewrite.java.tree.JavaType;
 
+import java.util.function.Function;
+
 @Incubating(since = "7.0.0")
 public class UnnecessaryParenthesesVisitor<P> extends JavaVisitor<P> {
 
-    private final UnnecessaryParenthesesStyle style;
+    private UnnecessaryParenthesesStyle style;
 
-    private static final String UNNECESSARY_PARENTHESES_MARKER = "unnecessaryParenthesesUnwrapTarget";
+    private final boolean styleFromCompilationUnit;
 
     public UnnecessaryParenthesesVisitor(UnnecessaryParenthesesStyle style) {
         this.style = style;
+        this.styleFromCompilationUnit = false;
         setCursoringOn();
     }
 
+    /**
+     * Use the style of each compilation unit visited, or IntelliJ's defaults if it has none.
+     */
+    UnnecessaryParenthesesVisitor() {
+        this.style = IntelliJ.unnecessaryParentheses();
+        this.styleFromCompilationUnit = true;
+        setCursoringOn();
+    }
+
+    @Nullable
     @Override
-    public <T extends J> J visitParentheses(J.Parentheses<T> parens, P p) {
-        J par = super.visitParentheses(parens, p);
-        Cursor c = getCursor().pollNearestMessage(UNNECESSARY_PARENTHESES_MARKER);
-        if (c != null && (c.getValue() instanceof J.Literal || c.getValue() instanceof J.Identifier)) {
-            par = new UnwrapParentheses<>((J.Parentheses<?>) par).visit(par, p, getCursor());
+    public J preVisit(J tree, P p) {
+        if (styleFromCompilationUnit && tree instanceof J.CompilationUnit) {
+            UnnecessaryParenthesesStyle cuStyle = ((J.CompilationUnit) tree).getStyle(UnnecessaryParenthesesStyle.class);
+            style = cuStyle == null ? IntelliJ.unnecessaryParentheses() : cuStyle;
         }
-        return par;
+        return super.preVisit(tree, p);
     }
 
     @Override
-    public J visitIdentifier(J.Identifier ident, P p) {
-        J.Identifier i = visitAndCast(ident, p, super::visitIdentifier);
-        if (style.isIdent() && getCursor().dropParentUntil(J.class::isInstance).getValue() instanceof J.Parentheses) {
-            getCursor().putMessageOnFirstEnclosing(J.Parentheses.class, UNNECESSARY_PARENTHESES_MARKER, getCursor());
+    public <T extends J> J visitParentheses(J.Parentheses<T> parens, P p) {
+        J par = super.visitParentheses(parens, p);
+        // the tree in parentheses has already been visited, so any parentheses nested directly inside these
+        // have already been unwrapped, and nested parentheses are unwrapped all the way out in a single visit
+        if (par instanceof J.Parentheses && isUnnecessarilyParenthesized(((J.Parentheses<?>) par).getTree())) {
+            par = new UnwrapParentheses<>((J.Parentheses<?>) par).visit(par, p, getCursor());
         }
-        return i;
+        return par;
     }
 
-    @Override
-    public J visitLiteral(J.Literal literal, P p) {
-        J.Literal l = visitAndCast(literal, p, super::visitLiteral);
-        JavaType.Primitive type = l.getType();
-        if ((style.isNumInt() && type == JavaType.Primitive.Int) ||
-                (style.isNumDouble() && type == JavaType.Primitive.Double) ||
-                (style.isNumLong() && type == JavaType.Primitive.Long) ||
-                (style.isNumFloat() && type == JavaType.Primitive.Float) ||
-                (style.isStringLiteral() && type == JavaType.Primitive.String) ||
-                (style.isLiteralNull() && type == JavaType.Primitive.Null) ||
-                (style.isLiteralFalse() && type == JavaType.Primitive.Boolean && l.getValue() == Boolean.valueOf(false)) ||
-                (style.isLiteralTrue() && type == JavaType.Primitive.Boolean && l.getValue() == Boolean.valueOf(true))) {
-            if (getCursor().dropParentUntil(J.class::isInstance).getValue() instanceof J.Parentheses) {
-                getCursor().putMessageOnFirstEnclosing(J.Parentheses.class, UNNECESSARY_PARENTHESES_MARKER, getCursor());
-            }
+    private boolean isUnnecessarilyParenthesized(J tree) {
+        if (tree instanceof J.Identifier) {
+            return style.isIdent();
+        } else if (tree instanceof J.Literal) {
+            J.Literal l = (J.Literal) tree;
+            JavaType.Primitive type = l.getType();
+            return (style.isNumInt() && type == JavaType.Primitive.Int) ||
+                    (style.isNumDouble() && type == JavaType.Primitive.Double) ||
+                    (style.isNumLong() && type == JavaType.Primitive.Long) ||
+                    (style.isNumFloat() && type == JavaType.Primitive.Float) ||
+                    (style.isStringLiteral() && type == JavaType.Primitive.String) ||
+                    (style.isLiteralNull() && type == JavaType.Primitive.Null) ||
+                    (style.isLiteralFalse() && type == JavaType.Primitive.Boolean && l.getValue() == Boolean.valueOf(false)) ||
+                    (style.isLiteralTrue() && type == JavaType.Primitive.Boolean && l.getValue() == Boolean.valueOf(true));
         }
-        return l;
+        return false;
     }
 
     @Override
     public J visitAssignmentOperation(J.AssignmentOperation assignOp, P p) {
         J.AssignmentOperation a = visitAndCast(assignOp, p, super::visitAssignmentOperation);
         J.AssignmentOperation.Type op = a.getOperator();
-        if (a.getAssignment() instanceof J.Parentheses && ((style.isBandAssign() && op == J.AssignmentOperation.Type.BitAnd) ||
+        if ((style.isBandAssign() && op == J.AssignmentOperation.Type.BitAnd) ||
                 (style.isBorAssign() && op == J.AssignmentOperation.Type.BitOr) ||
                 (style.isBsrAssign() && op == J.AssignmentOperation.Type.UnsignedRightShift) ||
                 (style.isBxorAssign() && op == J.AssignmentOperation.Type.BitXor) ||
@@ -87,8 +101,8 @@ public class UnnecessaryParenthesesVisitor<P> extends JavaVisitor<P> {
                 (style.isDivAssign() && op == J.AssignmentOperation.Type.Division) ||
                 (style.isPlusAssign() && op == J.AssignmentOperation.Type.Addition) ||
                 (style.isStarAssign() && op == J.AssignmentOperation.Type.Multiplication) ||
-                (style.isModAssign() && op == J.AssignmentOperation.Type.Modulo))) {
-            a = (J.AssignmentOperation) new UnwrapParentheses<>((J.Parentheses<?>) a.getAssignment()).visit(a, p, getCursor());
+                (style.isModAssign() && op == J.AssignmentOperation.Type.Modulo)) {
+            a = unwrapAll(a, J.AssignmentOperation::getAssignment, p);
         }
         return a;
     }
@@ -96,8 +110,8 @@ public class UnnecessaryParenthesesVisitor<P> extends JavaVisitor<P> {
     @Override
     public J visitAssignment(J.Assignment assignment, P p) {
         J.Assignment a = visitAndCast(assignment, p, super::visitAssignment);
-        if (style.isAssign() && a.getAssignment() instanceof J.Parentheses) {
-            a = (J.Assignment) new UnwrapParentheses<>((J.Parentheses<?>) a.getAssignment()).visit(a, p, getCursor());
+        if (style.isAssign()) {
+            a = unwrapAll(a, J.Assignment::getAssignment, p);
         }
         return a;
     }
@@ -105,12 +119,28 @@ public class UnnecessaryParenthesesVisitor<P> extends JavaVisitor<P> {
     @Override
     public J visitVariable(J.VariableDeclarations.NamedVariable variable, P p) {
         J.VariableDeclarations.NamedVariable v = visitAndCast(variable, p, super::visitVariable);
-        if (style.isAssign() && v.getInitializer() != null && v.getInitializer() instanceof J.Parentheses) {
-            v = (J.VariableDeclarations.NamedVariable) new UnwrapParentheses<>((J.Parentheses<?>) v.getInitializer()).visit(v, p, getCursor());
+        if (style.isAssign()) {
+            v = unwrapAll(v, J.VariableDeclarations.NamedVariable::getInitializer, p);
         }
         return v;
     }
 
+    /**
+     * Unwrap the parentheses around an expression of a tree, and then any parentheses that were directly inside them.
+     */
+    private <J2 extends J> J2 unwrapAll(J2 j, Function<J2, J> expression, P p) {
+        J2 unwrapped = j;
+        while (expression.apply(unwrapped) instanceof J.Parentheses) {
+            //noinspection unchecked
+            J2 next = (J2) new UnwrapParentheses<>((J.Parentheses<?>) expression.apply(unwrapped)).visit(unwrapped, p, getCursor());
+            if (next == unwrapped) {
+                break;
+            }
+            unwrapped = next;
+        }
+        return unwrapped;
+    }
+
     @Override
     public J visitLambda(J.Lambda lambda, P p) {
         J.Lambda l = visitAndCast(lambda, p, super::visitLambda);
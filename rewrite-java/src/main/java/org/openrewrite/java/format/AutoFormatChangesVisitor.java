@@ -0,0 +1,176 @@
+/*
+ * Copyright 2020 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.format;
+
+import org.openrewrite.Incubating;
+import org.openrewrite.Tree;
+import org.openrewrite.internal.lang.Nullable;
+import org.openrewrite.java.JavaIsoVisitor;
+import org.openrewrite.java.JavaVisitor;
+import org.openrewrite.java.tree.*;
+
+import java.util.*;
+
+/**
+ * Formats only the parts of a tree that have changed, rather than the whole tree. Each changed subtree is
+ * formatted by {@link AutoFormatVisitor}, which takes the indentation of its surroundings from the cursor, so
+ * nothing outside of the changed subtrees is visited by the formatter or can be changed by it.
+ *
+ * @param <P> visitor parameter type
+ */
+@Incubating(since = "7.0.0")
+public class AutoFormatChangesVisitor<P> extends JavaIsoVisitor<P> {
+    private final Set<UUID> changed;
+    private final AutoFormatVisitor<P> autoFormat = new AutoFormatVisitor<>();
+
+    /**
+     * @param changed The ids of the subtrees to format, as found by {@link #changedTrees(J, J)}.
+     */
+    public AutoFormatChangesVisitor(Set<UUID> changed) {
+        this.changed = changed;
+        setCursoringOn();
+    }
+
+    @Override
+    public J visit(@Nullable Tree tree, P p) {
+        if (tree instanceof J && changed.contains(tree.getId())) {
+            return autoFormat.visit(tree, p, getCursor());
+        }
+        return super.visit(tree, p);
+    }
+
+    /**
+     * Finds the smallest subtrees that contain all of the differences between two versions of a tree.
+     * <p>
+     * Since trees are immutable, a subtree that is the same instance in both versions hasn't changed. A tree
+     * that is new, or whose children are all unchanged but which is itself different, is changed. So is a tree
+     * whose own formatting, the whitespace around and between its children, or number of children is different,
+     * even when some of its children have changed as well. A statement
+     * following a changed statement is included as well, since the blank lines and indentation before it
+     * depend on what precedes it.
+     *
+     * @param before The tree before it was changed.
+     * @param after  The tree after it was changed.
+     * @return The ids of the changed subtrees of the tree after it was changed.
+     */
+    public static Set<UUID> changedTrees(J before, J after) {
+        Set<J> unchanged = Collections.newSetFromMap(new IdentityHashMap<>());
+        Map<UUID, J> existing = new HashMap<>();
+        new JavaIsoVisitor<Integer>() {
+            @Override
+            public J preVisit(J tree, Integer p) {
+                unchanged.add(tree);
+                existing.put(tree.getId(), tree);
+                return tree;
+            }
+        }.visit(before, 0);
+
+        Set<UUID> changed = new HashSet<>();
+        new JavaVisitor<Integer>() {
+            @Override
+            public J visit(@Nullable Tree tree, Integer p) {
+                if (!(tree instanceof J) || unchanged.contains(tree)) {
+                    return (J) tree;
+                }
+
+                J j = (J) tree;
+                J previous = existing.get(j.getId());
+                if (previous == null) {
+                    changed.add(j.getId());
+                    return j;
+                }
+
+                int changedBefore = changed.size();
+                super.visit(j, p);
+                if (changed.size() == changedBefore) {
+                    // none of its children have changed, so the tree itself has
+                    changed.add(j.getId());
+                } else if (!OwnState.of(previous).equals(OwnState.of(j))) {
+                    changed.add(j.getId());
+                }
+                return j;
+            }
+
+            @Override
+            public J visitBlock(J.Block block, Integer p) {
+                J b = super.visitBlock(block, p);
+                List<Statement> statements = block.getStatements();
+                // backwards, so that a following statement only marks the one after it if it had changed itself
+                for (int i = statements.size() - 2; i >= 0; i--) {
+                    if (changed.contains(statements.get(i).getId())) {
+                        changed.add(statements.get(i + 1).getId());
+                    }
+                }
+                return b;
+            }
+        }.visit(after, 0);
+
+        return changed;
+    }
+
+    /**
+     * Collects the parts of a tree that are not in any of its subtrees: its kind, the whitespace of its prefix and
+     * of its padding and containers, the elements of its padding that are not trees, like operators, and a
+     * placeholder for each of its children.
+     */
+    private static class OwnState extends JavaVisitor<List<Object>> {
+        private static final Object CHILD = new Object();
+
+        private boolean visiting;
+
+        static List<Object> of(J j) {
+            List<Object> state = new ArrayList<>();
+            state.add(j.getClass());
+            new OwnState().visit(j, state);
+            return state;
+        }
+
+        @Override
+        public J visit(@Nullable Tree tree, List<Object> state) {
+            if (!(tree instanceof J)) {
+                return super.visit(tree, state);
+            }
+            if (visiting) {
+                state.add(CHILD);
+                return (J) tree;
+            }
+            visiting = true;
+            return super.visit(tree, state);
+        }
+
+        @Override
+        public Space visitSpace(Space space, Space.Location loc, List<Object> state) {
+            state.add(space);
+            return space;
+        }
+
+        @Override
+        public <T> JRightPadded<T> visitRightPadded(JRightPadded<T> right, JRightPadded.Location loc, List<Object> state) {
+            if (!(right.getElement() instanceof J)) {
+                state.add(right.getElement());
+            }
+            return super.visitRightPadded(right, loc, state);
+        }
+
+        @Override
+        public <T> JLeftPadded<T> visitLeftPadded(JLeftPadded<T> left, JLeftPadded.Location loc, List<Object> state) {
+            if (!(left.getElement() instanceof J)) {
+                state.add(left.getElement());
+            }
+            return super.visitLeftPadded(left, loc, state);
+        }
+    }
+}
@@ -26,53 +26,66 @@ import org.openrewrite.java.tree.J;
 import java.util.Optional;
 
 public class AutoFormatVisitor<P> extends JavaIsoVisitor<P> {
+    @Nullable
+    private Styles styles;
+
     @Override
     public J visit(@Nullable Tree tree, P p, Cursor cursor) {
-        J.CompilationUnit cu = cursor.firstEnclosingOrThrow(J.CompilationUnit.class);
-
-        J t = new NormalizeFormatVisitor<>().visit(tree, p, cursor);
+        Styles s = styles(cursor.firstEnclosingOrThrow(J.CompilationUnit.class));
 
-        t = new MinimumViableSpacingVisitor<>().visit(t, p, cursor);
+        J t = new NormalizeSpacingVisitor<>().visit(tree, p, cursor);
 
-        t = new RemoveTrailingWhitespaceVisitor<>().visit(t, p, cursor);
+        t = new BlankLinesVisitor<>(s.blankLines).visit(t, p, cursor);
 
-        t = new BlankLinesVisitor<>(Optional.ofNullable(cu.getStyle(BlankLinesStyle.class))
-                .orElse(IntelliJ.blankLines()))
-                .visit(t, p, cursor);
+        t = new SpacesVisitor<>(s.spaces).visit(t, p, cursor);
 
-        t = new SpacesVisitor<>(Optional.ofNullable(cu.getStyle(SpacesStyle.class))
-                .orElse(IntelliJ.spaces()))
-                .visit(t, p, cursor);
+        t = new WrappingAndBracesVisitor<>(s.wrappingAndBraces).visit(t, p, cursor);
 
-        t = new WrappingAndBracesVisitor<>(Optional.ofNullable(cu.getStyle(WrappingAndBracesStyle.class))
-                .orElse(IntelliJ.wrappingAndBraces()))
-                .visit(t, p, cursor);
-
-        t = new TabsAndIndentsVisitor<>(Optional.ofNullable(cu.getStyle(TabsAndIndentsStyle.class))
-                .orElse(IntelliJ.tabsAndIndents()))
-                .visit(t, p, cursor);
+        t = new TabsAndIndentsVisitor<>(s.tabsAndIndents).visit(t, p, cursor);
 
         return t;
     }
 
     @Override
     public J.CompilationUnit visitCompilationUnit(J.CompilationUnit cu, P p) {
-        J.CompilationUnit t = new BlankLinesVisitor<>(Optional.ofNullable(cu.getStyle(BlankLinesStyle.class))
-                .orElse(IntelliJ.blankLines()))
-                .visitCompilationUnit(cu, p);
+        Styles s = styles(cu);
+
+        J.CompilationUnit t = new BlankLinesVisitor<>(s.blankLines).visitCompilationUnit(cu, p);
 
-        t = new SpacesVisitor<>(Optional.ofNullable(cu.getStyle(SpacesStyle.class))
-                .orElse(IntelliJ.spaces()))
-                .visitCompilationUnit(t, p);
+        t = new SpacesVisitor<>(s.spaces).visitCompilationUnit(t, p);
 
-        t = new WrappingAndBracesVisitor<>(Optional.ofNullable(cu.getStyle(WrappingAndBracesStyle.class))
-                .orElse(IntelliJ.wrappingAndBraces()))
-                .visitCompilationUnit(t, p);
+        t = new WrappingAndBracesVisitor<>(s.wrappingAndBraces).visitCompilationUnit(t, p);
 
-        t = new TabsAndIndentsVisitor<>(Optional.ofNullable(cu.getStyle(TabsAndIndentsStyle.class))
-                .orElse(IntelliJ.tabsAndIndents()))
-                .visitCompilationUnit(t, p);
+        t = new TabsAndIndentsVisitor<>(s.tabsAndIndents).visitCompilationUnit(t, p);
 
         return t;
     }
+
+    /**
+     * The styles are looked up once per compilation unit, rather than every time a tree in it is formatted.
+     */
+    private Styles styles(J.CompilationUnit cu) {
+        if (styles == null || styles.cu != cu) {
+            styles = new Styles(cu);
+        }
+        return styles;
+    }
+
+    private static class Styles {
+        private final J.CompilationUnit cu;
+        private final BlankLinesStyle blankLines;
+        private final SpacesStyle spaces;
+        private final WrappingAndBracesStyle wrappingAndBraces;
+        private final TabsAndIndentsStyle tabsAndIndents;
+
+        private Styles(J.CompilationUnit cu) {
+            this.cu = cu;
+            this.blankLines = Optional.ofNullable(cu.getStyle(BlankLinesStyle.class)).orElse(IntelliJ.blankLines());
+            this.spaces = Optional.ofNullable(cu.getStyle(SpacesStyle.class)).orElse(IntelliJ.spaces());
+            this.wrappingAndBraces = Optional.ofNullable(cu.getStyle(WrappingAndBracesStyle.class))
+                    .orElse(IntelliJ.wrappingAndBraces());
+            this.tabsAndIndents = Optional.ofNullable(cu.getStyle(TabsAndIndentsStyle.class))
+                    .orElse(IntelliJ.tabsAndIndents());
+        }
+    }
 }
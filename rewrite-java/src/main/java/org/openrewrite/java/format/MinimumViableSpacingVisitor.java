@@ -28,8 +28,32 @@ public class MinimumViableSpacingVisitor<P> extends JavaIsoVisitor<P> {
 
     @Override
     public J.ClassDeclaration visitClassDeclaration(J.ClassDeclaration classDecl, P p) {
-        J.ClassDeclaration c = super.visitClassDeclaration(classDecl, p);
+        return minimumViableSpacing(super.visitClassDeclaration(classDecl, p));
+    }
+
+    @Override
+    public J.Block visitBlock(J.Block block, P p) {
+        J.Block b = super.visitBlock(block, p);
+        @SuppressWarnings("ConstantConditions") Object parent = getCursor().getParent().getValue();
+        return minimumViableSpacing(b, parent);
+    }
+
+    @Override
+    public J.MethodDeclaration visitMethodDeclaration(J.MethodDeclaration method, P p) {
+        return minimumViableSpacing(super.visitMethodDeclaration(method, p));
+    }
+
+    @Override
+    public J.Return visitReturn(J.Return retrn, P p) {
+        return minimumViableSpacing(super.visitReturn(retrn, p));
+    }
 
+    @Override
+    public J.VariableDeclarations visitVariableDeclarations(J.VariableDeclarations multiVariable, P p) {
+        return minimumViableSpacing(super.visitVariableDeclarations(multiVariable, p));
+    }
+
+    static J.ClassDeclaration minimumViableSpacing(J.ClassDeclaration c) {
         boolean first = true;
         if (!c.getAnnotations().isEmpty()) {
             first = false;
@@ -69,10 +93,10 @@ public class MinimumViableSpacingVisitor<P> extends JavaIsoVisitor<P> {
         return c;
     }
 
-    @Override
-    public J.Block visitBlock(J.Block block, P p) {
-        J.Block b = super.visitBlock(block, p);
-        @SuppressWarnings("ConstantConditions") Object parent = getCursor().getParent().getValue();
+    /**
+     * @param parent The tree the block belongs to.
+     */
+    static J.Block minimumViableSpacing(J.Block b, Object parent) {
         if (!b.isStatic() && (parent instanceof J.MethodDeclaration || parent instanceof J.ClassDeclaration) &&
                 b.getPrefix().getWhitespace().isEmpty()) {
             b = b.withPrefix(b.getPrefix().withWhitespace(" "));
@@ -80,10 +104,7 @@ public class MinimumViableSpacingVisitor<P> extends JavaIsoVisitor<P> {
         return b;
     }
 
-    @Override
-    public J.MethodDeclaration visitMethodDeclaration(J.MethodDeclaration method, P p) {
-        J.MethodDeclaration m = super.visitMethodDeclaration(method, p);
-
+    static J.MethodDeclaration minimumViableSpacing(J.MethodDeclaration m) {
         boolean first = true;
         if (!m.getAnnotations().isEmpty()) {
             first = false;
@@ -124,19 +145,14 @@ public class MinimumViableSpacingVisitor<P> extends JavaIsoVisitor<P> {
         return m;
     }
 
-    @Override
-    public J.Return visitReturn(J.Return retrn, P p) {
-        J.Return r = super.visitReturn(retrn, p);
+    static J.Return minimumViableSpacing(J.Return r) {
         if (r.getExpression() != null && r.getExpression().getPrefix().getWhitespace().isEmpty()) {
             r = r.withExpression(r.getExpression().withPrefix(r.getExpression().getPrefix().withWhitespace(" ")));
         }
         return r;
     }
 
-    @Override
-    public J.VariableDeclarations visitVariableDeclarations(J.VariableDeclarations multiVariable, P p) {
-        J.VariableDeclarations v = super.visitVariableDeclarations(multiVariable, p);
-
+    static J.VariableDeclarations minimumViableSpacing(J.VariableDeclarations v) {
         if (Space.firstPrefix(v.getVariables()).getWhitespace().isEmpty()) {
             v = v.withVariables(Space.formatFirstPrefix(v.getVariables(),
                     v.getVariables().iterator().next().getPrefix().withWhitespace(" ")));
@@ -26,8 +26,20 @@ import org.openrewrite.java.tree.Space;
 public class NormalizeFormatVisitor<P> extends JavaIsoVisitor<P> {
     @Override
     public J.ClassDeclaration visitClassDeclaration(J.ClassDeclaration classDecl, P p) {
-        J.ClassDeclaration c = super.visitClassDeclaration(classDecl, p);
+        return normalize(super.visitClassDeclaration(classDecl, p));
+    }
+
+    @Override
+    public J.MethodDeclaration visitMethodDeclaration(J.MethodDeclaration method, P p) {
+        return normalize(super.visitMethodDeclaration(method, p));
+    }
 
+    @Override
+    public J.VariableDeclarations visitVariableDeclarations(J.VariableDeclarations multiVariable, P p) {
+        return normalize(super.visitVariableDeclarations(multiVariable, p));
+    }
+
+    static J.ClassDeclaration normalize(J.ClassDeclaration c) {
         if (!c.getAnnotations().isEmpty()) {
             c = concatenatePrefix(c, Space.firstPrefix(c.getAnnotations()));
             c = c.withAnnotations(Space.formatFirstPrefix(c.getAnnotations(), Space.EMPTY));
@@ -57,10 +69,7 @@ public class NormalizeFormatVisitor<P> extends JavaIsoVisitor<P> {
     }
 
     @SuppressWarnings("ConstantConditions")
-    @Override
-    public J.MethodDeclaration visitMethodDeclaration(J.MethodDeclaration method, P p) {
-        J.MethodDeclaration m = super.visitMethodDeclaration(method, p);
-
+    static J.MethodDeclaration normalize(J.MethodDeclaration m) {
         if (!m.getAnnotations().isEmpty()) {
             m = concatenatePrefix(m, Space.firstPrefix(m.getAnnotations()));
             m = m.withAnnotations(Space.formatFirstPrefix(m.getAnnotations(), Space.EMPTY));
@@ -91,10 +100,7 @@ public class NormalizeFormatVisitor<P> extends JavaIsoVisitor<P> {
     }
 
     @SuppressWarnings("ConstantConditions")
-    @Override
-    public J.VariableDeclarations visitVariableDeclarations(J.VariableDeclarations multiVariable, P p) {
-        J.VariableDeclarations v = super.visitVariableDeclarations(multiVariable, p);
-
+    static J.VariableDeclarations normalize(J.VariableDeclarations v) {
         if (!v.getAnnotations().isEmpty()) {
             v = concatenatePrefix(v, Space.firstPrefix(v.getAnnotations()));
             v = v.withAnnotations(Space.formatFirstPrefix(v.getAnnotations(), Space.EMPTY));
@@ -116,7 +122,7 @@ public class NormalizeFormatVisitor<P> extends JavaIsoVisitor<P> {
         return v;
     }
 
-    private <J2 extends J> J2 concatenatePrefix(J2 j, Space prefix) {
+    private static <J2 extends J> J2 concatenatePrefix(J2 j, Space prefix) {
         return j.withPrefix(j.getPrefix().withWhitespace(j.getPrefix().getWhitespace() + prefix.getWhitespace()));
     }
 }
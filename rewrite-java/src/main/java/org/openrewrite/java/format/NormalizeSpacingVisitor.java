@@ -0,0 +1,83 @@
+/*
+ * Copyright 2020 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.format;
+
+import org.openrewrite.java.JavaIsoVisitor;
+import org.openrewrite.java.tree.J;
+import org.openrewrite.java.tree.Space;
+
+import static org.openrewrite.java.format.RemoveTrailingWhitespaceVisitor.removeTrailingWhitespace;
+import static org.openrewrite.java.format.RemoveTrailingWhitespaceVisitor.removeTrailingWhitespaceAtEof;
+
+/**
+ * Does the work of {@link NormalizeFormatVisitor}, {@link MinimumViableSpacingVisitor} and
+ * {@link RemoveTrailingWhitespaceVisitor}, in that order, in a single traversal.
+ * <p>
+ * Each tree is changed by all three once its children have been. This gives the same result as running them one
+ * after the other, because none of them looks at anything beneath the tree it is changing other than whether a
+ * space is empty, which removing trailing whitespace never changes. Trailing whitespace is removed again from the
+ * prefix normalization may have moved whitespace into.
+ */
+public class NormalizeSpacingVisitor<P> extends JavaIsoVisitor<P> {
+    public NormalizeSpacingVisitor() {
+        setCursoringOn();
+    }
+
+    @Override
+    public J.CompilationUnit visitCompilationUnit(J.CompilationUnit cu, P p) {
+        String eof = removeTrailingWhitespaceAtEof(cu.getEof());
+        J.CompilationUnit c = super.visitCompilationUnit(cu, p);
+        return c.withEof(c.getEof().withWhitespace(eof));
+    }
+
+    @Override
+    public J.ClassDeclaration visitClassDeclaration(J.ClassDeclaration classDecl, P p) {
+        J.ClassDeclaration c = NormalizeFormatVisitor.normalize(super.visitClassDeclaration(classDecl, p));
+        c = MinimumViableSpacingVisitor.minimumViableSpacing(c);
+        return c.withPrefix(removeTrailingWhitespace(c.getPrefix()));
+    }
+
+    @Override
+    public J.Block visitBlock(J.Block block, P p) {
+        J.Block b = super.visitBlock(block, p);
+        @SuppressWarnings("ConstantConditions") Object parent = getCursor().getParent().getValue();
+        return MinimumViableSpacingVisitor.minimumViableSpacing(b, parent);
+    }
+
+    @Override
+    public J.MethodDeclaration visitMethodDeclaration(J.MethodDeclaration method, P p) {
+        J.MethodDeclaration m = NormalizeFormatVisitor.normalize(super.visitMethodDeclaration(method, p));
+        m = MinimumViableSpacingVisitor.minimumViableSpacing(m);
+        return m.withPrefix(removeTrailingWhitespace(m.getPrefix()));
+    }
+
+    @Override
+    public J.Return visitReturn(J.Return retrn, P p) {
+        return MinimumViableSpacingVisitor.minimumViableSpacing(super.visitReturn(retrn, p));
+    }
+
+    @Override
+    public J.VariableDeclarations visitVariableDeclarations(J.VariableDeclarations multiVariable, P p) {
+        J.VariableDeclarations v = NormalizeFormatVisitor.normalize(super.visitVariableDeclarations(multiVariable, p));
+        v = MinimumViableSpacingVisitor.minimumViableSpacing(v);
+        return v.withPrefix(removeTrailingWhitespace(v.getPrefix()));
+    }
+
+    @Override
+    public Space visitSpace(Space space, Space.Location loc, P p) {
+        return removeTrailingWhitespace(space);
+    }
+}
@@ -22,17 +22,26 @@ import org.openrewrite.java.tree.Space;
 public class RemoveTrailingWhitespaceVisitor<P> extends JavaIsoVisitor<P> {
     @Override
     public J.CompilationUnit visitCompilationUnit(J.CompilationUnit cu, P p) {
-        String eof = cu.getEof().getWhitespace();
-        eof = eof.chars().filter(c -> c == '\n' || c == '\r')
-                .collect(StringBuilder::new, StringBuilder::appendCodePoint, StringBuilder::append)
-                .toString();
-
+        String eof = removeTrailingWhitespaceAtEof(cu.getEof());
         J.CompilationUnit c = super.visitCompilationUnit(cu, p);
         return c.withEof(c.getEof().withWhitespace(eof));
     }
 
     @Override
     public Space visitSpace(Space space, Space.Location loc, P p) {
+        return removeTrailingWhitespace(space);
+    }
+
+    /**
+     * @return Only the line breaks of the whitespace at the end of the file.
+     */
+    static String removeTrailingWhitespaceAtEof(Space eof) {
+        return eof.getWhitespace().chars().filter(c -> c == '\n' || c == '\r')
+                .collect(StringBuilder::new, StringBuilder::appendCodePoint, StringBuilder::append)
+                .toString();
+    }
+
+    static Space removeTrailingWhitespace(Space space) {
         Space s = space;
         int lastNewline = s.getWhitespace().lastIndexOf('\n');
         if (lastNewline > 0) {
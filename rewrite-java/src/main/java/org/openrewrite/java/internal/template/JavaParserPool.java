@@ -0,0 +1,62 @@
+/*
+ * Copyright 2020 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.internal.template;
+
+import org.openrewrite.java.JavaParser;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Parsers shared by every template that isn't given a parser of its own. Creating a parser and loading the
+ * symbols of the JDK into it is far more expensive than compiling a template, so parsers are kept between uses
+ * rather than created for each template. A parser is borrowed by one thread for the duration of a single parse,
+ * and as many parsers are created as there are threads compiling templates at the same time. Only as many as there
+ * are processors are kept once they are returned, and the rest are released along with the symbols loaded into them.
+ */
+public class JavaParserPool {
+    private static final int MAX_IDLE = Runtime.getRuntime().availableProcessors();
+
+    private static final Queue<JavaParser> idle = new ConcurrentLinkedQueue<>();
+    private static final AtomicInteger idleCount = new AtomicInteger();
+
+    private JavaParserPool() {
+    }
+
+    public static <T> T withParser(Function<JavaParser, T> parse) {
+        JavaParser parser = idle.poll();
+        if (parser != null) {
+            idleCount.decrementAndGet();
+        } else {
+            parser = JavaParser.fromJavaVersion()
+                    .logCompilationWarningsAndErrors(false)
+                    .build();
+        }
+
+        try {
+            return parse.apply(parser);
+        } finally {
+            if (idleCount.incrementAndGet() <= MAX_IDLE) {
+                // idle parsers don't hold on to what they last compiled
+                idle.offer(parser.reset());
+            } else {
+                idleCount.decrementAndGet();
+            }
+        }
+    }
+}
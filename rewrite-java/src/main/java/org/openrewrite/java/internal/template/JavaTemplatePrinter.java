@@ -30,6 +30,14 @@ import java.util.concurrent.atomic.AtomicReference;
 
 import static java.util.Collections.emptyList;
 
+/**
+ * Prints the synthetic compilation unit a template is compiled in. Method bodies, initializers and blocks outside
+ * of the insertion scope are left out, since the template can't refer to anything declared in them.
+ * <p>
+ * In minimal mode, the statements preceding the insertion point that declare nothing the template could refer to,
+ * and all comments of the enclosing compilation unit, are left out as well. Class declarations, fields and method
+ * signatures are still printed in full, so the synthetic source still grows with the number of members.
+ */
 public class JavaTemplatePrinter extends JavaPrinter<Cursor> {
     private static final J.Block EMPTY_BLOCK = new J.Block(Tree.randomId(), Space.EMPTY, Markers.EMPTY,
             new JRightPadded<>(false, Space.EMPTY, Markers.EMPTY), Collections.emptyList(), Space.EMPTY);
@@ -41,10 +49,16 @@ public class JavaTemplatePrinter extends JavaPrinter<Cursor> {
     private final Tree changing;
     private final Set<String> imports;
     private final String code;
-
+    private final boolean minimal;
 
     public JavaTemplatePrinter(String code, Tree changing, JavaCoordinates coordinates, Set<String> imports) {
+        this(code, changing, coordinates, imports, false);
+    }
+
+    public JavaTemplatePrinter(String code, Tree changing, JavaCoordinates coordinates, Set<String> imports,
+                               boolean minimal) {
         super(TreePrinter.identity());
+        this.minimal = minimal;
         this.code = "/*" + SNIPPET_MARKER_START + "*/" + code + "/*" + SNIPPET_MARKER_END + "*/";
         this.coordinates = coordinates;
         this.changing = changing;
@@ -108,9 +122,23 @@ public class JavaTemplatePrinter extends JavaPrinter<Cursor> {
                 // up to the statement that is in insertion scope.
                 List<Statement> statementsInScope = new ArrayList<>();
                 for (Statement statement : b.getStatements()) {
-                    statementsInScope.add(statement);
                     if (insertionScope.isScopeInPath(statement)) {
+                        statementsInScope.add(statement);
+                        break;
+                    } else if (!minimal || declaresNames(statement)) {
+                        statementsInScope.add(statement);
+                    }
+                }
+                b = b.withStatements(statementsInScope);
+            } else if (minimal) {
+                // The insertion point is this block, or one of its statements which is then the last one needed.
+                List<Statement> statementsInScope = new ArrayList<>();
+                for (Statement statement : b.getStatements()) {
+                    if (coordinates.getTree().getId().equals(statement.getId())) {
+                        statementsInScope.add(statement);
                         break;
+                    } else if (declaresNames(statement)) {
+                        statementsInScope.add(statement);
                     }
                 }
                 b = b.withStatements(statementsInScope);
@@ -126,9 +154,26 @@ public class JavaTemplatePrinter extends JavaPrinter<Cursor> {
         if (loc == coordinates.getSpaceLocation() && j != null && coordinates.getTree().getId().equals(j.getId())) {
             printTemplate();
         }
+
+        if (minimal && !space.getComments().isEmpty()) {
+            StringBuilder acc = getPrinter();
+            acc.append(space.getWhitespace());
+            for (Comment comment : space.getComments()) {
+                // a comment may be all that separates two tokens
+                acc.append(' ').append(comment.getSuffix());
+            }
+            return space;
+        }
         return super.visitSpace(space, loc, cursor);
     }
 
+    /**
+     * @return Whether the statement declares a variable or type that statements following it can refer to.
+     */
+    private static boolean declaresNames(Statement statement) {
+        return statement instanceof J.VariableDeclarations || statement instanceof J.ClassDeclaration;
+    }
+
     @Override
     public J visitClassDeclaration(J.ClassDeclaration classDecl, Cursor insertionScope) {
         if (!insertionScope.isScopeInPath(classDecl) || !classDecl.getId().equals(coordinates.getTree().getId())) {
@@ -0,0 +1,204 @@
+/*
+ * Copyright 2020 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.internal.template;
+
+import org.openrewrite.Cursor;
+import org.openrewrite.Tree;
+import org.openrewrite.internal.lang.Nullable;
+import org.openrewrite.java.tree.*;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * What a template can refer to where it is inserted, without the formatting, comments, method bodies and
+ * statements of the enclosing compilation unit that the synthetic source it is compiled in also depends on.
+ * Together with the template itself, it determines the snippets the template compiles to, and so keys the
+ * {@link SnippetCache}. The same template applied in places that see the same declarations, e.g. in different
+ * methods of a class with the same parameters, then only needs to be compiled once.
+ * <p>
+ * The signature is made of the package and imports of the compilation unit and the headers of its classes, and of
+ * each tree on the path to the insertion point:
+ * <ul>
+ *     <li>For a class, its header and the headers of its members.</li>
+ *     <li>For a method, its header without its name.</li>
+ *     <li>For a block of statements, the variables and classes declared before the insertion point.</li>
+ *     <li>For any other statement or expression, all of it, since the template may be typed by its context.</li>
+ * </ul>
+ */
+public class ScopeSignature {
+    private final StringBuilder signature = new StringBuilder();
+
+    private ScopeSignature() {
+    }
+
+    /**
+     * @param changing        The tree that the template is applied to, which may have changed since the cursor was
+     *                        created.
+     * @param insertionScope  The path from the compilation unit to the tree at the coordinates.
+     * @param coordinates     Where the template is inserted.
+     * @return The scope signature.
+     */
+    public static String of(Tree changing, Cursor insertionScope, JavaCoordinates coordinates) {
+        List<J> path = new ArrayList<>();
+        for (Iterator<Object> values = insertionScope.getPath(); values.hasNext(); ) {
+            Object value = values.next();
+            if (value instanceof J) {
+                J j = ((J) value).getId().equals(changing.getId()) ? (J) changing : (J) value;
+                if (path.isEmpty() || !path.get(0).getId().equals(j.getId())) {
+                    path.add(0, j);
+                }
+            }
+        }
+
+        ScopeSignature scope = new ScopeSignature();
+        scope.signature.append(coordinates.getMode()).append(' ').append(coordinates.getSpaceLocation()).append(' ')
+                .append(coordinates.getTree().getClass().getSimpleName()).append('\n');
+
+        for (int i = 0; i < path.size(); i++) {
+            J j = path.get(i);
+            J parent = i == 0 ? null : path.get(i - 1);
+            J child = i + 1 < path.size() ? path.get(i + 1) : null;
+            if (j instanceof J.CompilationUnit) {
+                scope.compilationUnit((J.CompilationUnit) j);
+            } else if (j instanceof J.ClassDeclaration) {
+                scope.classHeader((J.ClassDeclaration) j);
+            } else if (j instanceof J.MethodDeclaration) {
+                scope.methodHeader((J.MethodDeclaration) j, false);
+            } else if (j instanceof J.Block && (parent instanceof J.ClassDeclaration || parent instanceof J.NewClass)) {
+                scope.members((J.Block) j);
+            } else if (j instanceof J.Block) {
+                scope.declarationsBefore((J.Block) j, child);
+            } else if (child != null || !coordinates.isReplaceWholeCursorValue() && coordinates.isReplacement()) {
+                // the tree at the coordinates is not part of the synthetic source when the template replaces it,
+                // or is inserted next to it
+                scope.signature.append(j.printTrimmed()).append('\n');
+            }
+        }
+        return scope.signature.toString();
+    }
+
+    private void compilationUnit(J.CompilationUnit cu) {
+        if (cu.getPackageDeclaration() != null) {
+            signature.append("package ").append(cu.getPackageDeclaration().getExpression().printTrimmed()).append('\n');
+        }
+        for (J.Import anImport : cu.getImports()) {
+            signature.append(anImport.isStatic() ? "import static " : "import ")
+                    .append(anImport.getQualid().printTrimmed()).append('\n');
+        }
+        for (J.ClassDeclaration classDecl : cu.getClasses()) {
+            classHeader(classDecl);
+        }
+    }
+
+    private void classHeader(J.ClassDeclaration classDecl) {
+        modifiers(classDecl.getModifiers());
+        signature.append(classDecl.getKind()).append(' ').append(classDecl.getSimpleName());
+        typeParameters(classDecl.getTypeParameters());
+        if (classDecl.getExtends() != null) {
+            signature.append(" extends ").append(classDecl.getExtends().printTrimmed());
+        }
+        if (classDecl.getImplements() != null) {
+            for (TypeTree anInterface : classDecl.getImplements()) {
+                signature.append(" implements ").append(anInterface.printTrimmed());
+            }
+        }
+        signature.append('\n');
+    }
+
+    private void methodHeader(J.MethodDeclaration method, boolean withName) {
+        modifiers(method.getModifiers());
+        typeParameters(method.getTypeParameters());
+        if (method.getReturnTypeExpression() != null) {
+            signature.append(method.getReturnTypeExpression().printTrimmed()).append(' ');
+        }
+        if (withName) {
+            signature.append(method.getSimpleName());
+        }
+        signature.append('(');
+        for (Statement parameter : method.getParameters()) {
+            if (parameter instanceof J.VariableDeclarations) {
+                variables((J.VariableDeclarations) parameter);
+            }
+        }
+        signature.append(")\n");
+    }
+
+    private void members(J.Block classBody) {
+        for (Statement member : classBody.getStatements()) {
+            if (member instanceof J.VariableDeclarations) {
+                variables((J.VariableDeclarations) member);
+                signature.append('\n');
+            } else if (member instanceof J.MethodDeclaration) {
+                methodHeader((J.MethodDeclaration) member, true);
+            } else if (member instanceof J.ClassDeclaration) {
+                classHeader((J.ClassDeclaration) member);
+            } else if (member instanceof J.EnumValueSet) {
+                signature.append(member.printTrimmed()).append('\n');
+            }
+        }
+    }
+
+    private void declarationsBefore(J.Block block, @Nullable J child) {
+        for (Statement statement : block.getStatements()) {
+            if (child != null && statement.getId().equals(child.getId())) {
+                break;
+            } else if (statement instanceof J.VariableDeclarations) {
+                variables((J.VariableDeclarations) statement);
+                signature.append('\n');
+            } else if (statement instanceof J.ClassDeclaration) {
+                classHeader((J.ClassDeclaration) statement);
+            }
+        }
+    }
+
+    private void variables(J.VariableDeclarations variables) {
+        modifiers(variables.getModifiers());
+        if (variables.getTypeExpression() != null) {
+            signature.append(variables.getTypeExpression().printTrimmed());
+        }
+        for (int i = 0; i < variables.getDimensionsBeforeName().size(); i++) {
+            signature.append("[]");
+        }
+        if (variables.getVarargs() != null) {
+            signature.append("...");
+        }
+        for (J.VariableDeclarations.NamedVariable variable : variables.getVariables()) {
+            signature.append(' ').append(variable.getSimpleName());
+            for (int i = 0; i < variable.getDimensionsAfterName().size(); i++) {
+                signature.append("[]");
+            }
+        }
+        signature.append(';');
+    }
+
+    private void modifiers(List<J.Modifier> modifiers) {
+        for (J.Modifier modifier : modifiers) {
+            signature.append(modifier.getType()).append(' ');
+        }
+    }
+
+    private void typeParameters(@Nullable List<J.TypeParameter> typeParameters) {
+        if (typeParameters != null && !typeParameters.isEmpty()) {
+            signature.append('<');
+            for (J.TypeParameter typeParameter : typeParameters) {
+                signature.append(typeParameter.printTrimmed()).append(',');
+            }
+            signature.append("> ");
+        }
+    }
+}
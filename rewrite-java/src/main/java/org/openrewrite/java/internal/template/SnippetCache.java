@@ -0,0 +1,97 @@
+/*
+ * Copyright 2020 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.internal.template;
+
+import org.openrewrite.internal.lang.Nullable;
+import org.openrewrite.java.JavaVisitor;
+import org.openrewrite.java.tree.J;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.openrewrite.Tree.randomId;
+
+/**
+ * The snippets extracted from generated template sources, keyed by the template code and the
+ * {@link ScopeSignature} of where it was applied, since the rest of the generated source differs from one place to
+ * the next without changing what the template compiles to. The types attributed to a snippet depend on the parser
+ * that compiled it, so a cache must only be shared by templates that compile with equivalent parsers.
+ * <p>
+ * Every snippet handed out after the first is a copy with fresh ids, so that the same snippet can be inserted
+ * at many places in a tree without two of its elements sharing an id.
+ */
+public class SnippetCache {
+    private static final int MAX_ENTRIES = 128;
+
+    private static final SnippetCache SHARED = new SnippetCache();
+
+    private final Map<String, List<J>> snippets = new LinkedHashMap<String, List<J>>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, List<J>> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    /**
+     * @return The cache shared by all templates compiled with a {@link JavaParserPool} parser.
+     */
+    public static SnippetCache shared() {
+        return SHARED;
+    }
+
+    /**
+     * @param key The template code and the signature of the scope it was applied in.
+     * @return A copy of the snippets with fresh ids, or null if the template hasn't been compiled in this scope before.
+     */
+    @Nullable
+    public List<J> get(String key) {
+        List<J> cached;
+        synchronized (snippets) {
+            cached = snippets.get(key);
+        }
+        if (cached == null) {
+            return null;
+        }
+
+        List<J> copies = new ArrayList<>(cached.size());
+        for (J snippet : cached) {
+            copies.add(new RandomizeIds().visit(snippet, 0));
+        }
+        return copies;
+    }
+
+    public void put(String key, List<J> extracted) {
+        List<J> copy = new ArrayList<>(extracted);
+        synchronized (snippets) {
+            snippets.put(key, copy);
+        }
+    }
+
+    public void clear() {
+        synchronized (snippets) {
+            snippets.clear();
+        }
+    }
+
+    private static class RandomizeIds extends JavaVisitor<Integer> {
+        @Override
+        public J postVisit(J tree, Integer p) {
+            return tree.withId(randomId());
+        }
+    }
+}
@@ -18,7 +18,10 @@ package org.openrewrite.java.migrate;
 
 import org.openrewrite.Recipe;
 import org.openrewrite.java.ChangeMethodName;
-import org.openrewrite.java.ChangeType;
+import org.openrewrite.java.ChangeTypes;
+
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * This recipe will migrate the OpenRewrite's 6.x naming conventions to version 7.0.
@@ -27,13 +30,15 @@ public class MigrateOpenRewrite6xNames extends Recipe {
 
     public MigrateOpenRewrite6xNames() {
         //Java Tree Type Changes
-        doNext(new ChangeType("org.openrewrite.java.tree.J.Assign", "org.openrewrite.java.tree.J.Assignment"));
-        doNext(new ChangeType("org.openrewrite.java.tree.J.AssignOp", "org.openrewrite.java.tree.J.AssignmentOperation"));
-        doNext(new ChangeType("org.openrewrite.java.tree.J.ClassDecl", "org.openrewrite.java.tree.J.ClassDeclaration"));
-        doNext(new ChangeType("org.openrewrite.java.tree.J.Ident", "org.openrewrite.java.tree.J.Identifier"));
-        doNext(new ChangeType("org.openrewrite.java.tree.J.MethodDecl", "org.openrewrite.java.tree.J.MethodDeclaration"));
-        doNext(new ChangeType("org.openrewrite.java.tree.J.VariableDecls", "org.openrewrite.java.tree.J.VariableDeclarations"));
-        doNext(new ChangeType("org.openrewrite.java.tree.J.VariableDeclarations.NamedVar", "org.openrewrite.java.tree.J.VariableDeclarations.NamedVariable"));
+        doNext(new ChangeTypes(mapOf(
+                "org.openrewrite.java.tree.J.Assign", "org.openrewrite.java.tree.J.Assignment",
+                "org.openrewrite.java.tree.J.AssignOp", "org.openrewrite.java.tree.J.AssignmentOperation",
+                "org.openrewrite.java.tree.J.ClassDecl", "org.openrewrite.java.tree.J.ClassDeclaration",
+                "org.openrewrite.java.tree.J.Ident", "org.openrewrite.java.tree.J.Identifier",
+                "org.openrewrite.java.tree.J.MethodDecl", "org.openrewrite.java.tree.J.MethodDeclaration",
+                "org.openrewrite.java.tree.J.VariableDecls", "org.openrewrite.java.tree.J.VariableDeclarations",
+                "org.openrewrite.java.tree.J.VariableDeclarations.NamedVar", "org.openrewrite.java.tree.J.VariableDeclarations.NamedVariable"
+        )));
 
         //Java Tree Type Attribute Changes
         doNext(new ChangeMethodName("org.openrewrite.java.tree.J.AnnotatedType getTypeExpr(..)", "getTypeExpression"));
@@ -74,13 +79,15 @@ public class MigrateOpenRewrite6xNames extends Recipe {
         doNext(new ChangeMethodName("org.openrewrite.java.tree.J.VariableDeclarations withVars(..)", "withVariables"));
 
         //Coordinates Type Changes
-        doNext(new ChangeType("org.openrewrite.java.tree.Coordinates.Assign", "org.openrewrite.java.tree.Coordinates.Assignment"));
-        doNext(new ChangeType("org.openrewrite.java.tree.Coordinates.AssignOp", "org.openrewrite.java.tree.Coordinates.AssignmentOperation"));
-        doNext(new ChangeType("org.openrewrite.java.tree.Coordinates.ClassDecl", "org.openrewrite.java.tree.Coordinates.ClassDeclaration"));
-        doNext(new ChangeType("org.openrewrite.java.tree.Coordinates.Ident", "org.openrewrite.java.tree.Coordinates.Identifier"));
-        doNext(new ChangeType("org.openrewrite.java.tree.Coordinates.MethodDecl", "org.openrewrite.java.tree.Coordinates.MethodDeclaration"));
-        doNext(new ChangeType("org.openrewrite.java.tree.Coordinates.VariableDecls", "org.openrewrite.java.tree.Coordinates.VariableDeclarations"));
-        doNext(new ChangeType("org.openrewrite.java.tree.Coordinates.VariableDeclarations.NamedVar", "org.openrewrite.java.tree.Coordinates.VariableDeclarations.NamedVariable"));
+        doNext(new ChangeTypes(mapOf(
+                "org.openrewrite.java.tree.Coordinates.Assign", "org.openrewrite.java.tree.Coordinates.Assignment",
+                "org.openrewrite.java.tree.Coordinates.AssignOp", "org.openrewrite.java.tree.Coordinates.AssignmentOperation",
+                "org.openrewrite.java.tree.Coordinates.ClassDecl", "org.openrewrite.java.tree.Coordinates.ClassDeclaration",
+                "org.openrewrite.java.tree.Coordinates.Ident", "org.openrewrite.java.tree.Coordinates.Identifier",
+                "org.openrewrite.java.tree.Coordinates.MethodDecl", "org.openrewrite.java.tree.Coordinates.MethodDeclaration",
+                "org.openrewrite.java.tree.Coordinates.VariableDecls", "org.openrewrite.java.tree.Coordinates.VariableDeclarations",
+                "org.openrewrite.java.tree.Coordinates.VariableDeclarations.NamedVar", "org.openrewrite.java.tree.Coordinates.VariableDeclarations.NamedVariable"
+        )));
 
         //Java Visitor Names
         doNext(new ChangeMethodName("org.openrewrite.java.JavaVisitor visitAssign(..)", "visitAssignment"));
@@ -112,4 +119,12 @@ public class MigrateOpenRewrite6xNames extends Recipe {
         //NEW_CLASS_ENCL_SUFFIX         > NEW_CLASS_ENCLOSING_SUFFIX
 
     }
+
+    private static Map<String, String> mapOf(String... oldAndNewTypeNames) {
+        Map<String, String> oldToNew = new HashMap<>();
+        for (int i = 0; i < oldAndNewTypeNames.length; i += 2) {
+            oldToNew.put(oldAndNewTypeNames[i], oldAndNewTypeNames[i + 1]);
+        }
+        return oldToNew;
+    }
 }
@@ -44,6 +44,14 @@ public class FindAnnotations extends Recipe {
     protected TreeVisitor<?, ExecutionContext> getVisitor() {
         AnnotationMatcher annotationMatcher = new AnnotationMatcher(annotationPattern);
         return new JavaIsoVisitor<ExecutionContext>() {
+            @Override
+            public J.CompilationUnit visitCompilationUnit(J.CompilationUnit cu, ExecutionContext ctx) {
+                if (SymbolIndex.excludes(ctx, cu, index -> index.findAnnotations(annotationPattern))) {
+                    return cu;
+                }
+                return super.visitCompilationUnit(cu, ctx);
+            }
+
             @Override
             public J.Annotation visitAnnotation(J.Annotation annotation, ExecutionContext ctx) {
                 J.Annotation a = super.visitAnnotation(annotation, ctx);
@@ -0,0 +1,160 @@
+/*
+ * Copyright 2020 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.search;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.Incubating;
+import org.openrewrite.Recipe;
+import org.openrewrite.SourceFile;
+import org.openrewrite.TreeVisitor;
+import org.openrewrite.java.JavaIsoVisitor;
+import org.openrewrite.java.tree.J;
+import org.openrewrite.marker.RecipeSearchResult;
+
+import java.util.*;
+
+/**
+ * Finds blocks of code that are duplicated elsewhere in the source files, disregarding formatting and comments.
+ * <p>
+ * The structural hash of every block is computed in a single pass over each compilation unit, and blocks are then
+ * bucketed by their hash, so that finding duplicates takes time linear in the size of the source files rather than
+ * comparing every pair of blocks. Only blocks within the same bucket are then compared to confirm they are equal. Blocks that are duplicates of each other are marked with the same description.
+ */
+@Incubating(since = "7.0.0")
+@Getter
+@EqualsAndHashCode(callSuper = true, onlyExplicitlyIncluded = true)
+public class FindDuplicateCode extends Recipe {
+    private static final String DUPLICATES = FindDuplicateCode.class.getName() + ".duplicates";
+
+    /**
+     * The minimum number of trees a block consists of, itself included, for it to be considered. Small blocks
+     * like {@code { return; }} are duplicated everywhere and are not worth reporting.
+     */
+    @EqualsAndHashCode.Include
+    private final int minimumSize;
+
+    /**
+     * Whether blocks must also refer to the same types to be duplicates.
+     */
+    @EqualsAndHashCode.Include
+    private final boolean typeAware;
+
+    public FindDuplicateCode(int minimumSize, boolean typeAware) {
+        this.minimumSize = minimumSize;
+        this.typeAware = typeAware;
+        doNext(new MarkDuplicates());
+    }
+
+    @Override
+    protected List<SourceFile> visit(List<SourceFile> before, ExecutionContext ctx) {
+        Duplicates duplicates = ctx.getMessage(DUPLICATES);
+        if (duplicates == null || duplicates.sourceFiles != before) {
+            ctx.putMessage(DUPLICATES, findDuplicates(before));
+        }
+        return before;
+    }
+
+    private Duplicates findDuplicates(List<SourceFile> sourceFiles) {
+        Map<Long, List<J.Block>> blocksByHash = new HashMap<>();
+        StructuralHash.Hasher hasher = new StructuralHash.Hasher(typeAware, (j, hash, size) -> {
+            if (j instanceof J.Block && size >= minimumSize) {
+                blocksByHash.computeIfAbsent(hash, h -> new ArrayList<>(1)).add((J.Block) j);
+            }
+        });
+        for (SourceFile sourceFile : sourceFiles) {
+            if (sourceFile instanceof J.CompilationUnit) {
+                hasher.visit(sourceFile, 0);
+            }
+        }
+
+        Map<UUID, String> descriptions = new HashMap<>();
+        for (Map.Entry<Long, List<J.Block>> bucket : blocksByHash.entrySet()) {
+            if (bucket.getValue().size() > 1) {
+                // blocks that hash the same are only duplicates once confirmed to be equal, and a bucket holds
+                // more than one group of duplicates when the hashes of different blocks collide
+                List<List<J.Block>> groups = new ArrayList<>(1);
+                nextBlock:
+                for (J.Block block : bucket.getValue()) {
+                    for (List<J.Block> group : groups) {
+                        if (StructuralHash.areEqual(group.get(0), block, typeAware)) {
+                            group.add(block);
+                            continue nextBlock;
+                        }
+                    }
+                    List<J.Block> group = new ArrayList<>(2);
+                    group.add(block);
+                    groups.add(group);
+                }
+
+                int duplicated = 0;
+                for (List<J.Block> group : groups) {
+                    if (group.size() > 1) {
+                        String description = "duplicate " + Long.toHexString(bucket.getKey()) +
+                                (duplicated++ == 0 ? "" : "-" + duplicated);
+                        for (J.Block block : group) {
+                            descriptions.put(block.getId(), description);
+                        }
+                    }
+                }
+            }
+        }
+        return new Duplicates(sourceFiles, descriptions);
+    }
+
+    private static class Duplicates {
+        private final List<SourceFile> sourceFiles;
+
+        /**
+         * The descriptions of the blocks that are duplicated, by their id. Duplicates of each other share a
+         * description.
+         */
+        private final Map<UUID, String> descriptions;
+
+        private Duplicates(List<SourceFile> sourceFiles, Map<UUID, String> descriptions) {
+            this.sourceFiles = sourceFiles;
+            this.descriptions = descriptions;
+        }
+    }
+
+    private class MarkDuplicates extends Recipe {
+        @Override
+        protected TreeVisitor<?, ExecutionContext> getVisitor() {
+            return new JavaIsoVisitor<ExecutionContext>() {
+                @Override
+                public J.CompilationUnit visitCompilationUnit(J.CompilationUnit cu, ExecutionContext ctx) {
+                    Duplicates duplicates = ctx.getMessage(DUPLICATES);
+                    if (duplicates == null || duplicates.descriptions.isEmpty()) {
+                        return cu;
+                    }
+                    return super.visitCompilationUnit(cu, ctx);
+                }
+
+                @Override
+                public J.Block visitBlock(J.Block block, ExecutionContext ctx) {
+                    J.Block b = super.visitBlock(block, ctx);
+                    Duplicates duplicates = ctx.getMessage(DUPLICATES);
+                    String description = duplicates.descriptions.get(block.getId());
+                    if (description != null) {
+                        b = b.withMarker(new RecipeSearchResult(FindDuplicateCode.this, description));
+                    }
+                    return b;
+                }
+            };
+        }
+    }
+}
@@ -39,6 +39,14 @@ public class FindFields extends Recipe {
     @Override
     protected TreeVisitor<?, ExecutionContext> getVisitor() {
         return new JavaIsoVisitor<ExecutionContext>() {
+            @Override
+            public J.CompilationUnit visitCompilationUnit(J.CompilationUnit cu, ExecutionContext ctx) {
+                if (SymbolIndex.excludes(ctx, cu, index -> index.findFields(fullyQualifiedTypeName))) {
+                    return cu;
+                }
+                return super.visitCompilationUnit(cu, ctx);
+            }
+
             @Override
             public J.VariableDeclarations visitVariableDeclarations(J.VariableDeclarations multiVariable, ExecutionContext ctx) {
                 if (multiVariable.getTypeExpression() instanceof J.MultiCatch) {
@@ -44,6 +44,15 @@ public final class FindMethods extends Recipe {
     protected TreeVisitor<?, ExecutionContext> getVisitor() {
         MethodMatcher methodMatcher = new MethodMatcher(methodPattern);
         return new JavaIsoVisitor<ExecutionContext>() {
+            @Override
+            public J.CompilationUnit visitCompilationUnit(J.CompilationUnit cu, ExecutionContext ctx) {
+                if (SymbolIndex.excludes(ctx, cu, index -> index.findMethods(methodPattern)) ||
+                        !methodMatcher.matchesAnyInvocation(cu)) {
+                    return cu;
+                }
+                return super.visitCompilationUnit(cu, ctx);
+            }
+
             @Override
             public J.MethodInvocation visitMethodInvocation(J.MethodInvocation method, ExecutionContext ctx) {
                 J.MethodInvocation m = super.visitMethodInvocation(method, ctx);
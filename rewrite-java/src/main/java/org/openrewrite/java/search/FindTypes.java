@@ -46,6 +46,14 @@ public final class FindTypes extends Recipe {
                 setCursoringOn();
             }
 
+            @Override
+            public J visitCompilationUnit(J.CompilationUnit cu, ExecutionContext ctx) {
+                if (SymbolIndex.excludes(ctx, cu, index -> index.findTypes(fullyQualifiedTypeName))) {
+                    return cu;
+                }
+                return super.visitCompilationUnit(cu, ctx);
+            }
+
             @Override
             public <N extends NameTree> N visitTypeName(N name, ExecutionContext ctx) {
                 N n = super.visitTypeName(name, ctx);
@@ -16,6 +16,7 @@
 package org.openrewrite.java.search;
 
 import org.openrewrite.Incubating;
+import org.openrewrite.internal.WeakIdentityMap;
 import org.openrewrite.java.JavaVisitor;
 import org.openrewrite.java.tree.Expression;
 import org.openrewrite.java.tree.J;
@@ -24,6 +25,7 @@ import org.openrewrite.java.tree.NameTree;
 
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 
 /*
  * Recursively checks the equality of each element of two ASTs to determine if two trees are semantically equal.
@@ -31,15 +33,39 @@ import java.util.Objects;
 @Incubating(since = "6.0.0")
 public class SemanticallyEqual {
 
+    /**
+     * The structural hashes of trees that have been compared, for those that consist only of the kinds of trees
+     * this compares by structure.
+     */
+    private static final WeakIdentityMap<J, Optional<Long>> structuralHashes = new WeakIdentityMap<>();
+
     private SemanticallyEqual() {
     }
 
     public static boolean areEqual(J firstElem, J secondElem) {
+        // trees that are structurally different are not semantically equal either
+        Optional<Long> firstHash = structuralHash(firstElem);
+        Optional<Long> secondHash = structuralHash(secondElem);
+        if (firstHash.isPresent() && secondHash.isPresent() && !firstHash.get().equals(secondHash.get())) {
+            return false;
+        }
+
         SemanticallyEqualVisitor sep = new SemanticallyEqualVisitor();
         sep.visit(firstElem, secondElem); // returns null, but changes value of class variable isEqual
         return sep.isEqual;
     }
 
+    private static Optional<Long> structuralHash(J j) {
+        Optional<Long> hash = structuralHashes.get(j);
+        if (hash == null) {
+            StructuralHash.Hasher hasher = new StructuralHash.Hasher(false);
+            hasher.visit(j, 0);
+            hash = hasher.semanticallyComparable ? Optional.of(hasher.last) : Optional.empty();
+            structuralHashes.put(j, hash);
+        }
+        return hash;
+    }
+
     /**
      * Note: The following visit methods extend JavaVisitor in order to inherit access to the
      * visitor pattern set up there; however, the necessity to return a J did not fit the purposes of
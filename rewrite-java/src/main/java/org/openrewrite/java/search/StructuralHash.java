@@ -0,0 +1,288 @@
+/*
+ * Copyright 2020 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.search;
+
+import org.openrewrite.Incubating;
+import org.openrewrite.Tree;
+import org.openrewrite.internal.lang.Nullable;
+import org.openrewrite.java.JavaVisitor;
+import org.openrewrite.java.tree.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A hash of the structure of a tree that disregards whitespace, comments, markers and ids. Trees that only differ
+ * in formatting hash the same, and trees that hash differently are structurally different.
+ * <p>
+ * The hash of a tree is computed bottom-up from the hashes of its children, so hashing a tree computes the hash of
+ * every subtree along the way in the same single pass.
+ */
+@Incubating(since = "7.0.0")
+public final class StructuralHash {
+    private StructuralHash() {
+    }
+
+    /**
+     * @param j A tree.
+     * @return The structural hash of the tree, regardless of the types it is attributed with.
+     */
+    public static long of(J j) {
+        return of(j, false);
+    }
+
+    /**
+     * @param j         A tree.
+     * @param typeAware Whether the types of expressions and type names are part of the hash, so that two trees that
+     *                  read the same but refer to different types hash differently.
+     * @return The structural hash of the tree.
+     */
+    public static long of(J j, boolean typeAware) {
+        Hasher hasher = new Hasher(typeAware);
+        hasher.visit(j, 0);
+        return hasher.last;
+    }
+
+    /**
+     * Trees with the same structural hash almost always have the same structure, but as with any hash, different
+     * structures can collide. This compares the structure of two trees exactly.
+     *
+     * @param j1        A tree.
+     * @param j2        Another tree.
+     * @param typeAware Whether the types of expressions and type names must also be the same.
+     * @return Whether the two trees only differ in formatting, comments, markers and ids.
+     */
+    static boolean areEqual(J j1, J j2, boolean typeAware) {
+        Structure structure = new Structure(typeAware);
+        List<Object> structure1 = new ArrayList<>();
+        structure.visit(j1, structure1);
+        List<Object> structure2 = new ArrayList<>();
+        structure.visit(j2, structure2);
+        return structure1.equals(structure2);
+    }
+
+    /**
+     * The parts of a tree that are not themselves trees and so are not hashed as its children, including the
+     * number of dimensions of arrays, which are only whitespace in the tree.
+     */
+    @Nullable
+    private static Object attribute(J j) {
+        if (j instanceof J.Identifier) {
+            return ((J.Identifier) j).getSimpleName();
+        } else if (j instanceof J.Literal) {
+            return ((J.Literal) j).getValue();
+        } else if (j instanceof J.Binary) {
+            return ((J.Binary) j).getOperator();
+        } else if (j instanceof J.Unary) {
+            return ((J.Unary) j).getOperator();
+        } else if (j instanceof J.AssignmentOperation) {
+            return ((J.AssignmentOperation) j).getOperator();
+        } else if (j instanceof J.Modifier) {
+            return ((J.Modifier) j).getType();
+        } else if (j instanceof J.Primitive) {
+            return ((J.Primitive) j).getType().getKeyword();
+        } else if (j instanceof J.Wildcard) {
+            return ((J.Wildcard) j).getBound();
+        } else if (j instanceof J.Block) {
+            return ((J.Block) j).isStatic();
+        } else if (j instanceof J.ArrayType) {
+            return ((J.ArrayType) j).getDimensions().size();
+        } else if (j instanceof J.VariableDeclarations) {
+            return ((J.VariableDeclarations) j).getDimensionsBeforeName().size();
+        } else if (j instanceof J.VariableDeclarations.NamedVariable) {
+            return ((J.VariableDeclarations.NamedVariable) j).getDimensionsAfterName().size();
+        } else if (j instanceof J.NewArray) {
+            return ((J.NewArray) j).getDimensions().size();
+        }
+        return null;
+    }
+
+    /**
+     * The part of the type of a tree that is compared when types are, which is the fully qualified name of
+     * classes and the keyword of primitives, followed by a pair of brackets for each dimension of arrays.
+     */
+    @Nullable
+    private static String typeKey(J j) {
+        JavaType type = null;
+        if (j instanceof Expression) {
+            type = ((Expression) j).getType();
+        } else if (j instanceof NameTree) {
+            type = ((NameTree) j).getType();
+        }
+        return typeKey(type);
+    }
+
+    @Nullable
+    private static String typeKey(@Nullable JavaType type) {
+        if (type instanceof JavaType.Array) {
+            return typeKey(((JavaType.Array) type).getElemType()) + "[]";
+        } else if (type instanceof JavaType.FullyQualified) {
+            return ((JavaType.FullyQualified) type).getFullyQualifiedName();
+        } else if (type instanceof JavaType.Primitive) {
+            return ((JavaType.Primitive) type).getKeyword();
+        }
+        return null;
+    }
+
+    /**
+     * Receives the hash of every subtree as it is computed.
+     */
+    interface SubtreeListener {
+        /**
+         * @param j    A subtree.
+         * @param hash Its structural hash.
+         * @param size The number of trees in the subtree, including itself.
+         */
+        void subtree(J j, long hash, int size);
+    }
+
+    static class Hasher extends JavaVisitor<Integer> {
+        private final boolean typeAware;
+
+        @Nullable
+        private final SubtreeListener listener;
+
+        private long[] hashes = new long[32];
+        private int[] sizes = new int[32];
+        private int depth;
+
+        /**
+         * Whether every tree visited so far is of a kind {@link SemanticallyEqual} compares by structure.
+         */
+        boolean semanticallyComparable = true;
+
+        long last;
+
+        Hasher(boolean typeAware) {
+            this(typeAware, null);
+        }
+
+        Hasher(boolean typeAware, @Nullable SubtreeListener listener) {
+            this.typeAware = typeAware;
+            this.listener = listener;
+        }
+
+        @Override
+        public J visit(@Nullable Tree tree, Integer p) {
+            if (!(tree instanceof J)) {
+                return super.visit(tree, p);
+            }
+            J j = (J) tree;
+
+            if (++depth == hashes.length) {
+                hashes = Arrays.copyOf(hashes, depth * 2);
+                sizes = Arrays.copyOf(sizes, depth * 2);
+            }
+            hashes[depth] = j.getClass().getName().hashCode();
+            sizes[depth] = 1;
+
+            super.visit(tree, p);
+
+            long hash = mix(hashes[depth], attributes(j));
+            if (typeAware) {
+                hash = mix(hash, typeHash(j));
+            }
+            hash = finish(hash);
+            int size = sizes[depth--];
+
+            hashes[depth] = mix(hashes[depth], hash);
+            sizes[depth] += size;
+            last = hash;
+
+            if (listener != null) {
+                listener.subtree(j, hash, size);
+            }
+            return j;
+        }
+
+        /**
+         * Hashes the attribute of a tree stably across JVMs, and so that values of different types, like the
+         * literals {@code 'a'} and {@code "a"} or {@code 1} and {@code 1L}, hash differently.
+         */
+        private long attributes(J j) {
+            Object attribute = attribute(j);
+            if (attribute == null) {
+                return 0;
+            } else if (attribute instanceof Enum) {
+                return ((Enum<?>) attribute).name().hashCode();
+            }
+            return mix(attribute.getClass().getName().hashCode(), attribute.hashCode());
+        }
+
+        private long typeHash(J j) {
+            return Objects.hashCode(typeKey(j));
+        }
+
+        @Override
+        public J preVisit(J tree, Integer p) {
+            if (semanticallyComparable && !(tree instanceof J.Identifier || tree instanceof J.Literal ||
+                    tree instanceof J.Assignment ||
+                    tree instanceof J.Annotation && ((J.Annotation) tree).getArguments() != null)) {
+                semanticallyComparable = false;
+            }
+            return tree;
+        }
+
+        private static long mix(long hash, long value) {
+            return hash * 1_000_003L + value;
+        }
+
+        /**
+         * The finalizer of MurmurHash3, so that similar trees do not have similar hashes.
+         */
+        private static long finish(long hash) {
+            hash ^= hash >>> 33;
+            hash *= 0xff51afd7ed558ccdL;
+            hash ^= hash >>> 33;
+            hash *= 0xc4ceb9a62b2fe4b9L;
+            hash ^= hash >>> 33;
+            return hash;
+        }
+    }
+
+    /**
+     * Flattens a tree into the sequence of the kinds, attributes and types of its subtrees, which is the same for
+     * two trees exactly when they are structurally equal.
+     */
+    private static class Structure extends JavaVisitor<List<Object>> {
+        private static final Object END = new Object();
+
+        private final boolean typeAware;
+
+        Structure(boolean typeAware) {
+            this.typeAware = typeAware;
+        }
+
+        @Override
+        public J visit(@Nullable Tree tree, List<Object> structure) {
+            if (!(tree instanceof J)) {
+                return super.visit(tree, structure);
+            }
+            J j = (J) tree;
+
+            structure.add(j.getClass());
+            structure.add(attribute(j));
+            if (typeAware) {
+                structure.add(typeKey(j));
+            }
+            super.visit(tree, structure);
+            structure.add(END);
+            return j;
+        }
+    }
+}
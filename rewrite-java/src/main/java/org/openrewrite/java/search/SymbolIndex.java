@@ -0,0 +1,234 @@
+/*
+ * Copyright 2020 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.search;
+
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.Incubating;
+import org.openrewrite.SourceFile;
+import org.openrewrite.internal.WeakIdentityMap;
+import org.openrewrite.internal.lang.Nullable;
+import org.openrewrite.java.AnnotationMatcher;
+import org.openrewrite.java.JavaIsoVisitor;
+import org.openrewrite.java.MethodMatcher;
+import org.openrewrite.java.tree.*;
+
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import static java.util.Collections.emptyMap;
+
+/**
+ * An inverted index of the types, methods, fields and annotations that a set of compilation units refer to, built in
+ * a single pass over them. Each query answers with the ids of the trees that match, by the source path of the
+ * compilation unit that contains them.
+ * <p>
+ * Once {@link #addTo(ExecutionContext) added to} the execution context of a recipe run, {@link FindTypes},
+ * {@link FindMethods}, {@link FindFields} and {@link FindAnnotations} only visit the compilation units the index
+ * finds a match in. Compilation units that have changed since the index was built are visited as usual.
+ */
+@Incubating(since = "7.0.0")
+public class SymbolIndex {
+    private static final String CONTEXT_KEY = SymbolIndex.class.getName();
+
+    private final WeakIdentityMap<J.CompilationUnit, Boolean> indexed = new WeakIdentityMap<>();
+
+    private final Map<String, Map<Path, Set<UUID>>> types = new HashMap<>();
+    private final Map<String, Map<Path, Set<UUID>>> fields = new HashMap<>();
+    private final Map<JavaType.Method, Map<Path, Set<UUID>>> methods = new HashMap<>();
+    private final Map<Path, List<J.Annotation>> annotations = new HashMap<>();
+
+    private final Map<String, Map<Path, Set<UUID>>> methodQueries = new ConcurrentHashMap<>();
+    private final Map<String, Map<Path, Set<UUID>>> annotationQueries = new ConcurrentHashMap<>();
+
+    private SymbolIndex() {
+    }
+
+    /**
+     * @param sourceFiles The source files to index. Only Java compilation units are indexed.
+     * @return An index of the symbols the compilation units refer to.
+     */
+    public static SymbolIndex build(List<? extends SourceFile> sourceFiles) {
+        SymbolIndex index = new SymbolIndex();
+        Indexer indexer = new Indexer(index);
+        for (SourceFile sourceFile : sourceFiles) {
+            if (sourceFile instanceof J.CompilationUnit) {
+                J.CompilationUnit cu = (J.CompilationUnit) sourceFile;
+                indexer.visit(cu, cu.getSourcePath());
+                index.indexed.put(cu, true);
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Makes this index available to the search recipes run with this execution context.
+     *
+     * @param ctx The execution context recipes will be run with.
+     */
+    public void addTo(ExecutionContext ctx) {
+        ctx.putMessage(CONTEXT_KEY, this);
+    }
+
+    /**
+     * @param cu A compilation unit.
+     * @return Whether this exact compilation unit was indexed, and the index is therefore up-to-date with it.
+     */
+    public boolean isIndexed(J.CompilationUnit cu) {
+        return indexed.get(cu) != null;
+    }
+
+    /**
+     * @param fullyQualifiedTypeName The fully qualified name of a class.
+     * @return The type names (outside of imports) and class literals that refer to the class, as {@link FindTypes}
+     * would find them.
+     */
+    public Map<Path, Set<UUID>> findTypes(String fullyQualifiedTypeName) {
+        return types.getOrDefault(fullyQualifiedTypeName, emptyMap());
+    }
+
+    /**
+     * @param fullyQualifiedTypeName The fully qualified name of a class or type variable.
+     * @return The variable declarations whose type is the class or an array of it, as {@link FindFields} would find
+     * them, along with those nested in the initializers of other variables.
+     */
+    public Map<Path, Set<UUID>> findFields(String fullyQualifiedTypeName) {
+        return fields.getOrDefault(fullyQualifiedTypeName, emptyMap());
+    }
+
+    /**
+     * @param methodPattern A method pattern. See {@link MethodMatcher} for its syntax.
+     * @return The method invocations that match the pattern.
+     */
+    public Map<Path, Set<UUID>> findMethods(String methodPattern) {
+        return methodQueries.computeIfAbsent(methodPattern, pattern -> {
+            MethodMatcher methodMatcher = new MethodMatcher(pattern);
+            Map<Path, Set<UUID>> found = new HashMap<>();
+            for (Map.Entry<JavaType.Method, Map<Path, Set<UUID>>> invocations : methods.entrySet()) {
+                if (methodMatcher.matches(invocations.getKey())) {
+                    for (Map.Entry<Path, Set<UUID>> inSource : invocations.getValue().entrySet()) {
+                        found.computeIfAbsent(inSource.getKey(), p -> new HashSet<>()).addAll(inSource.getValue());
+                    }
+                }
+            }
+            return found;
+        });
+    }
+
+    /**
+     * @param annotationPattern An annotation pattern. See {@link AnnotationMatcher} for its syntax.
+     * @return The annotations that match the pattern.
+     */
+    public Map<Path, Set<UUID>> findAnnotations(String annotationPattern) {
+        return annotationQueries.computeIfAbsent(annotationPattern, pattern -> {
+            AnnotationMatcher annotationMatcher = new AnnotationMatcher(pattern);
+            Map<Path, Set<UUID>> found = new HashMap<>();
+            for (Map.Entry<Path, List<J.Annotation>> inSource : annotations.entrySet()) {
+                for (J.Annotation annotation : inSource.getValue()) {
+                    if (annotationMatcher.matches(annotation)) {
+                        found.computeIfAbsent(inSource.getKey(), p -> new HashSet<>()).add(annotation.getId());
+                    }
+                }
+            }
+            return found;
+        });
+    }
+
+    /**
+     * @return Whether the index added to the execution context, if any, rules out any match of a query in the
+     * compilation unit, so that a search recipe need not visit it.
+     */
+    static boolean excludes(ExecutionContext ctx, J.CompilationUnit cu, Function<SymbolIndex, Map<Path, Set<UUID>>> query) {
+        SymbolIndex index = ctx.getMessage(CONTEXT_KEY);
+        return index != null && index.isIndexed(cu) && !query.apply(index).containsKey(cu.getSourcePath());
+    }
+
+    private static void add(Map<Path, Set<UUID>> bySource, Path sourcePath, UUID id) {
+        bySource.computeIfAbsent(sourcePath, p -> new HashSet<>()).add(id);
+    }
+
+    @Nullable
+    private static String elementTypeName(@Nullable JavaType type) {
+        if (type instanceof JavaType.Array) {
+            return elementTypeName(((JavaType.Array) type).getElemType());
+        }
+        if (type instanceof JavaType.Class) {
+            return ((JavaType.Class) type).getFullyQualifiedName();
+        }
+        if (type instanceof JavaType.GenericTypeVariable) {
+            return ((JavaType.GenericTypeVariable) type).getFullyQualifiedName();
+        }
+        return null;
+    }
+
+    private static class Indexer extends JavaIsoVisitor<Path> {
+        private final SymbolIndex index;
+
+        Indexer(SymbolIndex index) {
+            this.index = index;
+            setCursoringOn();
+        }
+
+        @Override
+        public <N extends NameTree> N visitTypeName(N name, Path sourcePath) {
+            JavaType.Class asClass = TypeUtils.asClass(name.getType());
+            if (asClass != null && getCursor().firstEnclosing(J.Import.class) == null) {
+                add(index.types.computeIfAbsent(asClass.getFullyQualifiedName(), t -> new HashMap<>()),
+                        sourcePath, name.getId());
+            }
+            return super.visitTypeName(name, sourcePath);
+        }
+
+        @Override
+        public J.FieldAccess visitFieldAccess(J.FieldAccess fieldAccess, Path sourcePath) {
+            JavaType.Class targetClass = TypeUtils.asClass(fieldAccess.getTarget().getType());
+            if (targetClass != null && fieldAccess.getName().getSimpleName().equals("class")) {
+                add(index.types.computeIfAbsent(targetClass.getFullyQualifiedName(), t -> new HashMap<>()),
+                        sourcePath, fieldAccess.getId());
+            }
+            return super.visitFieldAccess(fieldAccess, sourcePath);
+        }
+
+        @Override
+        public J.VariableDeclarations visitVariableDeclarations(J.VariableDeclarations multiVariable, Path sourcePath) {
+            TypeTree typeExpression = multiVariable.getTypeExpression();
+            if (typeExpression != null && !(typeExpression instanceof J.MultiCatch)) {
+                String elementTypeName = elementTypeName(typeExpression.getType());
+                if (elementTypeName != null) {
+                    add(index.fields.computeIfAbsent(elementTypeName, t -> new HashMap<>()),
+                            sourcePath, multiVariable.getId());
+                }
+            }
+            return super.visitVariableDeclarations(multiVariable, sourcePath);
+        }
+
+        @Override
+        public J.MethodInvocation visitMethodInvocation(J.MethodInvocation method, Path sourcePath) {
+            JavaType.Method type = method.getType();
+            if (type != null && type.getDeclaringType() != null && type.getResolvedSignature() != null) {
+                add(index.methods.computeIfAbsent(type, t -> new HashMap<>()), sourcePath, method.getId());
+            }
+            return super.visitMethodInvocation(method, sourcePath);
+        }
+
+        @Override
+        public J.Annotation visitAnnotation(J.Annotation annotation, Path sourcePath) {
+            index.annotations.computeIfAbsent(sourcePath, p -> new ArrayList<>()).add(annotation);
+            return super.visitAnnotation(annotation, sourcePath);
+        }
+    }
+}
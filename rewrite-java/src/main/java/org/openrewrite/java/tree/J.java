@@ -68,11 +68,18 @@ public interface J extends Serializable, Tree {
         return new JavaPrinter<>(printer).print(this, p);
     }
 
+    @Override
+    default <P> void print(TreePrinter<P> printer, P p, Appendable out) {
+        new JavaPrinter<>(printer).print(this, p, out);
+    }
+
     @Override
     default <P> String print(P p) {
         return print(TreePrinter.identity(), p);
     }
 
+    <J2 extends J> J2 withId(UUID id);
+
     <J2 extends J> J2 withPrefix(Space space);
 
     Space getPrefix();
@@ -98,6 +105,7 @@ public interface J extends Serializable, Tree {
     @Data
     final class AnnotatedType implements J, Expression, TypeTree {
         @EqualsAndHashCode.Include
+        @With
         UUID id;
 
         @With
@@ -144,6 +152,7 @@ public interface J extends Serializable, Tree {
         transient WeakReference<Padding> padding;
 
         @EqualsAndHashCode.Include
+        @With
         @Getter
         UUID id;
 
@@ -233,6 +242,7 @@ public interface J extends Serializable, Tree {
     @Data
     final class ArrayAccess implements J, Expression {
         @EqualsAndHashCode.Include
+        @With
         UUID id;
 
         @With
@@ -268,6 +278,7 @@ public interface J extends Serializable, Tree {
     final class ArrayType implements J, TypeTree, Expression {
 
         @EqualsAndHashCode.Include
+        @With
         UUID id;
 
         @With
@@ -310,6 +321,7 @@ public interface J extends Serializable, Tree {
     final class Assert implements J, Statement {
 
         @EqualsAndHashCode.Include
+        @With
         UUID id;
 
         @With
@@ -343,6 +355,7 @@ public interface J extends Serializable, Tree {
         transient WeakReference<Padding> padding;
 
         @EqualsAndHashCode.Include
+        @With
         @Getter
         UUID id;
 
@@ -428,6 +441,7 @@ public interface J extends Serializable, Tree {
         transient WeakReference<Padding> padding;
 
         @EqualsAndHashCode.Include
+        @With
         @Getter
         UUID id;
 
@@ -531,6 +545,7 @@ public interface J extends Serializable, Tree {
         transient WeakReference<Padding> padding;
 
         @EqualsAndHashCode.Include
+        @With
         UUID id;
 
         @With
@@ -640,6 +655,7 @@ public interface J extends Serializable, Tree {
 
         @Getter
         @EqualsAndHashCode.Include
+        @With
         UUID id;
 
         @Getter
@@ -726,6 +742,7 @@ public interface J extends Serializable, Tree {
     @Data
     final class Break implements J, Statement {
         @EqualsAndHashCode.Include
+        @With
         UUID id;
 
         @With
@@ -761,6 +778,7 @@ public interface J extends Serializable, Tree {
         transient WeakReference<Padding> padding;
 
         @EqualsAndHashCode.Include
+        @With
         @Getter
         UUID id;
 
@@ -837,6 +855,7 @@ public interface J extends Serializable, Tree {
 
         @Getter
         @EqualsAndHashCode.Include
+        @With
         UUID id;
 
         @With
@@ -1011,6 +1030,7 @@ public interface J extends Serializable, Tree {
         transient WeakReference<Padding> padding;
 
         @EqualsAndHashCode.Include
+        @With
         @Getter
         UUID id;
 
@@ -1113,6 +1133,7 @@ public interface J extends Serializable, Tree {
     @Data
     final class Continue implements J, Statement {
         @EqualsAndHashCode.Include
+        @With
         UUID id;
 
         @With
@@ -1147,6 +1168,7 @@ public interface J extends Serializable, Tree {
         transient WeakReference<Padding> padding;
 
         @EqualsAndHashCode.Include
+        @With
         @Getter
         UUID id;
 
@@ -1230,6 +1252,7 @@ public interface J extends Serializable, Tree {
     @Data
     final class Empty implements J, Statement, Expression, TypeTree {
         @EqualsAndHashCode.Include
+        @With
         UUID id;
 
         @With
@@ -1265,6 +1288,7 @@ public interface J extends Serializable, Tree {
     @Data
     final class EnumValue implements J {
         @EqualsAndHashCode.Include
+        @With
         UUID id;
 
         @With
@@ -1302,6 +1326,7 @@ public interface J extends Serializable, Tree {
         transient WeakReference<Padding> padding;
 
         @EqualsAndHashCode.Include
+        @With
         @Getter
         UUID id;
 
@@ -1376,6 +1401,7 @@ public interface J extends Serializable, Tree {
         transient WeakReference<Padding> padding;
 
         @EqualsAndHashCode.Include
+        @With
         @Getter
         UUID id;
 
@@ -1524,6 +1550,7 @@ public interface J extends Serializable, Tree {
         transient WeakReference<Padding> padding;
 
         @EqualsAndHashCode.Include
+        @With
         @Getter
         UUID id;
 
@@ -1570,6 +1597,7 @@ public interface J extends Serializable, Tree {
             transient WeakReference<Padding> padding;
 
             @EqualsAndHashCode.Include
+            @With
             @Getter
             UUID id;
 
@@ -1688,6 +1716,7 @@ public interface J extends Serializable, Tree {
         transient WeakReference<Padding> padding;
 
         @EqualsAndHashCode.Include
+        @With
         @Getter
         UUID id;
 
@@ -1734,6 +1763,7 @@ public interface J extends Serializable, Tree {
             transient WeakReference<Padding> padding;
 
             @EqualsAndHashCode.Include
+            @With
             @Getter
             UUID id;
 
@@ -1916,6 +1946,14 @@ public interface J extends Serializable, Tree {
             return build(id, prefix, markers, name, getType());
         }
 
+        @SuppressWarnings("unchecked")
+        public Identifier withId(UUID id) {
+            if (id == this.id) {
+                return this;
+            }
+            return new Identifier(id, typeInformation, prefix, markers);
+        }
+
         @SuppressWarnings("unchecked")
         public Identifier withMarkers(Markers markers) {
             if (markers == this.markers) {
@@ -1978,6 +2016,7 @@ public interface J extends Serializable, Tree {
         transient WeakReference<Padding> padding;
 
         @EqualsAndHashCode.Include
+        @With
         @Getter
         UUID id;
 
@@ -2029,6 +2068,7 @@ public interface J extends Serializable, Tree {
             transient WeakReference<Padding> padding;
 
             @EqualsAndHashCode.Include
+            @With
             @Getter
             UUID id;
 
@@ -2129,6 +2169,7 @@ public interface J extends Serializable, Tree {
 
         @Getter
         @EqualsAndHashCode.Include
+        @With
         UUID id;
 
         @Getter
@@ -2271,6 +2312,7 @@ public interface J extends Serializable, Tree {
         transient WeakReference<Padding> padding;
 
         @EqualsAndHashCode.Include
+        @With
         @Getter
         UUID id;
 
@@ -2351,6 +2393,7 @@ public interface J extends Serializable, Tree {
         transient WeakReference<Padding> padding;
 
         @EqualsAndHashCode.Include
+        @With
         @Getter
         UUID id;
 
@@ -2423,6 +2466,7 @@ public interface J extends Serializable, Tree {
     @Data
     final class Lambda implements J, Expression {
         @EqualsAndHashCode.Include
+        @With
         UUID id;
 
         @With
@@ -2465,6 +2509,7 @@ public interface J extends Serializable, Tree {
             transient WeakReference<Padding> padding;
 
             @EqualsAndHashCode.Include
+            @With
             @Getter
             UUID id;
 
@@ -2530,6 +2575,7 @@ public interface J extends Serializable, Tree {
     @Data
     final class Literal implements J, Expression {
         @EqualsAndHashCode.Include
+        @With
         UUID id;
 
         @With
@@ -2602,6 +2648,7 @@ public interface J extends Serializable, Tree {
         transient WeakReference<Padding> padding;
 
         @EqualsAndHashCode.Include
+        @With
         @Getter
         UUID id;
 
@@ -2702,6 +2749,7 @@ public interface J extends Serializable, Tree {
         transient WeakReference<Padding> padding;
 
         @EqualsAndHashCode.Include
+        @With
         @Getter
         UUID id;
 
@@ -2892,6 +2940,7 @@ public interface J extends Serializable, Tree {
         transient WeakReference<Padding> padding;
 
         @EqualsAndHashCode.Include
+        @With
         @Getter
         UUID id;
 
@@ -3050,6 +3099,7 @@ public interface J extends Serializable, Tree {
         }
 
         @EqualsAndHashCode.Include
+        @With
         UUID id;
 
         @With
@@ -3093,6 +3143,7 @@ public interface J extends Serializable, Tree {
         transient WeakReference<Padding> padding;
 
         @EqualsAndHashCode.Include
+        @With
         @Getter
         UUID id;
 
@@ -3179,6 +3230,7 @@ public interface J extends Serializable, Tree {
         transient WeakReference<Padding> padding;
 
         @EqualsAndHashCode.Include
+        @With
         @Getter
         UUID id;
 
@@ -3263,6 +3315,7 @@ public interface J extends Serializable, Tree {
         transient WeakReference<Padding> padding;
 
         @EqualsAndHashCode.Include
+        @With
         @Getter
         UUID id;
 
@@ -3335,6 +3388,7 @@ public interface J extends Serializable, Tree {
 
         @Getter
         @EqualsAndHashCode.Include
+        @With
         UUID id;
 
         @With
@@ -3460,6 +3514,7 @@ public interface J extends Serializable, Tree {
     @Data
     final class Package implements J {
         @EqualsAndHashCode.Include
+        @With
         UUID id;
 
         @With
@@ -3493,6 +3548,7 @@ public interface J extends Serializable, Tree {
         transient WeakReference<Padding> padding;
 
         @EqualsAndHashCode.Include
+        @With
         @Getter
         UUID id;
 
@@ -3585,6 +3641,7 @@ public interface J extends Serializable, Tree {
         transient WeakReference<Padding<J2>> padding;
 
         @EqualsAndHashCode.Include
+        @With
         @Getter
         UUID id;
 
@@ -3676,6 +3733,7 @@ public interface J extends Serializable, Tree {
         transient WeakReference<Padding<J2>> padding;
 
         @EqualsAndHashCode.Include
+        @With
         @Getter
         UUID id;
 
@@ -3762,6 +3820,7 @@ public interface J extends Serializable, Tree {
     final class Primitive implements J, TypeTree, Expression {
         @Getter
         @EqualsAndHashCode.Include
+        @With
         UUID id;
 
         @With
@@ -3808,6 +3867,7 @@ public interface J extends Serializable, Tree {
     @Data
     final class Return implements J, Statement {
         @EqualsAndHashCode.Include
+        @With
         UUID id;
 
         @With
@@ -3836,6 +3896,7 @@ public interface J extends Serializable, Tree {
     @Data
     final class Switch implements J, Statement {
         @EqualsAndHashCode.Include
+        @With
         UUID id;
 
         @With
@@ -3866,6 +3927,7 @@ public interface J extends Serializable, Tree {
     @Data
     final class Synchronized implements J, Statement {
         @EqualsAndHashCode.Include
+        @With
         UUID id;
 
         @With
@@ -3902,6 +3964,7 @@ public interface J extends Serializable, Tree {
         transient WeakReference<Padding> padding;
 
         @EqualsAndHashCode.Include
+        @With
         @Getter
         UUID id;
 
@@ -3994,6 +4057,7 @@ public interface J extends Serializable, Tree {
     @Data
     final class Throw implements J, Statement {
         @EqualsAndHashCode.Include
+        @With
         UUID id;
 
         @With
@@ -4028,6 +4092,7 @@ public interface J extends Serializable, Tree {
 
         @Getter
         @EqualsAndHashCode.Include
+        @With
         UUID id;
 
         @With
@@ -4085,6 +4150,7 @@ public interface J extends Serializable, Tree {
         @Data
         public static final class Resource implements J {
             @EqualsAndHashCode.Include
+            @With
             UUID id;
 
             @With
@@ -4113,6 +4179,7 @@ public interface J extends Serializable, Tree {
         @Data
         public static final class Catch implements J {
             @EqualsAndHashCode.Include
+            @With
             UUID id;
 
             @With
@@ -4182,6 +4249,7 @@ public interface J extends Serializable, Tree {
     @Data
     final class TypeCast implements J, Expression {
         @EqualsAndHashCode.Include
+        @With
         UUID id;
 
         @With
@@ -4229,6 +4297,7 @@ public interface J extends Serializable, Tree {
         transient WeakReference<Padding> padding;
 
         @EqualsAndHashCode.Include
+        @With
         @Getter
         UUID id;
 
@@ -4315,6 +4384,7 @@ public interface J extends Serializable, Tree {
         transient WeakReference<Padding> padding;
 
         @EqualsAndHashCode.Include
+        @With
         @Getter
         UUID id;
 
@@ -4410,6 +4480,7 @@ public interface J extends Serializable, Tree {
         transient WeakReference<Padding> padding;
 
         @EqualsAndHashCode.Include
+        @With
         @Getter
         UUID id;
 
@@ -4479,6 +4550,7 @@ public interface J extends Serializable, Tree {
             transient WeakReference<Padding> padding;
 
             @EqualsAndHashCode.Include
+            @With
             @Getter
             UUID id;
 
@@ -4618,6 +4690,7 @@ public interface J extends Serializable, Tree {
         transient WeakReference<Padding> padding;
 
         @EqualsAndHashCode.Include
+        @With
         @Getter
         UUID id;
 
@@ -4693,6 +4766,7 @@ public interface J extends Serializable, Tree {
         transient WeakReference<Padding> padding;
 
         @EqualsAndHashCode.Include
+        @With
         @Getter
         UUID id;
 
@@ -143,6 +143,40 @@ public class Space implements Markable {
     }
 
     public static Space format(String formatting) {
+        return format(formatting, 0, formatting.length());
+    }
+
+    /**
+     * Equivalent to {@code format(source.subSequence(beginIndex, endIndex).toString())}, but avoids copying
+     * the range of source when it is empty, and avoids scanning it for comments when it can't contain any.
+     *
+     * @param source     The source containing the whitespace and comments.
+     * @param beginIndex The beginning index, inclusive.
+     * @param endIndex   The ending index, exclusive.
+     * @return A space representing the range of source.
+     */
+    public static Space format(CharSequence source, int beginIndex, int endIndex) {
+        if (beginIndex < 0 || endIndex > source.length() || beginIndex > endIndex) {
+            throw new StringIndexOutOfBoundsException("begin " + beginIndex + ", end " + endIndex +
+                    ", length " + source.length());
+        }
+
+        if (beginIndex == endIndex) {
+            return EMPTY;
+        }
+
+        boolean mayContainComments = false;
+        for (int i = beginIndex; i < endIndex; i++) {
+            if (source.charAt(i) == '/') {
+                mayContainComments = true;
+                break;
+            }
+        }
+
+        if (!mayContainComments) {
+            return build(source.subSequence(beginIndex, endIndex).toString(), emptyList(), Markers.EMPTY);
+        }
+
         StringBuilder prefix = new StringBuilder();
         StringBuilder comment = new StringBuilder();
         List<Comment> comments = new ArrayList<>();
@@ -153,8 +187,8 @@ public class Space implements Markable {
 
         char last = 0;
 
-        char[] charArray = formatting.toCharArray();
-        for (char c : charArray) {
+        for (int i = beginIndex; i < endIndex; i++) {
+            char c = source.charAt(i);
             switch (c) {
                 case '/':
                     if (last == '/' && !inSingleLineComment && !inMultiLineComment && !inJavadoc) {
@@ -194,7 +228,7 @@ public class Space implements Markable {
                     if (last == '/' && !inMultiLineComment && !inJavadoc) {
                         inMultiLineComment = true;
                         comment = new StringBuilder();
-                    } else if (last == '*' && inMultiLineComment && comment.toString().isEmpty()) {
+                    } else if (last == '*' && inMultiLineComment && comment.length() == 0) {
                         inMultiLineComment = false;
                         inJavadoc = true;
                         comment = new StringBuilder();
@@ -110,4 +110,16 @@ class SpaceTest {
         assertThat(Space.build("  \n   \n    ", emptyList(), Markers.EMPTY).indent)
             .isEqualTo("    ")
     }
+
+    @Test
+    fun formatRange() {
+        val source = "class A {\n    /* comment */\n    int n;\n}"
+
+        val commented = Space.format(source, source.indexOf('{') + 1, source.indexOf("int"))
+        assertThat(commented).isEqualTo(Space.format("\n    /* comment */\n    "))
+        assertThat(commented.comments.first().text).isEqualTo(" comment ")
+
+        assertThat(Space.format(source, source.indexOf("n;") - 1, source.indexOf("n;")).whitespace).isEqualTo(" ")
+        assertThat(Space.format(source, 3, 3)).isSameAs(Space.EMPTY)
+    }
 }
@@ -18,6 +18,7 @@ package org.openrewrite.maven.utilities;
 import org.openrewrite.ExecutionContext;
 import org.openrewrite.SourceFile;
 import org.openrewrite.java.JavaParser;
+import org.openrewrite.java.JavaTypeCache;
 import org.openrewrite.maven.MavenParser;
 import org.openrewrite.maven.tree.Maven;
 import org.openrewrite.maven.tree.Pom;
@@ -57,9 +58,14 @@ public class MavenProjectParser {
         List<SourceFile> sourceFiles = new ArrayList<>(mavens);
 
         for (Maven maven : mavens) {
+            // the test classpath resolves the same versions of the compile dependencies, so the main and test
+            // parsers of a module can share the types they build for them
+            JavaTypeCache typeCache = new JavaTypeCache();
+
             sourceFiles.addAll(
                     javaParserBuilder
                             .classpath(downloadArtifacts(maven.getModel().getDependencies(Scope.Compile)))
+                            .typeCache(typeCache)
                             .build()
                             .parse(maven.getJavaSources(ctx), projectDirectory, ctx)
             );
@@ -67,10 +73,14 @@ public class MavenProjectParser {
             sourceFiles.addAll(
                     javaParserBuilder
                             .classpath(downloadArtifacts(maven.getModel().getDependencies(Scope.Test)))
+                            .typeCache(typeCache)
                             .build()
                             .parse(maven.getTestJavaSources(ctx), projectDirectory, ctx)
             );
 
+            // the builder belongs to the caller, so don't leave it holding on to this module's types
+            javaParserBuilder.typeCache(null);
+
             List<Path> resources = new ArrayList<>(maven.getResources(ctx));
             resources.addAll(maven.getTestResources(ctx));
 
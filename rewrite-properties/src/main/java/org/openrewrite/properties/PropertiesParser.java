@@ -51,6 +51,7 @@ public class PropertiesParser implements Parser<Properties.File> {
                         onParse.onParseStart(sourceFile.getPath());
                         Properties.File file = parseFromInput(sourceFile.getRelativePath(relativeTo), is);
                         onParse.onParseSucceeded(sourceFile.getPath());
+                        onParse.onSourceFileParsed(file);
                         return file;
                     } catch (IOException e) {
                         onParse.onParseFailed(sourceFile.getPath());
@@ -18,6 +18,7 @@ package org.openrewrite.properties.internal;
 import org.openrewrite.Cursor;
 import org.openrewrite.Tree;
 import org.openrewrite.TreePrinter;
+import org.openrewrite.internal.PrinterAccumulator;
 import org.openrewrite.internal.lang.NonNull;
 import org.openrewrite.internal.lang.Nullable;
 import org.openrewrite.properties.PropertiesVisitor;
@@ -27,10 +28,11 @@ import java.util.List;
 
 public class PropertiesPrinter<P> extends PropertiesVisitor<P> {
 
-    private static final String PRINTER_ACC_KEY = "printed";
-
     private final TreePrinter<P> treePrinter;
 
+    @Nullable
+    private PrinterAccumulator accumulator;
+
     public PropertiesPrinter(TreePrinter<P> treePrinter) {
         this.treePrinter = treePrinter;
         setCursoringOn();
@@ -38,18 +40,42 @@ public class PropertiesPrinter<P> extends PropertiesVisitor<P> {
 
     @NonNull
     protected StringBuilder getPrinter() {
-        StringBuilder acc = getCursor().getRoot().getMessage(PRINTER_ACC_KEY);
-        if (acc == null) {
-            acc = new StringBuilder();
-            getCursor().getRoot().putMessage(PRINTER_ACC_KEY, acc);
+        if (accumulator == null) {
+            accumulator = new PrinterAccumulator();
         }
-        return acc;
+        return accumulator.getBuffer();
     }
 
     public String print(Properties properties, P p) {
-        setCursor(new Cursor(null, "EPSILON"));
-        visit(properties, p);
-        return getPrinter().toString();
+        PrinterAccumulator enclosing = accumulator;
+        try {
+            accumulator = new PrinterAccumulator();
+            setCursor(new Cursor(null, "EPSILON"));
+            visit(properties, p);
+            return accumulator.getBuffer().toString();
+        } finally {
+            accumulator = enclosing;
+        }
+    }
+
+    /**
+     * Print to a sink, periodically draining the printed output into it rather than building the whole
+     * output as one string.
+     *
+     * @param properties The tree to print.
+     * @param p Visit context.
+     * @param out The sink to print to. It is neither flushed nor closed.
+     */
+    public void print(Properties properties, P p, Appendable out) {
+        PrinterAccumulator enclosing = accumulator;
+        try {
+            accumulator = new PrinterAccumulator(out, treePrinter);
+            setCursor(new Cursor(null, "EPSILON"));
+            visit(properties, p);
+            accumulator.flush();
+        } finally {
+            accumulator = enclosing;
+        }
     }
 
     @Override
@@ -66,6 +92,7 @@ public class PropertiesPrinter<P> extends PropertiesVisitor<P> {
         if (tree != null) {
             treePrinter.doAfter(tree, printer, p);
         }
+        accumulator.flushIfFull();
         return (Properties) tree;
     }
 
@@ -69,6 +69,21 @@ interface AddImportTest : RecipeTest {
         """
     )
 
+    @Test
+    fun doNotAddImportIfOnlyReferencedByFullyQualifiedName(jp: JavaParser) = assertUnchanged(
+        jp,
+        recipe = addImports(
+            AddImport("java.util.Date", null, true)
+        ),
+        before = """
+            package a;
+            
+            class A {
+                java.util.Date date;
+            }
+        """
+    )
+
     @Test
     fun doNotAddWildcardImportIfNotReferenced(jp: JavaParser) = assertUnchanged(
         jp,
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2020 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java
+
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.Test
+import org.openrewrite.RecipeTest
+
+interface ChangePackagesTest : RecipeTest {
+    @Test
+    fun changeManyPackages(jp: JavaParser) = assertChanged(
+        jp,
+        recipe = ChangePackages(mapOf(
+            "org.openrewrite" to "org.openrewrite.test",
+            "org.other" to "org.another"
+        )),
+        before = """
+            package org.openrewrite;
+            
+            import org.other.Other;
+            
+            class Test {
+                Other other;
+            }
+        """,
+        after = """
+            package org.openrewrite.test;
+            
+            import org.another.Other;
+            
+            class Test {
+                Other other;
+            }
+        """,
+        dependsOn = arrayOf("""
+            package org.other;
+            public class Other {
+            }
+        """),
+        afterConditions = { cu ->
+            assertThat(cu.sourcePath.toString()).contains("org/openrewrite/test")
+        }
+    )
+
+    @Test
+    fun changeStarImports(jp: JavaParser) = assertChanged(
+        jp,
+        recipe = ChangePackages(mapOf("org.openrewrite" to "org.openrewrite.test")),
+        before = """
+            import org.openrewrite.*;
+            
+            class A<T extends org.openrewrite.Test> {
+                Test test;
+            }
+        """,
+        after = """
+            import org.openrewrite.test.*;
+            
+            class A<T extends org.openrewrite.test.Test> {
+                Test test;
+            }
+        """,
+        dependsOn = arrayOf("""
+            package org.openrewrite;
+            public class Test {
+            }
+        """)
+    )
+}
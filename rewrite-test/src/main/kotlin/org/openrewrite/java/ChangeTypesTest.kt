@@ -0,0 +1,108 @@
+/*
+ * Copyright 2020 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java
+
+import org.junit.jupiter.api.Test
+import org.openrewrite.RecipeTest
+
+interface ChangeTypesTest : RecipeTest {
+    companion object {
+        private val a1 = """
+            package a;
+            public class A1 extends Exception {
+                public static void stat() {}
+            }
+        """.trimIndent()
+
+        private val a2 = """
+            package a;
+            public class A2 extends Exception {
+                public static void stat() {}
+            }
+        """.trimIndent()
+    }
+
+    @Test
+    fun changeManyTypesInOnePass(jp: JavaParser) = assertChanged(
+        jp,
+        recipe = ChangeTypes(mapOf("a.A1" to "b.B1", "a.A2" to "b.B2", "a.Unused" to "b.Unused")),
+        before = """
+            import a.A1;
+            import a.A2;
+            
+            public class C {
+                A1 a1;
+                A2 a2 = new A2();
+                java.util.List<a.A1> list;
+            }
+        """,
+        after = """
+            import b.B1;
+            import b.B2;
+            
+            public class C {
+                B1 a1;
+                B2 a2 = new B2();
+                java.util.List<b.B1> list;
+            }
+        """,
+        dependsOn = arrayOf(a1, a2)
+    )
+
+    @Test
+    fun replaceStarImportOnlyWithReferencedTypes(jp: JavaParser) = assertChanged(
+        jp,
+        recipe = ChangeTypes(mapOf("a.A1" to "b.B1", "a.A2" to "b.B2")),
+        before = """
+            import a.*;
+            
+            public class C {
+                A1 a1;
+            }
+        """,
+        after = """
+            import b.B1;
+            
+            public class C {
+                B1 a1;
+            }
+        """,
+        dependsOn = arrayOf(a1, a2)
+    )
+
+    @Test
+    fun dontImportTypesInTheSamePackage(jp: JavaParser) = assertChanged(
+        jp,
+        recipe = ChangeTypes(mapOf("a.A1" to "b.B1")),
+        before = """
+            package b;
+            
+            import a.A1;
+            
+            public class C {
+                A1 a1;
+            }
+        """,
+        after = """
+            package b;
+            
+            public class C {
+                B1 a1;
+            }
+        """,
+        dependsOn = arrayOf(a1)
+    )
+}
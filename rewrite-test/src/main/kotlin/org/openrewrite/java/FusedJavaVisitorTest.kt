@@ -0,0 +1,132 @@
+/*
+ * Copyright 2020 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java
+
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.Test
+import org.openrewrite.ExecutionContext
+import org.openrewrite.InMemoryExecutionContext
+import org.openrewrite.Recipe
+import org.openrewrite.java.cleanup.SimplifyBooleanExpression
+import org.openrewrite.java.cleanup.SimplifyBooleanReturn
+import org.openrewrite.java.cleanup.UnnecessaryParentheses
+import org.openrewrite.java.tree.J
+
+interface FusedJavaVisitorTest {
+    companion object {
+        private val source = """
+            public class A {
+                boolean test(boolean a) {
+                    int n = (1);
+                    if (!!(a && a)) {
+                        return true;
+                    } else {
+                        return false;
+                    }
+                }
+
+                boolean other(boolean b) {
+                    boolean c = (b == true) || false;
+                    return c;
+                }
+            }
+        """.trimIndent()
+    }
+
+    fun cleanup(fusable: Boolean): Recipe = if (fusable) {
+        UnnecessaryParentheses()
+            .doNext(SimplifyBooleanExpression())
+            .doNext(SimplifyBooleanReturn())
+    } else {
+        object : UnnecessaryParentheses() {
+            override fun isFusable() = false
+        }
+            .doNext(object : SimplifyBooleanExpression() {
+                override fun isFusable() = false
+            })
+            .doNext(object : SimplifyBooleanReturn() {
+                override fun isFusable() = false
+            })
+    }
+
+    @Test
+    fun fusedRecipesMakeTheSameChangesInOneTraversal(jp: JavaParser) {
+        val fused = cleanup(true).run(jp.parse(source), InMemoryExecutionContext { t -> throw t })
+        jp.reset()
+        val unfused = cleanup(false).run(jp.parse(source), InMemoryExecutionContext { t -> throw t })
+
+        assertThat(fused).hasSize(1)
+        assertThat(fused[0].after!!.print()).isEqualTo("""
+            public class A {
+                boolean test(boolean a) {
+                    int n = 1;
+                    return a;
+                }
+
+                boolean other(boolean b) {
+                    boolean c = b || false;
+                    return c;
+                }
+            }
+        """.trimIndent())
+        assertThat(fused[0].after!!.print()).isEqualTo(unfused[0].after!!.print())
+        assertThat(fused[0].recipesThatMadeChanges.map { it.javaClass.name })
+            .containsExactlyInAnyOrderElementsOf(unfused[0].recipesThatMadeChanges.map { it.javaClass.superclass.name })
+    }
+
+    private class Fusable(private val visitor: JavaIsoVisitor<ExecutionContext>) : Recipe() {
+        override fun isFusable() = true
+        override fun getVisitor() = visitor
+    }
+
+    @Test
+    fun newSubtreesVisitedByAFusedVisitorAreVisitedInFull(jp: JavaParser) {
+        val upperCase = object : JavaIsoVisitor<ExecutionContext>() {
+            override fun visitIdentifier(identifier: J.Identifier, p: ExecutionContext): J.Identifier =
+                identifier.withName(identifier.simpleName.toUpperCase())
+
+            override fun visitMethodDeclaration(method: J.MethodDeclaration, p: ExecutionContext): J.MethodDeclaration {
+                val m = super.visitMethodDeclaration(method, p)
+                return if (m.simpleName == "TEST") m.withName(visit(m.name.withName("renamed"), p) as J.Identifier) else m
+            }
+        }
+
+        val results = Fusable(upperCase).doNext(Fusable(object : JavaIsoVisitor<ExecutionContext>() {}))
+            .run(jp.parse("class A { void test() {} }"), InMemoryExecutionContext { t -> throw t })
+
+        assertThat(results[0].after!!.print()).isEqualTo("class A { void RENAMED() {} }")
+    }
+
+    @Test
+    fun changesAreAttributedPerSourceFileWhenVisitorsAreReused(jp: JavaParser) {
+        fun replaceLiteral(from: Int, to: Int) = Fusable(object : JavaIsoVisitor<ExecutionContext>() {
+            override fun visitLiteral(literal: J.Literal, p: ExecutionContext): J.Literal =
+                if (literal.value == from) literal.withValue(to).withValueSource(to.toString()) else literal
+        })
+
+        val first = replaceLiteral(1, 2)
+        val second = replaceLiteral(3, 4)
+        val results = first.doNext(second).run(
+            jp.parse("class A { int n = 1; }", "class B { int n = 3; }"),
+            InMemoryExecutionContext { t -> throw t }, 1
+        )
+
+        assertThat(results.map { it.after!!.print() })
+            .containsExactly("class A { int n = 2; }", "class B { int n = 4; }")
+        assertThat(results.map { it.recipesThatMadeChanges })
+            .containsExactly(setOf(first), setOf(second))
+    }
+}
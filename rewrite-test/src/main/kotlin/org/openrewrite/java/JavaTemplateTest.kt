@@ -15,6 +15,7 @@
  */
 package org.openrewrite.java
 
+import org.assertj.core.api.Assertions.assertThat
 import org.junit.jupiter.api.Test
 import org.openrewrite.ExecutionContext
 import org.openrewrite.Issue
@@ -170,6 +171,118 @@ interface JavaTemplateTest : RecipeTest {
         """
     )
 
+    @Test
+    fun minimalStubOmitsCommentsAndStatementsDeclaringNothing(jp: JavaParser) {
+        val generated = mutableListOf<String>()
+        assertChanged(
+            jp,
+            recipe = object : JavaVisitor<ExecutionContext>() {
+                val template = template("others.add(#{});")
+                    .minimalStub(true)
+                    .doBeforeParseTemplate { generated.add(it) }
+                    .build()
+
+                init {
+                    setCursoringOn()
+                }
+
+                override fun visitBlock(block: J.Block, p: ExecutionContext): J {
+                    var b = super.visitBlock(block, p)
+                    val parent = cursor.dropParentUntil { it is J }.getValue<J>()
+                    if (parent is J.MethodDeclaration) {
+                        b = b.withTemplate(
+                            template,
+                            block.statements[2].coordinates.before(),
+                            (parent.parameters[0] as J.VariableDeclarations).variables[0]
+                        )
+                    }
+                    return b
+                }
+            }.toRecipe(),
+            before = """
+                import java.util.List;
+                public class A {
+                    // counts
+                    int n = 0;
+                    void foo(String m, List<String> others) {
+                        n++;
+                        String local = m;
+                        n++;
+                    }
+                }
+            """,
+            after = """
+                import java.util.List;
+                public class A {
+                    // counts
+                    int n = 0;
+                    void foo(String m, List<String> others) {
+                        n++;
+                        String local = m;
+                        others.add(m);
+                        n++;
+                    }
+                }
+            """
+        )
+
+        assertThat(generated).isNotEmpty
+        val beforeSnippet = generated[0].substringBefore("<<<<START>>>>")
+        assertThat(beforeSnippet).contains("String local;").doesNotContain("n++").doesNotContain("counts")
+    }
+
+    @Test
+    fun templateIsCompiledOnceForPlacesWithTheSameDeclarations(jp: JavaParser) {
+        val generated = mutableListOf<String>()
+        assertChanged(
+            jp,
+            recipe = object : JavaVisitor<ExecutionContext>() {
+                val template = template("n++;")
+                    .javaParser(jp)
+                    .doBeforeParseTemplate { generated.add(it) }
+                    .build()
+
+                init {
+                    setCursoringOn()
+                }
+
+                override fun visitBlock(block: J.Block, p: ExecutionContext): J {
+                    val b = super.visitBlock(block, p)
+                    val parent = cursor.dropParentUntil { it is J }.getValue<J>()
+                    return if (parent is J.MethodDeclaration && block.statements.isEmpty())
+                        b.withTemplate(template, block.coordinates.lastStatement()) else b
+                }
+            }.toRecipe(),
+            before = """
+                public class A {
+                    // the first two methods see the same declarations
+                    void a(int n) {
+                    }
+                    void b(int n) {
+                    }
+                    void c(long n) {
+                    }
+                }
+            """,
+            after = """
+                public class A {
+                    // the first two methods see the same declarations
+                    void a(int n) {
+                        n++;
+                    }
+                    void b(int n) {
+                        n++;
+                    }
+                    void c(long n) {
+                        n++;
+                    }
+                }
+            """
+        )
+
+        assertThat(generated).hasSize(2)
+    }
+
     @Test
     fun lastInMethodBodyStatement(jp: JavaParser) = assertChanged(
         jp,
@@ -29,6 +29,9 @@ abstract class JavaVisitorCompatibilityKit {
     @Nested
     inner class AddImportTck : AddImportTest
 
+    @Nested
+    inner class AutoFormatChangesTck : AutoFormatChangesTest
+
     @Nested
     inner class BlankLinesTck : BlankLinesTest
 
@@ -53,9 +56,15 @@ abstract class JavaVisitorCompatibilityKit {
     @Nested
     inner class ChangePackage : ChangePackageTest
 
+    @Nested
+    inner class ChangePackagesTck : ChangePackagesTest
+
     @Nested
     inner class ChangeTypeTck : ChangeTypeTest
 
+    @Nested
+    inner class ChangeTypesTck : ChangeTypesTest
+
     @Nested
     inner class CovariantEqualsTck : CovariantEqualsTest
 
@@ -80,6 +89,9 @@ abstract class JavaVisitorCompatibilityKit {
     @Nested
     inner class FindTypesTck : FindTypesTest
 
+    @Nested
+    inner class FusedJavaVisitorTck : FusedJavaVisitorTest
+
     @Nested
     inner class ImplementInterfaceTck : ImplementInterfaceTest
 
@@ -92,6 +104,9 @@ abstract class JavaVisitorCompatibilityKit {
     @Nested
     inner class NormalizeFormatTck : NormalizeFormatTest
 
+    @Nested
+    inner class NormalizeSpacingTck : NormalizeSpacingTest
+
     @Nested
     inner class OrderImportsTck : OrderImportsTest
 
@@ -119,6 +134,12 @@ abstract class JavaVisitorCompatibilityKit {
     @Nested
     inner class SpacesTck : SpacesTest
 
+    @Nested
+    inner class StructuralHashTck : StructuralHashTest
+
+    @Nested
+    inner class SymbolIndexTck : SymbolIndexTest
+
     @Nested
     inner class TabsAndIndentsTck : TabsAndIndentsTest
 
@@ -156,4 +156,72 @@ interface MethodMatcherTest {
         assertTrue(MethodMatcher("a.A setInteger(Integer)").matches(setIntegerMethod, classDecl))
         assertTrue(MethodMatcher("a.A getInteger()").matches(getIntegerMethod, classDecl))
     }
+
+    @Test
+    fun matchesMethodInvocation(jp: JavaParser) {
+        val cu = jp.parse(
+            """
+            import java.util.*;
+
+            class A {
+                void test(List<String> list, Object a, Object b) {
+                    Collections.unmodifiableList(list);
+                    String.format("%s %s", a, b);
+                }
+            }
+        """.trimIndent()
+        )[0]
+
+        val statements = (cu.classes[0].body.statements[0] as J.MethodDeclaration).body!!.statements
+        val unmodifiableList = statements[0] as J.MethodInvocation
+        val format = statements[1] as J.MethodInvocation
+
+        assertTrue(MethodMatcher("java.util.Collections unmodifiable*(..)").matches(unmodifiableList))
+        assertTrue(MethodMatcher("java..* *(java.util.List)").matches(unmodifiableList))
+        assertTrue(MethodMatcher("*..Collections *(java.util.*)").matches(unmodifiableList))
+        assertFalse(MethodMatcher("java.util.* emptyList()").matches(unmodifiableList))
+        assertFalse(MethodMatcher("java.util.Collections unmodifiableList()").matches(unmodifiableList))
+
+        assertTrue(MethodMatcher("java.lang.String format(String, ..)").matches(format))
+        assertTrue(MethodMatcher("java.lang.String format(.., Object[])").matches(format))
+        assertTrue(MethodMatcher("java.lang.String format(String, Object...)").matches(format))
+        assertFalse(MethodMatcher("java.lang.String format(int, ..)").matches(format))
+        assertFalse(MethodMatcher("java.lang.String format(String)").matches(format))
+
+        // compiled patterns are shared between matchers, and so are cached results
+        assertTrue(MethodMatcher("java.lang.String format(String, ..)").matches(format))
+    }
+
+    @Test
+    fun matchesAnyInvocationOrMethodName(jp: JavaParser) {
+        val cu = jp.parse(
+            """
+            import java.util.*;
+
+            class A {
+                void test(List<String> list, C c) {
+                    Collections.unmodifiableList(list);
+                    c.add("a");
+                    list.size();
+                }
+            }
+
+            class B {
+                void add(String s) {}
+            }
+
+            class C extends B {
+                void add(String s) {}
+            }
+        """.trimIndent()
+        )[0]
+
+        assertTrue(MethodMatcher("java.util.List size()").matchesAnyInvocation(cu))
+        assertFalse(MethodMatcher("java.util.Map size()").matchesAnyInvocation(cu))
+        assertTrue(MethodMatcher("C add(String)").matchesAnyInvocation(cu))
+        assertFalse(MethodMatcher("C add(int)").matchesAnyInvocation(cu))
+        assertTrue(MethodMatcher("java.util.Map size()").matchesAnyMethodName(cu))
+        assertTrue(MethodMatcher("A tes*(..)").matchesAnyMethodName(cu))
+        assertFalse(MethodMatcher("java.util.Map get(..)").matchesAnyMethodName(cu))
+    }
 }
@@ -60,6 +60,31 @@ interface SimplifyBooleanExpressionTest : RecipeTest {
     )
 
 
+    @Test
+    fun simplifyNestedExpressionsInOneCycle(jp: JavaParser) = assertChanged(
+        jp,
+        before = """
+            public class A {
+                boolean m(int a, int b) {
+                    boolean c = !(!(a == b));
+                    boolean d = !(!(!false));
+                    boolean e = ((c == true) && true) || false;
+                    return !(!(c || c));
+                }
+            }
+        """,
+        after = """
+            public class A {
+                boolean m(int a, int b) {
+                    boolean c = (a == b);
+                    boolean d = true;
+                    boolean e = (c && true) || false;
+                    return c;
+                }
+            }
+        """
+    )
+
     @Test
     fun simplifyInvertedBooleanLiteral(jp: JavaParser) = assertChanged(
         jp,
@@ -308,6 +308,32 @@ interface UnnecessaryParenthesesTest : RecipeTest {
         """
     )
 
+    @Test
+    fun unwrapNestedParenthesesInOneCycle(jp: JavaParser.Builder<*, *>) = assertChanged(
+        jp.styles(unnecessaryParentheses {
+            withIdent(true)
+                .withAssign(true)
+        }).build(),
+        before = """
+            public class A {
+                int doNothing(int a) {
+                    int b = (((a + 1)));
+                    b = ((a + b));
+                    return ((b));
+                }
+            }
+        """,
+        after = """
+            public class A {
+                int doNothing(int a) {
+                    int b = a + 1;
+                    b = a + b;
+                    return b;
+                }
+            }
+        """
+    )
+
     @Test
     fun unwrapBandAssign(jp: JavaParser.Builder<*, *>) = assertChanged(
         jp.styles(unnecessaryParentheses {
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2020 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.format
+
+import org.junit.jupiter.api.Test
+import org.openrewrite.ExecutionContext
+import org.openrewrite.RecipeTest
+import org.openrewrite.java.JavaIsoVisitor
+import org.openrewrite.java.JavaParser
+import org.openrewrite.java.tree.J
+import org.openrewrite.java.tree.Space
+import org.openrewrite.java.tree.Statement
+
+interface AutoFormatChangesTest : RecipeTest {
+
+    @Test
+    fun formatOnlyChangedStatements(jp: JavaParser) = assertChanged(
+        jp,
+        recipe = object : JavaIsoVisitor<ExecutionContext>() {
+            init {
+                setCursoringOn()
+            }
+
+            override fun visitClassDeclaration(classDecl: J.ClassDeclaration, p: ExecutionContext): J.ClassDeclaration {
+                val c = super.visitClassDeclaration(classDecl, p)
+                val method = c.body.statements[1] as J.MethodDeclaration
+                val body = method.body!!
+                val moved = body.statements[0].withPrefix<Statement>(Space.format("\n"))
+                val changed = c.withBody(c.body.withStatements(listOf(
+                    c.body.statements[0],
+                    method.withBody(body.withStatements(listOf(moved) + body.statements.drop(1)))
+                )))
+                return maybeAutoFormatChanges(c, changed, p, cursor.parentOrThrow)
+            }
+        }.toRecipe(),
+        before = """
+            class Test {
+                void untouched() {
+                      int n = 0;
+                }
+
+                void changed() {
+                  int m = 0;
+                      int o = 0;
+                      int p = 0;
+                }
+            }
+        """,
+        after = """
+            class Test {
+                void untouched() {
+                      int n = 0;
+                }
+
+                void changed() {
+                    int m = 0;
+                    int o = 0;
+                      int p = 0;
+                }
+            }
+        """
+    )
+
+    @Test
+    fun formatParentWhoseOwnFormattingChangedAlongWithAChild(jp: JavaParser) = assertChanged(
+        jp,
+        recipe = object : JavaIsoVisitor<ExecutionContext>() {
+            init {
+                setCursoringOn()
+            }
+
+            override fun visitClassDeclaration(classDecl: J.ClassDeclaration, p: ExecutionContext): J.ClassDeclaration {
+                val c = super.visitClassDeclaration(classDecl, p)
+                val method = c.body.statements[1] as J.MethodDeclaration
+                val body = method.body!!
+                val moved = body.statements[0].withPrefix<Statement>(Space.format("\n"))
+                val changed = c.withBody(c.body.withStatements(listOf(
+                    c.body.statements[0],
+                    method.withBody(body.withStatements(listOf(moved) + body.statements.drop(1))
+                        .withEnd(Space.format("\n")))
+                )))
+                return maybeAutoFormatChanges(c, changed, p, cursor.parentOrThrow)
+            }
+        }.toRecipe(),
+        before = """
+            class Test {
+                void untouched() {
+                      int n = 0;
+                }
+
+                void changed() {
+                      int m = 0;
+                      int o = 0;
+                }
+            }
+        """,
+        after = """
+            class Test {
+                void untouched() {
+                      int n = 0;
+                }
+
+                void changed() {
+                    int m = 0;
+                    int o = 0;
+                }
+            }
+        """
+    )
+}
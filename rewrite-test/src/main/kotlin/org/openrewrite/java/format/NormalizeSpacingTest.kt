@@ -0,0 +1,56 @@
+/*
+ * Copyright 2020 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.format
+
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.Test
+import org.openrewrite.java.JavaIsoVisitor
+import org.openrewrite.java.JavaParser
+import org.openrewrite.java.tree.J
+import org.openrewrite.java.tree.Space
+
+interface NormalizeSpacingTest {
+
+    @Test
+    fun sameAsSeparateVisitors(jp: JavaParser) {
+        val cu = jp.parse("""
+            import java.util.List;  
+              
+            @Deprecated  
+              public  class Test<T>  extends Object {  
+                @SuppressWarnings("unchecked")  
+                  public static  <U> List<U>  method(Test t)  throws Exception {  
+                    final  int n = 0;  
+                    return  null;  
+                }  
+            }  
+        """.trimIndent())[0]
+
+        val noWhitespace = object : JavaIsoVisitor<Int>() {
+            override fun visitSpace(space: Space, loc: Space.Location, p: Int): Space {
+                return space.withWhitespace("")
+            }
+        }.visit(cu, 0) as J.CompilationUnit
+
+        for (source in listOf(cu, noWhitespace)) {
+            var separately: J = NormalizeFormatVisitor<Int>().visit(source, 0)!!
+            separately = MinimumViableSpacingVisitor<Int>().visit(separately, 0)!!
+            separately = RemoveTrailingWhitespaceVisitor<Int>().visit(separately, 0)!!
+
+            assertThat(NormalizeSpacingVisitor<Int>().visit(source, 0)!!.print()).isEqualTo(separately.print())
+        }
+    }
+}
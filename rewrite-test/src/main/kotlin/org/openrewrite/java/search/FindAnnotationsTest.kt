@@ -34,6 +34,14 @@ interface FindAnnotationsTest: RecipeTest {
                 String baz();
             }
         """
+
+        const val constants = """
+            package com.netflix.foo;
+            public class Constants {
+                public static final String BAR = "bar";
+                public static final String QUUX = "quux";
+            }
+        """
     }
 
     @Test
@@ -146,6 +154,38 @@ interface FindAnnotationsTest: RecipeTest {
         dependsOn = arrayOf(foo)
     )
 
+    @Test
+    fun matchesFieldAccessParameters(jp: JavaParser) = assertChanged(
+        jp,
+        recipe = FindAnnotations("""@com.netflix.foo.Foo(bar=Constants.QUUX,baz="bar")"""),
+        before = """
+            import com.netflix.foo.Foo;
+            import com.netflix.foo.Constants;
+            @Foo(bar = Constants.QUUX, baz = "bar")
+            public class A {}
+        """,
+        after = """
+            import com.netflix.foo.Foo;
+            import com.netflix.foo.Constants;
+            ~~>@Foo(bar = Constants.QUUX, baz = "bar")
+            public class A {}
+        """,
+        dependsOn = arrayOf(foo, constants)
+    )
+
+    @Test
+    fun doesNotMatchDifferentFieldAccessParameters(jp: JavaParser) = assertUnchanged(
+        jp,
+        recipe = FindAnnotations("""@com.netflix.foo.Foo(bar=Constants.BAR,baz="bar")"""),
+        before = """
+            import com.netflix.foo.Foo;
+            import com.netflix.foo.Constants;
+            @Foo(bar = Constants.QUUX, baz = "bar")
+            public class A {}
+        """,
+        dependsOn = arrayOf(foo, constants)
+    )
+
     @Suppress("NULLABILITY_MISMATCH_BASED_ON_JAVA_ANNOTATIONS")
     @Test
     fun checkValidation() {
@@ -363,4 +363,14 @@ interface SemanticallyEqualTest {
 
         assertThat(SemanticallyEqual.areEqual(nameA, nameB)).isTrue()
     }
+
+    @Test
+    fun structurallyDifferentLiteralsAreNotEqual(jp: JavaParser) {
+        val char = J.Literal(randomId(), Space.EMPTY, Markers.EMPTY, 'a', "'a'", JavaType.Primitive.Char)
+        val string = J.Literal(randomId(), Space.EMPTY, Markers.EMPTY, "a", "\"a\"", JavaType.Primitive.String)
+
+        assertThat(StructuralHash.of(char)).isNotEqualTo(StructuralHash.of(string))
+        assertThat(SemanticallyEqual.areEqual(char, string)).isFalse()
+        assertThat(SemanticallyEqual.areEqual(char, char.withId(randomId()))).isTrue()
+    }
 }
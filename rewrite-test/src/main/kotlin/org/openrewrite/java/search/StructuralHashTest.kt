@@ -0,0 +1,222 @@
+/*
+ * Copyright 2020 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.search
+
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.Test
+import org.openrewrite.java.JavaParser
+import org.openrewrite.java.tree.J
+import org.openrewrite.marker.RecipeSearchResult
+
+interface StructuralHashTest {
+
+    private fun methodBodies(jp: JavaParser, source: String): List<J.Block> =
+        jp.parse(source)[0].classes[0].body.statements.map { (it as J.MethodDeclaration).body!! }
+
+    @Test
+    fun formattingAndCommentsDoNotChangeTheHash(jp: JavaParser) {
+        val bodies = methodBodies(jp, """
+            class A {
+                int first(int n) {
+                    return n + 1;
+                }
+                int second(int n) {
+                    // the same, formatted differently
+                    return n+1 ;
+                }
+                int third(int n) {
+                    return n - 1;
+                }
+            }
+        """)
+
+        assertThat(StructuralHash.of(bodies[0])).isEqualTo(StructuralHash.of(bodies[1]))
+        assertThat(StructuralHash.of(bodies[0])).isNotEqualTo(StructuralHash.of(bodies[2]))
+    }
+
+    @Test
+    fun typeAwareHash(jp: JavaParser) {
+        val utilList = methodBodies(jp, """
+            import java.util.List;
+            class A {
+                void test() {
+                    List l = null;
+                }
+            }
+        """)[0]
+        jp.reset()
+        val awtList = methodBodies(jp, """
+            import java.awt.List;
+            class A {
+                void test() {
+                    List l = null;
+                }
+            }
+        """)[0]
+
+        assertThat(StructuralHash.of(utilList)).isEqualTo(StructuralHash.of(awtList))
+        assertThat(StructuralHash.of(utilList, true)).isNotEqualTo(StructuralHash.of(awtList, true))
+    }
+
+    @Test
+    fun findDuplicateCode(jp: JavaParser) {
+        val cus = jp.parse("""
+            class A {
+                int first(int n) {
+                    int m = n * 2;
+                    return m + 1;
+                }
+                int second(int n) {
+                    int m = n * 2; // doubled
+                    return m + 1;
+                }
+                int third(int n) {
+                    int m = n * 2;
+                    return m - 1;
+                }
+            }
+        """)
+
+        val results = FindDuplicateCode(10, false).run(cus)
+        val descriptions = (results[0].after as J.CompilationUnit).classes[0].body.statements
+            .map { (it as J.MethodDeclaration).body!!.markers.findFirst(RecipeSearchResult::class.java) }
+            .map { it.map(RecipeSearchResult::getDescription).orElse(null) }
+
+        assertThat(descriptions[0]).isNotNull
+        assertThat(descriptions[1]).isEqualTo(descriptions[0])
+        assertThat(descriptions[2]).isNull()
+    }
+
+    @Test
+    fun literalsOfDifferentTypesHashDifferently(jp: JavaParser) {
+        val bodies = methodBodies(jp, """
+            class A {
+                Object first() {
+                    return 'a';
+                }
+                Object second() {
+                    return "a";
+                }
+                Object third() {
+                    return 1;
+                }
+                Object fourth() {
+                    return 1L;
+                }
+            }
+        """)
+
+        assertThat(StructuralHash.of(bodies[0])).isNotEqualTo(StructuralHash.of(bodies[1]))
+        assertThat(StructuralHash.of(bodies[2])).isNotEqualTo(StructuralHash.of(bodies[3]))
+    }
+
+    @Test
+    fun collidingBlocksAreNotDuplicates(jp: JavaParser) {
+        // "Aa" and "BB" have the same String hash code, so these blocks have the same structural hash
+        val cus = jp.parse("""
+            class A {
+                int first(int n) {
+                    int Aa = n * 2;
+                    return Aa + 1;
+                }
+                int second(int n) {
+                    int BB = n * 2;
+                    return BB + 1;
+                }
+                int third(int n) {
+                    int Aa = n * 2;
+                    return Aa + 1;
+                }
+                int fourth(int n) {
+                    int BB = n * 2;
+                    return BB + 1;
+                }
+            }
+        """)
+
+        val bodies = cus[0].classes[0].body.statements.map { (it as J.MethodDeclaration).body!! }
+        assertThat(StructuralHash.of(bodies[0])).isEqualTo(StructuralHash.of(bodies[1]))
+
+        val results = FindDuplicateCode(10, false).run(cus)
+        val descriptions = (results[0].after as J.CompilationUnit).classes[0].body.statements
+            .map { (it as J.MethodDeclaration).body!!.markers.findFirst(RecipeSearchResult::class.java) }
+            .map { it.map(RecipeSearchResult::getDescription).orElse(null) }
+
+        assertThat(descriptions).doesNotContainNull()
+        assertThat(descriptions[2]).isEqualTo(descriptions[0])
+        assertThat(descriptions[3]).isEqualTo(descriptions[1])
+        assertThat(descriptions[1]).isNotEqualTo(descriptions[0])
+    }
+
+    @Test
+    fun arrayDimensionsChangeTheHash(jp: JavaParser) {
+        val bodies = methodBodies(jp, """
+            class A {
+                void first(int[] x) {
+                    int[] a = x;
+                    int b[] = x;
+                    Object c = new int[1];
+                    System.out.println(a);
+                }
+                void second(int[][] x) {
+                    int[][] a = x;
+                    int b[] = x[0];
+                    Object c = new int[1];
+                    System.out.println(a);
+                }
+                void third(int[][] x) {
+                    int[] a = x[0];
+                    int b[][] = x;
+                    Object c = new int[1];
+                    System.out.println(a);
+                }
+                void fourth(int[][] x) {
+                    int[] a = x[0];
+                    int b[] = x[0];
+                    Object c = new int[1][1];
+                    System.out.println(a);
+                }
+            }
+        """)
+
+        val hashes = bodies.map { StructuralHash.of(it) }
+        assertThat(hashes).doesNotHaveDuplicates()
+        for (i in bodies.indices) {
+            for (j in bodies.indices) {
+                assertThat(StructuralHash.areEqual(bodies[i], bodies[j], true)).isEqualTo(i == j)
+            }
+        }
+    }
+
+    @Test
+    fun typeAwareHashOfArrays(jp: JavaParser) {
+        val bodies = methodBodies(jp, """
+            class A {
+                void first(int[] x) {
+                    System.out.println(x);
+                }
+                void second(int[][] x) {
+                    System.out.println(x);
+                }
+            }
+        """)
+
+        assertThat(StructuralHash.of(bodies[0])).isEqualTo(StructuralHash.of(bodies[1]))
+        assertThat(StructuralHash.of(bodies[0], true)).isNotEqualTo(StructuralHash.of(bodies[1], true))
+        assertThat(StructuralHash.areEqual(bodies[0], bodies[1], false)).isTrue()
+        assertThat(StructuralHash.areEqual(bodies[0], bodies[1], true)).isFalse()
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2020 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.search
+
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.Test
+import org.openrewrite.InMemoryExecutionContext
+import org.openrewrite.java.JavaParser
+import java.nio.file.Paths
+
+interface SymbolIndexTest {
+
+    @Test
+    fun findSymbolsAcrossCompilationUnits(jp: JavaParser) {
+        val cus = jp.parse(
+            """
+                import java.util.List;
+                @Deprecated
+                class A {
+                    List<String> list;
+                    Class<?> c = java.util.Collections.class;
+                }
+            """,
+            """
+                import java.util.ArrayList;
+                class B {
+                    String[] names;
+                    void test() {
+                        new ArrayList<String>().add("b");
+                    }
+                }
+            """
+        )
+        val a = Paths.get("A.java")
+        val b = Paths.get("B.java")
+
+        val index = SymbolIndex.build(cus)
+
+        assertThat(index.findTypes("java.util.List").keys).containsExactly(a)
+        assertThat(index.findTypes("java.util.Collections").keys).containsExactly(a)
+        assertThat(index.findTypes("java.util.ArrayList").keys).containsExactly(b)
+        assertThat(index.findFields("java.lang.String").keys).containsExactly(b)
+        assertThat(index.findMethods("java.util.ArrayList add(..)").keys).containsExactly(b)
+        assertThat(index.findMethods("java.util.Map put(..)")).isEmpty()
+        assertThat(index.findAnnotations("@java.lang.Deprecated").keys).containsExactly(a)
+
+        val annotation = cus[0].classes[0].annotations[0]
+        assertThat(index.findAnnotations("@java.lang.Deprecated")[a]).containsExactly(annotation.id)
+    }
+
+    @Test
+    fun searchRecipesSkipCompilationUnitsWithoutMatches(jp: JavaParser) {
+        val cus = jp.parse(
+            """
+                import java.util.List;
+                class A {
+                    List<String> list;
+                }
+            """,
+            "class B {}"
+        )
+
+        val index = SymbolIndex.build(cus)
+        val ctx = InMemoryExecutionContext()
+        index.addTo(ctx)
+
+        val results = FindTypes("java.util.List").run(cus, ctx)
+        assertThat(results.map { it.after!!.sourcePath }).containsExactly(Paths.get("A.java"))
+
+        // a compilation unit that changed since it was indexed is visited as usual
+        assertThat(index.isIndexed(cus[1])).isTrue()
+        assertThat(index.isIndexed(cus[1].withClasses(listOf(cus[1].classes[0].withName(cus[1].classes[0].name.withName("C"))))))
+            .isFalse()
+    }
+}
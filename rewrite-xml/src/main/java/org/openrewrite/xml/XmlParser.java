@@ -62,6 +62,7 @@ public class XmlParser implements Parser<Xml.Document> {
                         ).visitDocument(parser.document());
 
                         onParse.onParseSucceeded(sourceFile.getPath());
+                        onParse.onSourceFileParsed(document);
                         return document;
                     } catch (IOException e) {
                         onParse.onParseFailed(sourceFile.getPath());
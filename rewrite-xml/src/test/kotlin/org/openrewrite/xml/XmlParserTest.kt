@@ -33,6 +33,10 @@ class XmlParserTest {
         val xmlPrinter = XmlPrinter<ExecutionContext>(TreePrinter.identity())
         val after = xmlPrinter.print(xmlDocument, InMemoryExecutionContext())
         assertThat(after).`as`("Source should not be changed").isEqualTo(before)
+
+        val streamed = StringBuilder()
+        xmlPrinter.print(xmlDocument, InMemoryExecutionContext(), streamed)
+        assertThat(streamed.toString()).isEqualTo(before)
     }
 
     @Test
@@ -62,6 +62,7 @@ public class YamlParser implements org.openrewrite.Parser<Yaml.Documents> {
                         onParse.onParseStart(sourceFile.getPath());
                         Yaml.Documents yaml = parseFromInput(sourceFile.getRelativePath(relativeTo), is);
                         onParse.onParseSucceeded(sourceFile.getPath());
+                        onParse.onSourceFileParsed(yaml);
                         return yaml;
                     } catch (IOException e) {
                         onParse.onParseFailed(sourceFile.getPath());